@@ -5,6 +5,8 @@ import com.example.demo.auth.dto.LoginRequest;
 import com.example.demo.auth.dto.RegisterRequest;
 import com.example.demo.common.ApiResponse;
 import com.example.demo.common.BusinessException;
+import com.example.demo.metrics.ActivityMetrics;
+import com.example.demo.metrics.ActivityType;
 import com.example.demo.security.JwtUtil;
 import com.example.demo.user.entity.User;
 import com.example.demo.user.service.UserService;
@@ -27,6 +29,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
     /**
      * 用户注册
      */
@@ -34,6 +39,7 @@ public class AuthController {
     public ApiResponse<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
         // 注册用户
         User user = userService.register(request);
+        activityMetrics.record(ActivityType.REGISTRATION);
 
         // 生成JWT token
         String token = jwtUtil.generateToken(user.getUsername(), user.getId());
@@ -54,6 +60,7 @@ public class AuthController {
             // 验证用户凭据
             User user = userService.login(request, httpRequest);
             logger.info("用户登录验证成功: {}, ID: {}", user.getUsername(), user.getId());
+            activityMetrics.record(ActivityType.LOGIN);
 
             // 生成JWT token
             String token = jwtUtil.generateToken(user.getUsername(), user.getId());
@@ -68,9 +75,11 @@ public class AuthController {
             return ApiResponse.ok(authResponse);
         } catch (BusinessException e) {
             logger.warn("登录失败 - BusinessException: {}", e.getMessage());
+            activityMetrics.record(ActivityType.LOGIN_FAILED);
             return ApiResponse.fail(e.getCode(), e.getMessage());
         } catch (Exception e) {
             logger.error("登录失败 - 异常: {} - {}", e.getClass().getName(), e.getMessage(), e);
+            activityMetrics.record(ActivityType.API_ERROR);
             return ApiResponse.fail(50000, "登录失败");
         }
     }
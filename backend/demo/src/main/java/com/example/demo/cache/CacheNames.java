@@ -0,0 +1,27 @@
+package com.example.demo.cache;
+
+/**
+ * 缓存名称常量（失效总线上的 cache 字段）
+ */
+public class CacheNames {
+
+    // 用户信息，键为用户ID
+    public static final String USERS = "users";
+
+    // 角色信息，键为角色ID
+    public static final String ROLES = "roles";
+
+    // 权限信息，键为权限ID
+    public static final String PERMISSIONS = "permissions";
+
+    // 角色的权限集合，键为角色ID
+    public static final String ROLE_PERMISSIONS = "role-permissions";
+
+    // 用户的角色集合，键为用户ID
+    public static final String USER_ROLES = "user-roles";
+
+    // 应用信息，键为应用ID
+    public static final String APPS = "apps";
+
+    private CacheNames() {}
+}
@@ -0,0 +1,142 @@
+package com.example.demo.cache;
+
+import com.example.demo.cache.entity.CacheChangeLog;
+import com.example.demo.cache.entity.ChangeLogRange;
+import com.example.demo.cache.mapper.CacheChangeLogMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * cache_change_log 的消费游标
+ *
+ * 自增ID按分配顺序而非提交顺序可见：读到的ID不连续时，中间的空洞可能是尚未提交的事务，也可能是回滚留下的永久空洞。
+ * 空洞之后的记录立即返回，空洞记为ID区间，每次读取时用 id BETWEEN 重新查询，迟提交的记录补读后返回；
+ * 空洞保留 gap-timeout（应大于最长事务时间），超时后放弃。
+ * 要求 auto_increment_increment 为 1（MySQL 默认值）。非线程安全，由调用方串行使用。
+ */
+public class ChangeLogCursor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogCursor.class);
+
+    // 同时跟踪的空洞上限，超出时放弃最早的空洞
+    static final int MAX_GAPS = 500;
+
+    private final CacheChangeLogMapper changeLogMapper;
+    private final long gapTimeoutMs;
+
+    // 已读到的最大ID
+    private long highWater;
+    // 尚未读到的ID区间，按起始ID排序
+    private final TreeMap<Long, Gap> gaps = new TreeMap<>();
+
+    public ChangeLogCursor(CacheChangeLogMapper changeLogMapper, long position, long gapTimeoutMs) {
+        this.changeLogMapper = changeLogMapper;
+        this.highWater = position;
+        this.gapTimeoutMs = gapTimeoutMs;
+    }
+
+    /**
+     * 从当前时刻开始消费的游标：起点取 gap-timeout 之前写入的最后一条记录，
+     * 最近一个窗口内的记录会重新返回一遍，其中的空洞（可能是进行中的事务）照常跟踪
+     */
+    public static ChangeLogCursor startingNow(CacheChangeLogMapper changeLogMapper, long gapTimeoutMs) {
+        Long start = changeLogMapper.findLastIdBefore(System.currentTimeMillis() - gapTimeoutMs);
+        return new ChangeLogCursor(changeLogMapper, start != null ? start : 0, gapTimeoutMs);
+    }
+
+    /**
+     * 读取下一批尚未返回的记录：先返回空洞内迟提交的记录，再按ID升序返回新记录
+     */
+    public List<CacheChangeLog> next(int maxBatch) {
+        List<CacheChangeLog> fresh = new ArrayList<>();
+        expireGaps(System.currentTimeMillis());
+        if (!gaps.isEmpty()) {
+            for (CacheChangeLog row : changeLogMapper.findInRanges(gapRanges(), maxBatch)) {
+                if (fill(row.getId())) {
+                    fresh.add(row);
+                }
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (CacheChangeLog row : changeLogMapper.findAfter(highWater, maxBatch)) {
+            long id = row.getId();
+            if (id > highWater + 1) {
+                addGap(highWater + 1, id - 1, now);
+            }
+            highWater = id;
+            fresh.add(row);
+        }
+        return fresh;
+    }
+
+    /**
+     * 不大于该值的ID都已返回或已放弃；可作为数据快照的版本号，从这里回放不会漏掉迟提交的事务
+     */
+    public long position() {
+        return gaps.isEmpty() ? highWater : gaps.firstKey() - 1;
+    }
+
+    private List<ChangeLogRange> gapRanges() {
+        List<ChangeLogRange> ranges = new ArrayList<>(gaps.size());
+        for (Gap gap : gaps.values()) {
+            ranges.add(new ChangeLogRange(gap.from, gap.to));
+        }
+        return ranges;
+    }
+
+    private void addGap(long from, long to, long now) {
+        gaps.put(from, new Gap(from, to, now));
+        if (gaps.size() > MAX_GAPS) {
+            Map.Entry<Long, Gap> dropped = gaps.pollFirstEntry();
+            logger.warn("缓存变更日志空洞过多，放弃最早的空洞: [{}, {}]", dropped.getValue().from, dropped.getValue().to);
+        }
+    }
+
+    /**
+     * 从空洞中去掉补读到的ID；ID不在任何空洞内时返回 false
+     */
+    private boolean fill(long id) {
+        Map.Entry<Long, Gap> entry = gaps.floorEntry(id);
+        if (entry == null || entry.getValue().to < id) {
+            return false;
+        }
+        Gap gap = gaps.remove(entry.getKey());
+        if (gap.from < id) {
+            gaps.put(gap.from, new Gap(gap.from, id - 1, gap.since));
+        }
+        if (id < gap.to) {
+            gaps.put(id + 1, new Gap(id + 1, gap.to, gap.since));
+        }
+        return true;
+    }
+
+    private void expireGaps(long now) {
+        Iterator<Gap> iterator = gaps.values().iterator();
+        while (iterator.hasNext()) {
+            Gap gap = iterator.next();
+            if (now - gap.since >= gapTimeoutMs) {
+                logger.debug("放弃缓存变更日志空洞: [{}, {}]", gap.from, gap.to);
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Gap {
+        final long from;
+        final long to;
+        // 空洞首次出现的时间
+        final long since;
+
+        Gap(long from, long to, long since) {
+            this.from = from;
+            this.to = to;
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.demo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 跨实例缓存失效总线
+ *
+ * 写操作所在实例直接更新自己的进程内缓存，同时通过本总线发布 (cache, key, version)；
+ * 其他实例定时拉取并按缓存分组批量投递给注册的监听器。
+ * 若连续拉取失败超过陈旧上限（max-staleness-ms），则对所有缓存投递整体失效，保证陈旧时间有界。
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, List<InvalidationListener>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, List<InvalidationListener>> localListeners = new ConcurrentHashMap<>();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private volatile long lastStalenessMs = 0;
+    private volatile long maxStalenessMs = 0;
+    private volatile long lastPollAt = 0;
+    private volatile long lastSuccessAt = System.currentTimeMillis();
+    private volatile boolean degraded = false;
+
+    @Autowired
+    private InvalidationTransport transport;
+
+    @Value("${cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cache.invalidation.max-staleness-ms:10000}")
+    private long stalenessBoundMs;
+
+    /**
+     * 注册某个缓存的失效监听器
+     */
+    public void register(String cache, InvalidationListener listener) {
+        listeners.computeIfAbsent(cache, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * 注册本实例写操作的失效监听器（事务提交后投递）
+     * 适用于没有在写路径上直接维护、而是依赖失效事件刷新的本地状态
+     */
+    public void registerLocal(String cache, InvalidationListener listener) {
+        localListeners.computeIfAbsent(cache, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * 发布单个键的失效
+     */
+    public void publish(String cache, Object key) {
+        publishAll(cache, List.of(key));
+    }
+
+    /**
+     * 发布一批键的失效（在调用方事务内写入，随业务数据一起提交）
+     */
+    public void publishAll(String cache, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> keyStrings = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            keyStrings.add(String.valueOf(key));
+        }
+        List<InvalidationEvent> events = new ArrayList<>(keyStrings.size());
+        for (int from = 0; from < keyStrings.size(); from += batchSize) {
+            events.addAll(transport.publish(instanceId, cache, keyStrings.subList(from, Math.min(from + batchSize, keyStrings.size()))));
+        }
+        published.addAndGet(keyStrings.size());
+        List<InvalidationListener> cacheListeners = localListeners.get(cache);
+        if (cacheListeners != null) {
+            afterCommit(() -> cacheListeners.forEach(listener -> notifyListener(listener, events)));
+        }
+    }
+
+    /**
+     * 拉取并应用其他实例发布的失效事件
+     */
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-interval-ms:500}",
+               initialDelayString = "${cache.invalidation.poll-interval-ms:500}")
+    public void poll() {
+        long now = System.currentTimeMillis();
+        lastPollAt = now;
+        try {
+            List<InvalidationEvent> events;
+            do {
+                events = transport.poll(batchSize);
+                dispatch(events);
+            } while (events.size() >= batchSize);
+            lastSuccessAt = System.currentTimeMillis();
+            if (degraded) {
+                logger.info("缓存失效总线已恢复");
+                degraded = false;
+            }
+        } catch (Exception e) {
+            if (!degraded && now - lastSuccessAt > stalenessBoundMs) {
+                logger.error("缓存失效总线超过 {}ms 未能拉取，丢弃全部本地缓存", stalenessBoundMs, e);
+                degraded = true;
+                invalidateAllLocal();
+            } else {
+                logger.debug("拉取缓存失效事件失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 对所有已注册缓存投递整体失效
+     */
+    public void invalidateAllLocal() {
+        listeners.forEach((cache, cacheListeners) -> {
+            List<InvalidationEvent> all = List.of(InvalidationEvent.all(cache));
+            for (InvalidationListener listener : cacheListeners) {
+                notifyListener(listener, all);
+            }
+        });
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public InvalidationStats getStats() {
+        InvalidationStats stats = new InvalidationStats();
+        stats.setInstanceId(instanceId);
+        stats.setTransport(transport.name());
+        stats.setVersion(transport.currentVersion());
+        stats.setPublished(published.get());
+        stats.setApplied(applied.get());
+        stats.setLastStalenessMs(lastStalenessMs);
+        stats.setMaxStalenessMs(maxStalenessMs);
+        stats.setStalenessBoundMs(stalenessBoundMs);
+        stats.setLastPollAt(lastPollAt);
+        stats.setDegraded(degraded);
+        return stats;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * 过滤本实例发布的事件，按缓存分组后批量投递
+     */
+    private void dispatch(List<InvalidationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<String, List<InvalidationEvent>> byCache = new LinkedHashMap<>();
+        long oldest = Long.MAX_VALUE;
+        for (InvalidationEvent event : events) {
+            if (instanceId.equals(event.getOrigin())) {
+                continue;
+            }
+            byCache.computeIfAbsent(event.getCache(), k -> new ArrayList<>()).add(event);
+            oldest = Math.min(oldest, event.getPublishedAt());
+        }
+        if (byCache.isEmpty()) {
+            return;
+        }
+        byCache.forEach((cache, cacheEvents) -> {
+            for (InvalidationListener listener : listeners.getOrDefault(cache, List.of())) {
+                notifyListener(listener, cacheEvents);
+            }
+            applied.addAndGet(cacheEvents.size());
+        });
+        long staleness = Math.max(0, System.currentTimeMillis() - oldest);
+        lastStalenessMs = staleness;
+        if (staleness > maxStalenessMs) {
+            maxStalenessMs = staleness;
+        }
+    }
+
+    /**
+     * 有事务时在提交后执行，否则立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void notifyListener(InvalidationListener listener, List<InvalidationEvent> events) {
+        try {
+            listener.onInvalidate(events);
+        } catch (Exception e) {
+            logger.error("缓存失效监听器处理失败: cache={}", events.get(0).getCache(), e);
+        }
+    }
+}
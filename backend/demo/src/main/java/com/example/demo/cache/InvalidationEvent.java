@@ -0,0 +1,74 @@
+package com.example.demo.cache;
+
+/**
+ * 缓存失效事件 (cache, key, version)
+ * version 由传输层分配并单调递增；key 为 {@link #ALL_KEYS} 时表示整个缓存失效
+ */
+public class InvalidationEvent {
+
+    // 表示整个缓存失效的键
+    public static final String ALL_KEYS = "*";
+
+    private final String cache;
+    private final String key;
+    private final long version;
+    private final String origin;
+    // 发布时间（毫秒时间戳），用于度量陈旧时间
+    private final long publishedAt;
+
+    public InvalidationEvent(String cache, String key, long version, String origin, long publishedAt) {
+        this.cache = cache;
+        this.key = key;
+        this.version = version;
+        this.origin = origin;
+        this.publishedAt = publishedAt;
+    }
+
+    /**
+     * 构造整个缓存失效的事件
+     */
+    public static InvalidationEvent all(String cache) {
+        return new InvalidationEvent(cache, ALL_KEYS, 0, null, System.currentTimeMillis());
+    }
+
+    public boolean isAll() {
+        return ALL_KEYS.equals(key);
+    }
+
+    /**
+     * 以 Long 解析键（ID 类缓存）
+     */
+    public Long keyAsLong() {
+        return isAll() ? null : Long.valueOf(key);
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidationEvent{" +
+                "cache='" + cache + '\'' +
+                ", key='" + key + '\'' +
+                ", version=" + version +
+                ", origin='" + origin + '\'' +
+                '}';
+    }
+}
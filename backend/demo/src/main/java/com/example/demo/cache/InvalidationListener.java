@@ -0,0 +1,13 @@
+package com.example.demo.cache;
+
+import java.util.List;
+
+/**
+ * 失效事件监听器
+ * 每次回调传入同一缓存的一批事件；事件可能重复投递，实现需要幂等
+ */
+@FunctionalInterface
+public interface InvalidationListener {
+
+    void onInvalidate(List<InvalidationEvent> events);
+}
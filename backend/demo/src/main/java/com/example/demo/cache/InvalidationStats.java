@@ -0,0 +1,101 @@
+package com.example.demo.cache;
+
+/**
+ * 失效总线统计信息
+ */
+public class InvalidationStats {
+    private String instanceId;
+    private String transport;
+    // 已消费到的版本号
+    private long version;
+    private long published;
+    private long applied;
+    // 最近一批远程失效的陈旧时间（发布到本实例应用的耗时）
+    private long lastStalenessMs;
+    // 启动以来观测到的最大陈旧时间
+    private long maxStalenessMs;
+    // 允许的陈旧上限，超过后丢弃全部本地缓存
+    private long stalenessBoundMs;
+    private long lastPollAt;
+    private boolean degraded;
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public void setTransport(String transport) {
+        this.transport = transport;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public void setPublished(long published) {
+        this.published = published;
+    }
+
+    public long getApplied() {
+        return applied;
+    }
+
+    public void setApplied(long applied) {
+        this.applied = applied;
+    }
+
+    public long getLastStalenessMs() {
+        return lastStalenessMs;
+    }
+
+    public void setLastStalenessMs(long lastStalenessMs) {
+        this.lastStalenessMs = lastStalenessMs;
+    }
+
+    public long getMaxStalenessMs() {
+        return maxStalenessMs;
+    }
+
+    public void setMaxStalenessMs(long maxStalenessMs) {
+        this.maxStalenessMs = maxStalenessMs;
+    }
+
+    public long getStalenessBoundMs() {
+        return stalenessBoundMs;
+    }
+
+    public void setStalenessBoundMs(long stalenessBoundMs) {
+        this.stalenessBoundMs = stalenessBoundMs;
+    }
+
+    public long getLastPollAt() {
+        return lastPollAt;
+    }
+
+    public void setLastPollAt(long lastPollAt) {
+        this.lastPollAt = lastPollAt;
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public void setDegraded(boolean degraded) {
+        this.degraded = degraded;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.cache;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 失效事件传输层
+ * 默认实现为数据库变更日志表轮询（{@link JdbcChangeLogTransport}），
+ * 也可以替换为消息中间件实现：提供一个该接口的 Bean 并设置 cache.invalidation.transport 为其他值即可。
+ */
+public interface InvalidationTransport {
+
+    /**
+     * 传输层名称（用于统计展示）
+     */
+    String name();
+
+    /**
+     * 发布一批同一缓存的失效事件，返回带版本号的事件
+     */
+    List<InvalidationEvent> publish(String origin, String cache, Collection<String> keys);
+
+    /**
+     * 拉取尚未消费的失效事件（包含本实例发布的事件，由调用方过滤），按版本升序
+     */
+    List<InvalidationEvent> poll(int maxBatch);
+
+    /**
+     * 当前已消费到的版本号
+     */
+    long currentVersion();
+}
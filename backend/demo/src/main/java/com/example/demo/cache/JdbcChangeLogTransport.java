@@ -0,0 +1,81 @@
+package com.example.demo.cache;
+
+import com.example.demo.cache.entity.CacheChangeLog;
+import com.example.demo.cache.mapper.CacheChangeLogMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 基于数据库变更日志表的失效传输层（默认实现）
+ *
+ * 发布：向 cache_change_log 写入记录，在调用方事务内执行，与业务数据同时提交或回滚。
+ * 消费：通过 {@link ChangeLogCursor} 按单调递增的游标轮询 id > cursor 的记录，并补读空洞内迟提交的记录。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcChangeLogTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcChangeLogTransport.class);
+
+    @Autowired
+    private CacheChangeLogMapper changeLogMapper;
+
+    @Value("${cache.invalidation.gap-timeout-ms:60000}")
+    private long gapTimeoutMs;
+
+    // 首次轮询时初始化
+    private ChangeLogCursor cursor;
+
+    @Override
+    public String name() {
+        return "jdbc";
+    }
+
+    @Override
+    public List<InvalidationEvent> publish(String origin, String cache, Collection<String> keys) {
+        long now = System.currentTimeMillis();
+        List<CacheChangeLog> entries = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            entries.add(new CacheChangeLog(cache, key, origin, now));
+        }
+        if (!entries.isEmpty()) {
+            changeLogMapper.batchInsert(entries);
+        }
+        List<InvalidationEvent> events = new ArrayList<>(entries.size());
+        for (CacheChangeLog entry : entries) {
+            long version = entry.getId() != null ? entry.getId() : 0;
+            events.add(new InvalidationEvent(cache, entry.getCacheKey(), version, origin, now));
+        }
+        return events;
+    }
+
+    @Override
+    public synchronized List<InvalidationEvent> poll(int maxBatch) {
+        if (cursor == null) {
+            // 首次轮询不回放历史记录，只重读最近一个 gap-timeout 窗口，启动时仍未提交的事务提交后照常读到
+            cursor = ChangeLogCursor.startingNow(changeLogMapper, gapTimeoutMs);
+            logger.info("缓存变更日志游标初始化: {}", cursor.position());
+        }
+
+        List<CacheChangeLog> rows = cursor.next(maxBatch);
+        List<InvalidationEvent> events = new ArrayList<>(rows.size());
+        for (CacheChangeLog row : rows) {
+            events.add(new InvalidationEvent(row.getCacheName(), row.getCacheKey(), row.getId(),
+                    row.getOrigin(), row.getCreatedAt()));
+        }
+        return events;
+    }
+
+    @Override
+    public synchronized long currentVersion() {
+        return cursor != null ? cursor.position() : -1;
+    }
+}
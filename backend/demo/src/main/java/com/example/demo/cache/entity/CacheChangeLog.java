@@ -0,0 +1,65 @@
+package com.example.demo.cache.entity;
+
+/**
+ * 缓存变更日志实体类
+ * id 单调递增，同时作为失效事件的版本号
+ */
+public class CacheChangeLog {
+    private Long id;
+    private String cacheName;
+    private String cacheKey;
+    private String origin;
+    // 发布时间（毫秒时间戳）
+    private Long createdAt;
+
+    // 构造函数
+    public CacheChangeLog() {}
+
+    public CacheChangeLog(String cacheName, String cacheKey, String origin, Long createdAt) {
+        this.cacheName = cacheName;
+        this.cacheKey = cacheKey;
+        this.origin = origin;
+        this.createdAt = createdAt;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.cache.entity;
+
+/**
+ * 变更日志ID区间（闭区间），用于重新查询游标跳过的空洞
+ */
+public class ChangeLogRange {
+    private final long from;
+    private final long to;
+
+    public ChangeLogRange(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+}
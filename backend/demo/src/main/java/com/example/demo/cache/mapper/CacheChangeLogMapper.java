@@ -0,0 +1,63 @@
+package com.example.demo.cache.mapper;
+
+import com.example.demo.cache.entity.CacheChangeLog;
+import com.example.demo.cache.entity.ChangeLogRange;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 缓存变更日志数据访问接口
+ */
+@Mapper
+public interface CacheChangeLogMapper {
+
+    /**
+     * 批量写入变更日志（回填自增ID作为版本号）
+     */
+    @Insert("<script>" +
+            "INSERT INTO cache_change_log (cache_name, cache_key, origin, created_at) VALUES " +
+            "<foreach collection='entries' item='item' separator=','>" +
+            "(#{item.cacheName}, #{item.cacheKey}, #{item.origin}, #{item.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "entries.id", keyColumn = "id")
+    int batchInsert(@Param("entries") List<CacheChangeLog> entries);
+
+    /**
+     * 按游标读取之后的变更（按ID升序）
+     */
+    @Select("SELECT id, cache_name, cache_key, origin, created_at FROM cache_change_log " +
+            "WHERE id > #{cursor} ORDER BY id LIMIT #{limit}")
+    List<CacheChangeLog> findAfter(@Param("cursor") long cursor, @Param("limit") int limit);
+
+    /**
+     * 读取若干ID区间内已提交的变更（按ID升序），用于补读迟提交的事务
+     */
+    @Select("<script>" +
+            "SELECT id, cache_name, cache_key, origin, created_at FROM cache_change_log WHERE " +
+            "<foreach collection='ranges' item='range' open='(' separator=' OR ' close=')'>" +
+            "id BETWEEN #{range.from} AND #{range.to}" +
+            "</foreach>" +
+            " ORDER BY id LIMIT #{limit}" +
+            "</script>")
+    List<CacheChangeLog> findInRanges(@Param("ranges") List<ChangeLogRange> ranges, @Param("limit") int limit);
+
+    /**
+     * 指定时间之前写入的最后一条变更序号；没有时返回 null
+     */
+    @Select("SELECT id FROM cache_change_log WHERE created_at < #{before} ORDER BY id DESC LIMIT 1")
+    Long findLastIdBefore(@Param("before") long before);
+
+    /**
+     * 当前最大变更序号
+     */
+    @Select("SELECT COALESCE(MAX(id), 0) FROM cache_change_log")
+    long findMaxId();
+
+    /**
+     * 仍保留的最小变更序号（更早的已被定期清理）
+     */
+    @Select("SELECT COALESCE(MIN(id), 0) FROM cache_change_log")
+    long findMinId();
+}
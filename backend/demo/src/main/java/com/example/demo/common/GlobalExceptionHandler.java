@@ -1,7 +1,10 @@
 package com.example.demo.common;
 
+import com.example.demo.metrics.ActivityMetrics;
+import com.example.demo.metrics.ActivityType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -15,6 +18,9 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
     // 业务异常（主动抛出）
     @ExceptionHandler(BusinessException.class)
     public ApiResponse<Void> handleBiz(BusinessException ex) {
@@ -48,6 +54,7 @@ public class GlobalExceptionHandler {
     public ApiResponse<Void> handleOthers(Exception ex) {
         // 记录异常堆栈到日志，便于排查问题
         logger.error("服务器异常: {}", ex.getMessage(), ex);
+        activityMetrics.record(ActivityType.API_ERROR);
         return ApiResponse.fail(50000, "服务器异常，请稍后再试");
     }
 }
\ No newline at end of file
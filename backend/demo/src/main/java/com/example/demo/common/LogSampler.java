@@ -0,0 +1,52 @@
+package com.example.demo.common;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 高频日志限流：每个时间窗口内最多放行 permits 条，其余只计数
+ * 用法：
+ * <pre>
+ * if (sampler.allow()) {
+ *     logger.info("... (省略 {} 条)", ..., sampler.takeSuppressed());
+ * }
+ * </pre>
+ * 窗口切换时的并发竞争可能让个别消息多放行或少放行一条，对日志来说可以接受。
+ */
+public final class LogSampler {
+
+    private final long intervalMillis;
+    private final int permits;
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogSampler(long intervalMillis, int permits) {
+        this.intervalMillis = intervalMillis;
+        this.permits = permits;
+    }
+
+    /**
+     * 是否放行本条日志
+     */
+    public boolean allow() {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= intervalMillis && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permits) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * 取出并清零上次放行以来被省略的条数
+     */
+    public long takeSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
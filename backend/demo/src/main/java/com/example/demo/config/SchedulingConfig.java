@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置
+ * 启用 @Scheduled 注解（缓存失效轮询等后台任务）
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,114 @@
+package com.example.demo.config;
+
+import com.example.demo.metrics.HeavyHitterFilter;
+import com.example.demo.metrics.HeavyHitterTracker;
+import com.example.demo.metrics.RequestTimer;
+import com.example.demo.metrics.RequestTimingFilter;
+import com.example.demo.metrics.ServerTimingJacksonConverter;
+import com.example.demo.metrics.SqlBudgetFilter;
+import com.example.demo.metrics.SqlBudgetMonitor;
+import com.example.demo.metrics.TimingPhase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.*;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Value("${cors.allowed-origins:http://localhost:5173,http://127.0.0.1:5173}")
+    private String allowedOrigins;
+
+    @Value("${metrics.server-timing.enabled:true}")
+    private boolean serverTimingEnabled;
+
+    // Server-Timing 中是否带 SQL 条数与 N+1 语句明细（会暴露语句ID，仅压测时开启）
+    @Value("${metrics.sql-budget.server-timing:false}")
+    private boolean sqlServerTiming;
+
+    @Value("${metrics.sql-budget.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/api/**")
+                .allowedOrigins(allowedOrigins.split(","))
+                .allowedMethods("GET","POST","PUT","DELETE","PATCH","OPTIONS")
+                .allowedHeaders("*")
+                .allowCredentials(true)
+                .exposedHeaders(RequestTimingFilter.REQUEST_ID_HEADER, ServerTimingJacksonConverter.HEADER)
+                .maxAge(3600);
+    }
+
+    /**
+     * 控制器执行期间计入 app 阶段
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestTimer.enter(TimingPhase.APP);
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                RequestTimer.exit(TimingPhase.FILTER);
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestTimer.exit(TimingPhase.FILTER);
+            }
+        }).addPathPatterns("/api/**");
+    }
+
+    /**
+     * 替换默认的 JSON 转换器：先序列化到缓冲区，以便把序列化耗时写进 Server-Timing 头
+     */
+    @Bean
+    public ServerTimingJacksonConverter serverTimingJacksonConverter(ObjectMapper objectMapper) {
+        return new ServerTimingJacksonConverter(objectMapper, sqlServerTiming, nPlusOneThreshold);
+    }
+
+    /**
+     * 关联ID与分阶段计时过滤器，位于最外层，使计时覆盖整个过滤器链
+     */
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter() {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+            new FilterRegistrationBean<>(new RequestTimingFilter(serverTimingEnabled, sqlServerTiming, nPlusOneThreshold));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * 高频访问统计过滤器，放在安全过滤器之前以便把被拒绝的请求也计入
+     */
+    @Bean
+    public FilterRegistrationBean<HeavyHitterFilter> heavyHitterFilter(HeavyHitterTracker tracker) {
+        FilterRegistrationBean<HeavyHitterFilter> registration = new FilterRegistrationBean<>(new HeavyHitterFilter(tracker));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * 每请求 SQL 统计过滤器，放在安全过滤器之前，以便认证过程中的查询也计入
+     */
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(SqlBudgetMonitor monitor) {
+        FilterRegistrationBean<SqlBudgetFilter> registration = new FilterRegistrationBean<>(new SqlBudgetFilter(monitor));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.demo.job;
+
+import com.example.demo.job.entity.Job;
+import com.example.demo.job.mapper.JobMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * 任务执行上下文：读取参数、上报进度
+ */
+public class JobContext {
+
+    private final Job job;
+    private final String workerId;
+    private final JobMapper jobMapper;
+    private final ObjectMapper objectMapper;
+
+    JobContext(Job job, String workerId, JobMapper jobMapper, ObjectMapper objectMapper) {
+        this.job = job;
+        this.workerId = workerId;
+        this.jobMapper = jobMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    public Long getJobId() {
+        return job.getId();
+    }
+
+    /**
+     * 当前是第几次执行（从 1 开始）
+     */
+    public int getAttempt() {
+        return job.getAttempts();
+    }
+
+    /**
+     * 把 JSON 参数转换为指定类型
+     */
+    public <T> T getPayload(Class<T> type) throws IOException {
+        String payload = job.getPayload();
+        return objectMapper.readValue(payload == null || payload.isEmpty() ? "{}" : payload, type);
+    }
+
+    /**
+     * 上报进度（0-100）；返回 false 表示任务已不再由本工作者持有（租约过期被回收），应尽快停止
+     */
+    public boolean updateProgress(int progress, String message) {
+        int clamped = Math.max(0, Math.min(progress, 100));
+        return jobMapper.updateProgress(job.getId(), workerId, job.getAttempts(), clamped, message) > 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.job;
+
+import com.example.demo.common.ApiResponse;
+import com.example.demo.job.dto.CreateJobRequest;
+import com.example.demo.job.dto.JobStatsResponse;
+import com.example.demo.job.entity.Job;
+import com.example.demo.job.service.JobService;
+import com.example.demo.security.JwtAuthenticationFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 后台任务控制器
+ * 所有接口需要 ADMIN 角色才能访问
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@PreAuthorize("hasRole('ADMIN')")
+public class JobController {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobWorkerPool jobWorkerPool;
+
+    /**
+     * 提交任务
+     */
+    @PostMapping
+    public ApiResponse<Job> createJob(@Valid @RequestBody CreateJobRequest request, HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        Job job = jobService.enqueue(request.getType(), request.getPayload(), request.getPriority(),
+                request.getMaxAttempts(), userId);
+        return ApiResponse.ok(job);
+    }
+
+    /**
+     * 查询最近的任务
+     */
+    @GetMapping
+    public ApiResponse<List<Job>> listJobs(@RequestParam(required = false) String status,
+                                           @RequestParam(defaultValue = "50") int limit) {
+        return ApiResponse.ok(jobService.listJobs(status, Math.max(1, Math.min(limit, 500))));
+    }
+
+    /**
+     * 可提交的任务类型
+     */
+    @GetMapping("/types")
+    public ApiResponse<List<String>> getJobTypes() {
+        return ApiResponse.ok(jobService.getTypes());
+    }
+
+    /**
+     * 队列深度与执行统计
+     */
+    @GetMapping("/stats")
+    public ApiResponse<JobStatsResponse> getJobStats() {
+        return ApiResponse.ok(jobWorkerPool.getQueueStats());
+    }
+
+    /**
+     * 获取任务详情（含进度）
+     */
+    @GetMapping("/{id}")
+    public ApiResponse<Job> getJob(@PathVariable Long id) {
+        return ApiResponse.ok(jobService.getJob(id));
+    }
+
+    /**
+     * 取消排队中的任务
+     */
+    @PostMapping("/{id}/cancel")
+    public ApiResponse<Job> cancelJob(@PathVariable Long id) {
+        return ApiResponse.ok(jobService.cancel(id));
+    }
+
+    /**
+     * 重新执行失败的任务
+     */
+    @PostMapping("/{id}/retry")
+    public ApiResponse<Job> retryJob(@PathVariable Long id) {
+        return ApiResponse.ok(jobService.retry(id));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.job;
+
+/**
+ * 后台任务处理器，按任务类型注册
+ * 任务可能因重试或工作者失联被执行多次，实现需要保证重复执行是安全的。
+ */
+public interface JobHandler {
+
+    /**
+     * 处理的任务类型
+     */
+    String getType();
+
+    /**
+     * 执行任务；抛出异常时按退避策略重试
+     */
+    void execute(JobContext context) throws Exception;
+}
@@ -0,0 +1,32 @@
+package com.example.demo.job;
+
+import com.example.demo.job.mapper.JobMapper;
+import com.example.demo.system.maintenance.MaintenanceTask;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 清理超过保留期的已完成/已取消任务；失败的任务保留，便于排查和重试
+ */
+@Component
+public class JobPurgeTask implements MaintenanceTask {
+
+    @Autowired
+    private JobMapper jobMapper;
+
+    @Value("${job.retention-days:7}")
+    private long retentionDays;
+
+    @Override
+    public String getName() {
+        return "finished-jobs";
+    }
+
+    @Override
+    public int runBatch(int limit) {
+        return jobMapper.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays), limit);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.job;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本实例的任务执行计数与耗时统计
+ */
+public class JobStats {
+
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    // 完成时发现租约已被回收（任务可能已由其他实例重新执行）
+    private final LongAdder leaseLost = new LongAdder();
+    private final LongAdder queueWaitMs = new LongAdder();
+    private final AtomicLong maxQueueWaitMs = new AtomicLong();
+    private final LongAdder runMs = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final AtomicLong maxRunMs = new AtomicLong();
+
+    void recordClaimed(long waitMs) {
+        claimed.increment();
+        queueWaitMs.add(waitMs);
+        maxQueueWaitMs.accumulateAndGet(waitMs, Math::max);
+    }
+
+    void recordRun(long durationMs) {
+        runs.increment();
+        runMs.add(durationMs);
+        maxRunMs.accumulateAndGet(durationMs, Math::max);
+    }
+
+    void recordSucceeded() {
+        succeeded.increment();
+    }
+
+    void recordFailed() {
+        failed.increment();
+    }
+
+    void recordRetried() {
+        retried.increment();
+    }
+
+    void recordLeaseLost() {
+        leaseLost.increment();
+    }
+
+    public long getClaimed() {
+        return claimed.sum();
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRetried() {
+        return retried.sum();
+    }
+
+    public long getLeaseLost() {
+        return leaseLost.sum();
+    }
+
+    public long getAvgQueueWaitMs() {
+        long count = claimed.sum();
+        return count > 0 ? queueWaitMs.sum() / count : 0;
+    }
+
+    public long getMaxQueueWaitMs() {
+        return maxQueueWaitMs.get();
+    }
+
+    public long getAvgRunMs() {
+        long count = runs.sum();
+        return count > 0 ? runMs.sum() / count : 0;
+    }
+
+    public long getMaxRunMs() {
+        return maxRunMs.get();
+    }
+}
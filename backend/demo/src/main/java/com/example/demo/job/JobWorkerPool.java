@@ -0,0 +1,356 @@
+package com.example.demo.job;
+
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.job.dto.JobStatsResponse;
+import com.example.demo.job.entity.Job;
+import com.example.demo.job.mapper.JobMapper;
+import com.example.demo.job.service.JobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 后台任务工作者池
+ * 调度线程按空闲工作者数量认领任务（FOR UPDATE SKIP LOCKED），多个实例共享同一张 jobs 表互不阻塞。
+ * 认领时写入租约，执行期间定期续约；实例宕机后租约过期，任务由任意实例回收后重新排队。
+ * 完成/失败的状态更新都以 locked_by 和认领时的 attempts 为条件，租约被回收后迟到的结果不会覆盖新一次执行，
+ * 即使新一次执行也在本实例上。
+ */
+@Component
+public class JobWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobWorkerPool.class);
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final long MAX_ERROR_BACKOFF_MS = 30000;
+    private static final int REAP_BATCH_SIZE = 500;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobMapper jobMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${job.enabled:true}")
+    private boolean enabled;
+
+    @Value("${job.workers:4}")
+    private int workers;
+
+    @Value("${job.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${job.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${job.retry-base-delay-ms:5000}")
+    private long retryBaseDelayMs;
+
+    @Value("${job.retry-max-delay-ms:600000}")
+    private long retryMaxDelayMs;
+
+    private final JobStats stats = new JobStats();
+    // 队列深度和最早就绪任务的等待时间（全部实例），定期刷新后由 Prometheus 指标读取
+    private final AtomicLong runnableJobs = new AtomicLong();
+    private final AtomicLong delayedJobs = new AtomicLong();
+    private final AtomicLong runningJobs = new AtomicLong();
+    private final AtomicLong oldestRunnableAgeMs = new AtomicLong();
+    // 本实例正在执行的任务
+    private final Map<Long, Job> active = new ConcurrentHashMap<>();
+    private Semaphore idle;
+    private ExecutorService executor;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void registerMetrics() {
+        queueDepthGauge("runnable", runnableJobs);
+        queueDepthGauge("delayed", delayedJobs);
+        queueDepthGauge("running", runningJobs);
+        TimeGauge.builder("jobs.queue.oldest.age", oldestRunnableAgeMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .description("最早一个已到执行时间的排队任务已等待的时间").register(meterRegistry);
+    }
+
+    /**
+     * 刷新队列指标；只提交任务、不执行的实例同样刷新
+     */
+    @Scheduled(fixedDelayString = "${job.metrics-interval-ms:15000}")
+    public void refreshQueueMetrics() {
+        try {
+            long runnable = jobMapper.countRunnable();
+            runnableJobs.set(runnable);
+            delayedJobs.set(jobMapper.countByStatus(Job.STATUS_PENDING) - runnable);
+            runningJobs.set(jobMapper.countByStatus(Job.STATUS_RUNNING));
+            oldestRunnableAgeMs.set(jobMapper.findOldestRunnableAgeMs());
+        } catch (Exception e) {
+            logger.debug("刷新任务队列指标失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 启动完成后开始认领任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        int size = Math.max(1, workers);
+        idle = new Semaphore(size);
+        AtomicInteger sequence = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(size, r -> {
+            Thread thread = new Thread(r, "job-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "job-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        logger.info("后台任务工作者已启动: 实例={}, 工作者数={}", getWorkerId(), size);
+    }
+
+    /**
+     * 停止认领新任务，等待正在执行的任务结束；未结束的任务租约过期后由其他实例接手
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        dispatcher.interrupt();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("停止时仍有 {} 个任务未执行完，将在租约过期后重新执行", active.size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 为本实例正在执行的任务续约
+     */
+    @Scheduled(fixedDelayString = "${job.renew-interval-ms:20000}")
+    public void renewLeases() {
+        if (active.isEmpty()) {
+            return;
+        }
+        List<Job> jobs = new ArrayList<>(active.values());
+        try {
+            jobMapper.renewLeases(jobs, getWorkerId(), leaseMs);
+        } catch (Exception e) {
+            logger.warn("任务续约失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 回收租约过期的任务（任意实例执行均可，UPDATE 本身是幂等的）
+     */
+    @Scheduled(fixedDelayString = "${job.reap-interval-ms:30000}")
+    public void reapExpired() {
+        if (!running) {
+            return;
+        }
+        try {
+            int requeued = jobMapper.requeueExpired(REAP_BATCH_SIZE);
+            int failed = jobMapper.failExpired(REAP_BATCH_SIZE);
+            if (requeued > 0 || failed > 0) {
+                logger.warn("回收租约过期的任务: 重新排队={}, 标记失败={}", requeued, failed);
+            }
+        } catch (Exception e) {
+            logger.debug("回收过期任务失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 队列深度（全部实例）与本实例的执行统计
+     */
+    public JobStatsResponse getQueueStats() {
+        JobStatsResponse response = new JobStatsResponse();
+        long runnable = jobMapper.countRunnable();
+        response.setRunnable(runnable);
+        response.setDelayed(jobMapper.countByStatus(Job.STATUS_PENDING) - runnable);
+        response.setRunning(jobMapper.countByStatus(Job.STATUS_RUNNING));
+        response.setOldestRunnableAgeMs(jobMapper.findOldestRunnableAgeMs());
+        response.setWorkerId(getWorkerId());
+        response.setWorkers(running ? Math.max(1, workers) : 0);
+        response.setActiveWorkers(active.size());
+        response.setClaimed(stats.getClaimed());
+        response.setSucceeded(stats.getSucceeded());
+        response.setFailed(stats.getFailed());
+        response.setRetried(stats.getRetried());
+        response.setLeaseLost(stats.getLeaseLost());
+        response.setAvgQueueWaitMs(stats.getAvgQueueWaitMs());
+        response.setMaxQueueWaitMs(stats.getMaxQueueWaitMs());
+        response.setAvgRunMs(stats.getAvgRunMs());
+        response.setMaxRunMs(stats.getMaxRunMs());
+        return response;
+    }
+
+    public JobStats getStats() {
+        return stats;
+    }
+
+    public String getWorkerId() {
+        return invalidationBus.getInstanceId();
+    }
+
+    private void queueDepthGauge(String status, AtomicLong value) {
+        Gauge.builder("jobs.queue.depth", value, AtomicLong::get)
+            .description("后台任务队列深度（全部实例）").tag("status", status).register(meterRegistry);
+    }
+
+    private void dispatchLoop() {
+        long errorBackoffMs = pollIntervalMs;
+        while (running) {
+            try {
+                idle.acquire();
+                int slots = 1 + idle.drainPermits();
+                List<Job> jobs;
+                try {
+                    jobs = jobService.claim(getWorkerId(), slots, leaseMs);
+                } catch (RuntimeException e) {
+                    idle.release(slots);
+                    throw e;
+                }
+                idle.release(slots - jobs.size());
+                for (Job job : jobs) {
+                    active.put(job.getId(), job);
+                    stats.recordClaimed(queueWaitMs(job));
+                    executor.execute(() -> runJob(job));
+                }
+                errorBackoffMs = pollIntervalMs;
+                // 取满说明还有积压，立即继续认领
+                if (jobs.size() < slots) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warn("认领后台任务失败，{}ms 后重试: {}", errorBackoffMs, e.getMessage());
+                try {
+                    Thread.sleep(errorBackoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                errorBackoffMs = Math.min(errorBackoffMs * 2, MAX_ERROR_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void runJob(Job job) {
+        long start = System.currentTimeMillis();
+        try {
+            JobHandler handler = jobService.getHandler(job.getType());
+            if (handler == null) {
+                // 可能是新版本实例提交的类型，重新排队交给能处理的实例
+                throw new IllegalStateException("本实例没有该任务类型的处理器: " + job.getType());
+            }
+            handler.execute(new JobContext(job, getWorkerId(), jobMapper, objectMapper));
+            if (jobMapper.markSucceeded(job.getId(), getWorkerId(), job.getAttempts()) > 0) {
+                stats.recordSucceeded();
+            } else {
+                stats.recordLeaseLost();
+                logger.warn("任务已执行完成但租约已被回收: id={}, type={}", job.getId(), job.getType());
+            }
+        } catch (Exception e) {
+            handleFailure(job, e);
+        } finally {
+            stats.recordRun(System.currentTimeMillis() - start);
+            // 租约过期后本实例可能已再次认领同一任务，只移除本次执行的记录
+            active.remove(job.getId(), job);
+            idle.release();
+        }
+    }
+
+    private void handleFailure(Job job, Exception cause) {
+        String error = describe(cause);
+        try {
+            int updated;
+            if (job.getAttempts() < job.getMaxAttempts()) {
+                long delayMs = retryDelayMs(job.getAttempts());
+                updated = jobMapper.markRetry(job.getId(), getWorkerId(), job.getAttempts(), error, delayMs);
+                if (updated > 0) {
+                    stats.recordRetried();
+                    logger.warn("任务执行失败，{}ms 后重试: id={}, type={}, 第{}/{}次, 原因={}",
+                        delayMs, job.getId(), job.getType(), job.getAttempts(), job.getMaxAttempts(), error);
+                }
+            } else {
+                updated = jobMapper.markFailed(job.getId(), getWorkerId(), job.getAttempts(), error);
+                if (updated > 0) {
+                    stats.recordFailed();
+                    logger.error("任务执行失败且重试次数已用尽: id={}, type={}, 原因={}", job.getId(), job.getType(), error);
+                }
+            }
+            if (updated == 0) {
+                stats.recordLeaseLost();
+            }
+        } catch (Exception e) {
+            // 状态未能写回，租约过期后由回收逻辑处理
+            logger.error("记录任务失败状态出错: id={}, {}", job.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 指数退避，加 ±20% 抖动避免大量任务同时重试
+     */
+    private long retryDelayMs(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = Math.min(retryMaxDelayMs, retryBaseDelayMs << exponent);
+        if (delay <= 0) {
+            delay = retryMaxDelayMs;
+        }
+        return (long) (delay * (0.8 + ThreadLocalRandom.current().nextDouble() * 0.4));
+    }
+
+    private static long queueWaitMs(Job job) {
+        if (job.getRunAt() == null || job.getStartedAt() == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(job.getRunAt(), job.getStartedAt()).toMillis());
+    }
+
+    private static String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
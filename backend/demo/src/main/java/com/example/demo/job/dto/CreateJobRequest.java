@@ -0,0 +1,59 @@
+package com.example.demo.job.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.Map;
+
+/**
+ * 提交后台任务请求DTO
+ */
+public class CreateJobRequest {
+    @NotBlank(message = "任务类型不能为空")
+    private String type;
+
+    // 任务参数，按 JSON 保存
+    private Map<String, Object> payload;
+
+    // 数值越大越优先，默认 0
+    private Integer priority;
+
+    @Min(value = 1, message = "最大执行次数至少为1")
+    @Max(value = 20, message = "最大执行次数不能超过20")
+    private Integer maxAttempts;
+
+    public CreateJobRequest() {}
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Map<String, Object> getPayload() {
+        return payload;
+    }
+
+    public void setPayload(Map<String, Object> payload) {
+        this.payload = payload;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public Integer getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(Integer maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.job.dto;
+
+/**
+ * 后台任务队列统计DTO
+ */
+public class JobStatsResponse {
+    // 已到执行时间、等待认领的任务数（全部实例）
+    private long runnable;
+    // 等待重试或尚未到执行时间的任务数
+    private long delayed;
+    // 执行中的任务数（全部实例）
+    private long running;
+    // 最早一个可执行任务已等待的毫秒数
+    private long oldestRunnableAgeMs;
+    // 以下为本实例统计
+    private String workerId;
+    private int workers;
+    private int activeWorkers;
+    private long claimed;
+    private long succeeded;
+    private long failed;
+    private long retried;
+    // 完成时租约已被回收的次数
+    private long leaseLost;
+    // 从可执行到被认领的平均等待时间
+    private long avgQueueWaitMs;
+    private long maxQueueWaitMs;
+    private long avgRunMs;
+    private long maxRunMs;
+
+    public JobStatsResponse() {}
+
+    public long getRunnable() {
+        return runnable;
+    }
+
+    public void setRunnable(long runnable) {
+        this.runnable = runnable;
+    }
+
+    public long getDelayed() {
+        return delayed;
+    }
+
+    public void setDelayed(long delayed) {
+        this.delayed = delayed;
+    }
+
+    public long getRunning() {
+        return running;
+    }
+
+    public void setRunning(long running) {
+        this.running = running;
+    }
+
+    public long getOldestRunnableAgeMs() {
+        return oldestRunnableAgeMs;
+    }
+
+    public void setOldestRunnableAgeMs(long oldestRunnableAgeMs) {
+        this.oldestRunnableAgeMs = oldestRunnableAgeMs;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    public void setActiveWorkers(int activeWorkers) {
+        this.activeWorkers = activeWorkers;
+    }
+
+    public long getClaimed() {
+        return claimed;
+    }
+
+    public void setClaimed(long claimed) {
+        this.claimed = claimed;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(long succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getRetried() {
+        return retried;
+    }
+
+    public void setRetried(long retried) {
+        this.retried = retried;
+    }
+
+    public long getLeaseLost() {
+        return leaseLost;
+    }
+
+    public void setLeaseLost(long leaseLost) {
+        this.leaseLost = leaseLost;
+    }
+
+    public long getAvgQueueWaitMs() {
+        return avgQueueWaitMs;
+    }
+
+    public void setAvgQueueWaitMs(long avgQueueWaitMs) {
+        this.avgQueueWaitMs = avgQueueWaitMs;
+    }
+
+    public long getMaxQueueWaitMs() {
+        return maxQueueWaitMs;
+    }
+
+    public void setMaxQueueWaitMs(long maxQueueWaitMs) {
+        this.maxQueueWaitMs = maxQueueWaitMs;
+    }
+
+    public long getAvgRunMs() {
+        return avgRunMs;
+    }
+
+    public void setAvgRunMs(long avgRunMs) {
+        this.avgRunMs = avgRunMs;
+    }
+
+    public long getMaxRunMs() {
+        return maxRunMs;
+    }
+
+    public void setMaxRunMs(long maxRunMs) {
+        this.maxRunMs = maxRunMs;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.job.handler;
+
+import com.example.demo.job.JobContext;
+import com.example.demo.job.JobHandler;
+import com.example.demo.role.dto.UserRoleBatchResult;
+import com.example.demo.role.service.UserRoleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 大批量分配/移除用户角色
+ * 参数 {"action": "assign"|"revoke", "userIds": [...], "roleIds": [...]}。
+ * 按用户分块并上报进度（分配/移除内部按批提交）；分配/移除本身会跳过已处理的组合，重试时从头执行是安全的。
+ */
+@Component
+public class BulkRoleJobHandler implements JobHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkRoleJobHandler.class);
+
+    public static final String TYPE = "user-roles.bulk";
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private UserRoleService userRoleService;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void execute(JobContext context) throws Exception {
+        Payload payload = context.getPayload(Payload.class);
+        boolean assign = "assign".equals(payload.getAction());
+        if (!assign && !"revoke".equals(payload.getAction())) {
+            throw new IllegalArgumentException("action 只能是 assign 或 revoke: " + payload.getAction());
+        }
+        if (payload.getUserIds() == null || payload.getRoleIds() == null || payload.getRoleIds().isEmpty()) {
+            throw new IllegalArgumentException("userIds 和 roleIds 不能为空");
+        }
+        List<Long> users = new ArrayList<>(new LinkedHashSet<>(payload.getUserIds()));
+        int changed = 0;
+        for (int from = 0; from < users.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = users.subList(from, Math.min(from + CHUNK_SIZE, users.size()));
+            UserRoleBatchResult result = assign
+                ? userRoleService.assignRoles(chunk, payload.getRoleIds())
+                : userRoleService.revokeRoles(chunk, payload.getRoleIds());
+            changed += result.getChanged();
+            int done = from + chunk.size();
+            if (!context.updateProgress(done * 100 / users.size(), "已处理用户 " + done + "/" + users.size())) {
+                logger.warn("任务租约已被回收，停止执行: id={}", context.getJobId());
+                return;
+            }
+        }
+        logger.info("批量{}角色任务完成: id={}, 用户数={}, 变更关联={}",
+            assign ? "分配" : "移除", context.getJobId(), users.size(), changed);
+    }
+
+    public static class Payload {
+        private String action;
+        private List<Long> userIds;
+        private List<Long> roleIds;
+
+        public String getAction() {
+            return action;
+        }
+
+        public void setAction(String action) {
+            this.action = action;
+        }
+
+        public List<Long> getUserIds() {
+            return userIds;
+        }
+
+        public void setUserIds(List<Long> userIds) {
+            this.userIds = userIds;
+        }
+
+        public List<Long> getRoleIds() {
+            return roleIds;
+        }
+
+        public void setRoleIds(List<Long> roleIds) {
+            this.roleIds = roleIds;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.job.handler;
+
+import com.example.demo.job.JobContext;
+import com.example.demo.job.JobHandler;
+import com.example.demo.system.dto.MaintenanceReport;
+import com.example.demo.system.dto.MaintenanceTaskReport;
+import com.example.demo.system.maintenance.MaintenanceEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 执行系统维护任务；参数 {"tasks": [...]}，为空时执行全部维护任务
+ */
+@Component
+public class MaintenanceJobHandler implements JobHandler {
+
+    public static final String TYPE = "maintenance";
+
+    @Autowired
+    private MaintenanceEngine maintenanceEngine;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void execute(JobContext context) throws Exception {
+        Payload payload = context.getPayload(Payload.class);
+        MaintenanceReport report = maintenanceEngine.run(payload.getTasks());
+        long rows = report.getTasks().stream().mapToLong(MaintenanceTaskReport::getRowsProcessed).sum();
+        context.updateProgress(100, "处理行数: " + rows);
+    }
+
+    public static class Payload {
+        private List<String> tasks;
+
+        public List<String> getTasks() {
+            return tasks;
+        }
+
+        public void setTasks(List<String> tasks) {
+            this.tasks = tasks;
+        }
+    }
+}
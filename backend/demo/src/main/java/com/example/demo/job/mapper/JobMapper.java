@@ -0,0 +1,173 @@
+package com.example.demo.job.mapper;
+
+import com.example.demo.job.entity.Job;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 后台任务数据访问接口
+ * 时间比较统一使用数据库时钟（NOW(3)），避免各实例时钟偏差影响租约判断。
+ * 执行结果的写回以 locked_by + attempts 为条件：attempts 在每次认领时加一、重试时不清零，
+ * 同一实例在租约过期后再次认领同一任务时，上一次执行迟到的结果也不会覆盖本次。
+ */
+@Mapper
+public interface JobMapper {
+
+    String COLUMNS = "id, type, payload, priority, status, attempts, max_attempts, run_at, locked_by, lease_until, " +
+            "progress, progress_message, last_error, created_by, created_at, started_at, finished_at, updated_at";
+
+    /**
+     * 新增任务
+     */
+    @Insert("INSERT INTO jobs (type, payload, priority, status, attempts, max_attempts, run_at, progress, created_by) " +
+            "VALUES (#{type}, #{payload}, #{priority}, 'PENDING', 0, #{maxAttempts}, NOW(3), 0, #{createdBy})")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insert(Job job);
+
+    /**
+     * 根据ID查询任务
+     */
+    @Select("SELECT " + COLUMNS + " FROM jobs WHERE id = #{id}")
+    Job findById(@Param("id") Long id);
+
+    /**
+     * 根据ID列表查询任务
+     */
+    @Select("<script>" +
+            "SELECT " + COLUMNS + " FROM jobs WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<Job> findByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 按状态查询最近的任务
+     */
+    @Select("<script>" +
+            "SELECT " + COLUMNS + " FROM jobs" +
+            "<if test='status != null'> WHERE status = #{status}</if>" +
+            " ORDER BY id DESC LIMIT #{limit}" +
+            "</script>")
+    List<Job> findRecent(@Param("status") String status, @Param("limit") int limit);
+
+    /**
+     * 锁定一批可执行的任务；已被其他事务锁定的行直接跳过，多个实例并发认领互不等待
+     * 排序与 idx_claim (status, priority DESC, run_at, id) 一致，按索引顺序扫描到 LIMIT 行即停止，
+     * 只锁定实际认领的行，不会因排序读取（并锁定）全部排队任务
+     */
+    @Select("SELECT id FROM jobs WHERE status = 'PENDING' AND run_at <= NOW(3) " +
+            "ORDER BY priority DESC, run_at, id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<Long> lockRunnable(@Param("limit") int limit);
+
+    /**
+     * 标记为执行中并设置租约（与 lockRunnable 在同一事务内）
+     */
+    @Update("<script>" +
+            "UPDATE jobs SET status = 'RUNNING', locked_by = #{workerId}, attempts = attempts + 1, " +
+            "lease_until = TIMESTAMPADD(MICROSECOND, #{leaseMs} * 1000, NOW(3)), " +
+            "started_at = NOW(3), last_error = NULL WHERE status = 'PENDING' AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markRunning(@Param("ids") List<Long> ids, @Param("workerId") String workerId, @Param("leaseMs") long leaseMs);
+
+    /**
+     * 续约本工作者持有的任务（每个任务按认领时的 attempts 匹配）
+     */
+    @Update("<script>" +
+            "UPDATE jobs SET lease_until = TIMESTAMPADD(MICROSECOND, #{leaseMs} * 1000, NOW(3)) " +
+            "WHERE status = 'RUNNING' AND locked_by = #{workerId} AND (id, attempts) IN " +
+            "<foreach collection='jobs' item='job' open='(' separator=',' close=')'>(#{job.id}, #{job.attempts})</foreach>" +
+            "</script>")
+    int renewLeases(@Param("jobs") List<Job> jobs, @Param("workerId") String workerId, @Param("leaseMs") long leaseMs);
+
+    /**
+     * 更新进度
+     */
+    @Update("UPDATE jobs SET progress = #{progress}, progress_message = #{message} " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND locked_by = #{workerId} AND attempts = #{attempts}")
+    int updateProgress(@Param("id") Long id, @Param("workerId") String workerId, @Param("attempts") int attempts,
+                       @Param("progress") int progress, @Param("message") String message);
+
+    /**
+     * 执行成功；返回 0 说明租约已过期、任务已被回收（或已被再次认领）
+     */
+    @Update("UPDATE jobs SET status = 'SUCCEEDED', progress = 100, locked_by = NULL, lease_until = NULL, " +
+            "finished_at = NOW(3) WHERE id = #{id} AND status = 'RUNNING' AND locked_by = #{workerId} " +
+            "AND attempts = #{attempts}")
+    int markSucceeded(@Param("id") Long id, @Param("workerId") String workerId, @Param("attempts") int attempts);
+
+    /**
+     * 执行失败后延迟重试
+     */
+    @Update("UPDATE jobs SET status = 'PENDING', locked_by = NULL, lease_until = NULL, last_error = #{error}, " +
+            "run_at = TIMESTAMPADD(MICROSECOND, #{delayMs} * 1000, NOW(3)) " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND locked_by = #{workerId} AND attempts = #{attempts}")
+    int markRetry(@Param("id") Long id, @Param("workerId") String workerId, @Param("attempts") int attempts,
+                  @Param("error") String error, @Param("delayMs") long delayMs);
+
+    /**
+     * 重试次数用尽，标记为失败
+     */
+    @Update("UPDATE jobs SET status = 'FAILED', locked_by = NULL, lease_until = NULL, last_error = #{error}, " +
+            "finished_at = NOW(3) WHERE id = #{id} AND status = 'RUNNING' AND locked_by = #{workerId} " +
+            "AND attempts = #{attempts}")
+    int markFailed(@Param("id") Long id, @Param("workerId") String workerId, @Param("attempts") int attempts,
+                   @Param("error") String error);
+
+    /**
+     * 回收租约过期的任务：仍有重试次数的重新排队
+     */
+    @Update("UPDATE jobs SET status = 'PENDING', locked_by = NULL, lease_until = NULL, run_at = NOW(3), " +
+            "last_error = 'lease expired' " +
+            "WHERE status = 'RUNNING' AND lease_until < NOW(3) AND attempts < max_attempts LIMIT #{limit}")
+    int requeueExpired(@Param("limit") int limit);
+
+    /**
+     * 回收租约过期的任务：重试次数已用尽的标记为失败
+     */
+    @Update("UPDATE jobs SET status = 'FAILED', locked_by = NULL, lease_until = NULL, finished_at = NOW(3), " +
+            "last_error = 'lease expired' " +
+            "WHERE status = 'RUNNING' AND lease_until < NOW(3) AND attempts >= max_attempts LIMIT #{limit}")
+    int failExpired(@Param("limit") int limit);
+
+    /**
+     * 取消尚未开始的任务
+     */
+    @Update("UPDATE jobs SET status = 'CANCELLED', finished_at = NOW(3) WHERE id = #{id} AND status = 'PENDING'")
+    int cancel(@Param("id") Long id);
+
+    /**
+     * 失败的任务重新排队，再给一轮完整的重试次数；attempts 不清零，保证认领代次单调递增
+     */
+    @Update("UPDATE jobs SET status = 'PENDING', max_attempts = attempts + max_attempts, run_at = NOW(3), " +
+            "finished_at = NULL " +
+            "WHERE id = #{id} AND status = 'FAILED'")
+    int retry(@Param("id") Long id);
+
+    /**
+     * 按状态统计（用于排队中和执行中的任务）
+     */
+    @Select("SELECT COUNT(*) FROM jobs WHERE status = #{status}")
+    long countByStatus(@Param("status") String status);
+
+    /**
+     * 已到执行时间但仍在排队的任务数
+     */
+    @Select("SELECT COUNT(*) FROM jobs WHERE status = 'PENDING' AND run_at <= NOW(3)")
+    long countRunnable();
+
+    /**
+     * 最早一个已到执行时间的排队任务的等待毫秒数
+     */
+    @Select("SELECT COALESCE(TIMESTAMPDIFF(MICROSECOND, MIN(run_at), NOW(3)) DIV 1000, 0) " +
+            "FROM jobs WHERE status = 'PENDING' AND run_at <= NOW(3)")
+    long findOldestRunnableAgeMs();
+
+    /**
+     * 删除早于指定时间结束的任务（分批）
+     */
+    @Delete("DELETE FROM jobs WHERE status IN ('SUCCEEDED', 'CANCELLED') AND finished_at < #{before} " +
+            "LIMIT #{limit}")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,128 @@
+package com.example.demo.job.service;
+
+import com.example.demo.common.BusinessException;
+import com.example.demo.common.ErrorCode;
+import com.example.demo.job.JobHandler;
+import com.example.demo.job.entity.Job;
+import com.example.demo.job.mapper.JobMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 后台任务服务类
+ */
+@Service
+public class JobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+    @Autowired
+    private JobMapper jobMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, JobHandler> handlers = new HashMap<>();
+
+    @Autowired
+    public void setHandlers(List<JobHandler> jobHandlers) {
+        for (JobHandler handler : jobHandlers) {
+            if (handlers.putIfAbsent(handler.getType(), handler) != null) {
+                throw new IllegalStateException("任务类型重复注册: " + handler.getType());
+            }
+        }
+    }
+
+    /**
+     * 提交任务
+     */
+    public Job enqueue(String type, Object payload, Integer priority, Integer maxAttempts, Long createdBy) {
+        if (!handlers.containsKey(type)) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "未知的任务类型: " + type);
+        }
+        Job job = new Job();
+        job.setType(type);
+        try {
+            job.setPayload(payload != null ? objectMapper.writeValueAsString(payload) : null);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "任务参数无法序列化: " + e.getOriginalMessage());
+        }
+        job.setPriority(priority != null ? priority : 0);
+        job.setMaxAttempts(maxAttempts != null ? Math.max(1, maxAttempts) : 3);
+        job.setCreatedBy(createdBy);
+        jobMapper.insert(job);
+        logger.info("提交后台任务: id={}, type={}, priority={}", job.getId(), type, job.getPriority());
+        return jobMapper.findById(job.getId());
+    }
+
+    /**
+     * 获取任务详情
+     */
+    public Job getJob(Long id) {
+        Job job = jobMapper.findById(id);
+        if (job == null) {
+            throw new BusinessException(40004, "任务不存在");
+        }
+        return job;
+    }
+
+    /**
+     * 查询最近的任务，status 为空时不过滤
+     */
+    public List<Job> listJobs(String status, int limit) {
+        return jobMapper.findRecent(status, limit);
+    }
+
+    /**
+     * 取消尚未开始执行的任务
+     */
+    public Job cancel(Long id) {
+        Job job = getJob(id);
+        if (jobMapper.cancel(id) == 0) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "只能取消排队中的任务，当前状态: " + job.getStatus());
+        }
+        return getJob(id);
+    }
+
+    /**
+     * 重新执行失败的任务
+     */
+    public Job retry(Long id) {
+        Job job = getJob(id);
+        if (jobMapper.retry(id) == 0) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "只能重试失败的任务，当前状态: " + job.getStatus());
+        }
+        return getJob(id);
+    }
+
+    public JobHandler getHandler(String type) {
+        return handlers.get(type);
+    }
+
+    public List<String> getTypes() {
+        return handlers.keySet().stream().sorted().toList();
+    }
+
+    /**
+     * 认领一批可执行的任务：SKIP LOCKED 锁定后在同一事务内标记为执行中，
+     * 事务提交后其他实例看到的已是 RUNNING 状态，同一任务不会被两个实例同时认领
+     */
+    @Transactional
+    public List<Job> claim(String workerId, int limit, long leaseMs) {
+        List<Long> ids = jobMapper.lockRunnable(limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        jobMapper.markRunning(ids, workerId, leaseMs);
+        return jobMapper.findByIds(ids);
+    }
+}
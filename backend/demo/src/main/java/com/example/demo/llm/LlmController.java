@@ -3,13 +3,16 @@ package com.example.demo.llm;
 import com.example.demo.common.ApiResponse;
 import com.example.demo.llm.dto.ChatRequest;
 import com.example.demo.llm.dto.ChatResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/v1/llm")
@@ -25,7 +28,7 @@ public class LlmController {
         logger.info("收到聊天请求，模型: {}", request.getModel());
         try {
             ChatResponse response = llmService.chat(request);
-            logger.info("聊天请求处理成功");
+            logger.debug("聊天请求处理成功");
             return ApiResponse.ok(response);
         } catch (IllegalStateException e) {
             logger.warn("LLM服务配置错误: {}", e.getMessage());
@@ -37,8 +40,9 @@ public class LlmController {
     }
 
     @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter chatStream(@Valid @RequestBody ChatRequest request) {
+    public void chatStream(@Valid @RequestBody ChatRequest request, HttpServletRequest servletRequest,
+                           HttpServletResponse servletResponse) throws IOException {
         logger.info("收到流式聊天请求，模型: {}", request.getModel());
-        return llmService.chatStream(request);
+        llmService.chatStream(request, servletRequest, servletResponse);
     }
 }
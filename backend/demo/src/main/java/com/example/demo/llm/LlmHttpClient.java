@@ -0,0 +1,133 @@
+package com.example.demo.llm;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 上游 LLM API 的共享 HTTP 客户端
+ * 所有请求复用同一个 java.net.http.HttpClient：连接由客户端内部的连接池保持，
+ * 上游支持 HTTP/2 时多个请求在同一条连接上多路复用，避免每次请求重新建连和 TLS 握手。
+ * 指标：
+ * llm.client.response（发出请求到收到响应头的耗时，按 stream/version/status 区分，计数即请求数）、
+ * llm.client.tls.handshake（新建 TLS 连接的握手耗时，计数即新建连接数，与请求数之比反映连接复用率）、
+ * llm.client.first-token（流式请求发出到收到第一个数据块的耗时）。
+ */
+@Component
+public class LlmHttpClient {
+
+    private final MeterRegistry registry;
+    private final URI apiUri;
+    private final String apiKey;
+    private final Duration requestTimeout;
+    private final HttpClient client;
+    private final Timer handshakeTimer;
+    private final Timer firstTokenTimer;
+
+    public LlmHttpClient(MeterRegistry registry,
+                         @Value("${llm.api-url:https://api.openai.com/v1/chat/completions}") String apiUrl,
+                         @Value("${llm.api-key:}") String apiKey,
+                         @Value("${llm.http-version:HTTP_2}") HttpClient.Version version,
+                         @Value("${llm.connect-timeout-ms:10000}") long connectTimeoutMs,
+                         @Value("${llm.request-timeout-ms:60000}") long requestTimeoutMs) throws NoSuchAlgorithmException {
+        this.registry = registry;
+        this.apiUri = URI.create(apiUrl);
+        this.apiKey = apiKey;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.handshakeTimer = Timer.builder("llm.client.tls.handshake")
+            .description("上游 LLM 新建 TLS 连接的握手耗时").register(registry);
+        this.firstTokenTimer = Timer.builder("llm.client.first-token")
+            .description("流式请求收到第一个数据块的耗时").register(registry);
+        this.client = HttpClient.newBuilder()
+            .version(version)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .sslContext(new TimedSslContext(SSLContext.getDefault(), handshakeTimer))
+            .build();
+    }
+
+    /**
+     * 同步发送非流式 JSON 请求并读取完整响应体
+     * 请求超时只约束等待响应头，这里对包括读取响应体在内的整个调用再加同样的上限，超时后中止请求
+     */
+    public HttpResponse<byte[]> post(byte[] body) throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<byte[]>> future = postAsync(body, false, HttpResponse.BodyHandlers.ofByteArray());
+        try {
+            return future.get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HttpTimeoutException("上游响应超过 " + requestTimeout.toMillis() + "ms 未完成");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * 异步发送 JSON 请求，不占用调用线程；响应体由 bodyHandler 在客户端线程上推送处理
+     * 返回的 future 在响应体处理完成后完成；在收到响应头之前取消它会中止请求
+     */
+    public <T> CompletableFuture<HttpResponse<T>> postAsync(byte[] body, boolean stream,
+                                                           HttpResponse.BodyHandler<T> bodyHandler) {
+        long start = System.nanoTime();
+        AtomicBoolean received = new AtomicBoolean();
+        CompletableFuture<HttpResponse<T>> future = client.sendAsync(newRequest(body), responseInfo -> {
+            received.set(true);
+            recordResponse(stream, responseInfo.version().name(), String.valueOf(responseInfo.statusCode()), start);
+            return bodyHandler.apply(responseInfo);
+        });
+        future.whenComplete((response, error) -> {
+            if (error != null && !received.get() && !(error instanceof CancellationException)) {
+                recordResponse(stream, "none", "IO_ERROR", start);
+            }
+        });
+        return future;
+    }
+
+    private HttpRequest newRequest(byte[] body) {
+        return HttpRequest.newBuilder(apiUri)
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json")
+            .header("Authorization", "Bearer " + apiKey)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+    }
+
+    /**
+     * 记录流式请求的首块耗时；start 为调用 post 之前的 System.nanoTime()
+     */
+    public void recordFirstToken(long start) {
+        firstTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordResponse(boolean stream, String version, String status, long start) {
+        Timer.builder("llm.client.response")
+            .description("上游 LLM 请求到响应头的耗时")
+            .tag("stream", String.valueOf(stream))
+            .tag("version", version)
+            .tag("status", status)
+            .register(registry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
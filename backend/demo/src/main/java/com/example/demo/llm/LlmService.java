@@ -0,0 +1,265 @@
+package com.example.demo.llm;
+
+import com.example.demo.common.LogSampler;
+import com.example.demo.llm.dto.ChatRequest;
+import com.example.demo.llm.dto.ChatResponse;
+import com.example.demo.metrics.ActivityMetrics;
+import com.example.demo.metrics.ActivityType;
+import com.example.demo.metrics.jfr.LlmCallEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class LlmService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmService.class);
+
+    private static final long STREAM_TIMEOUT_MS = 120000L; // 2分钟超时
+
+    @Value("${llm.api-url:https://api.openai.com/v1/chat/completions}")
+    private String apiUrl;
+
+    @Value("${llm.api-key:}")
+    private String apiKey;
+
+    @Value("${llm.model:gpt-3.5-turbo}")
+    private String defaultModel;
+
+    @Value("${llm.max-concurrent-streams:1000}")
+    private int maxConcurrentStreams;
+
+    @Value("${llm.stream-coalesce-ms:0}")
+    private long streamCoalesceMs;
+
+    @Value("${llm.stream-heartbeat-ms:5000}")
+    private long streamHeartbeatMs;
+
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    @Autowired
+    private LlmHttpClient httpClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    // 同时进行的流式请求上限；流式请求不占用线程，上限主要约束上游连接数和客户端缓冲区
+    private Semaphore streamPermits;
+    private Counter rejectedStreams;
+    // 流式转发共享的指标和定时任务线程（合并写出、心跳）
+    private ScheduledExecutorService streamScheduler;
+    private StreamRelay.Settings relaySettings;
+    private final LogSampler rejectLogSampler = new LogSampler(1000, 1);
+
+    @PostConstruct
+    public void init() {
+        streamPermits = new Semaphore(maxConcurrentStreams);
+        Gauge.builder("llm.streams.active", streamPermits, permits -> maxConcurrentStreams - permits.availablePermits())
+            .description("进行中的流式对话数").register(meterRegistry);
+        rejectedStreams = Counter.builder("llm.streams.rejected")
+            .description("因并发上限被拒绝的流式对话数").register(meterRegistry);
+        streamScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "llm-stream-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relaySettings = new StreamRelay.Settings(httpClient, new StreamMetrics(meterRegistry), streamScheduler,
+            streamCoalesceMs, streamHeartbeatMs);
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            logger.warn("LLM API Key 未配置，LLM功能将不可用。请设置环境变量 LLM_API_KEY");
+        } else {
+            logger.info("LLM服务初始化完成，API URL: {}, 默认模型: {}", apiUrl, defaultModel);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        streamScheduler.shutdownNow();
+    }
+
+    /**
+     * 检查LLM服务是否可用
+     */
+    private void checkServiceAvailable() {
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            throw new IllegalStateException("LLM API Key 未配置，请联系管理员设置");
+        }
+    }
+
+    /**
+     * 同步聊天请求
+     */
+    public ChatResponse chat(ChatRequest request) throws Exception {
+        checkServiceAvailable();
+
+        if (request.getModel() == null || request.getModel().trim().isEmpty()) {
+            request.setModel(defaultModel);
+        }
+        request.setStream(false);
+        activityMetrics.record(ActivityType.LLM_CALL);
+
+        logger.debug("发送聊天请求到LLM API，模型: {}", request.getModel());
+
+        LlmCallEvent event = new LlmCallEvent();
+        event.begin();
+        event.model = request.getModel();
+        event.statusCode = -1;
+        try {
+            HttpResponse<byte[]> upstream = httpClient.post(objectMapper.writeValueAsBytes(request));
+            int responseCode = upstream.statusCode();
+            event.statusCode = responseCode;
+            logger.debug("LLM API响应码: {}", responseCode);
+
+            if (responseCode != 200) {
+                String errorMessage = readErrorResponse(upstream.body(), responseCode);
+                logger.error("LLM API调用失败，响应码: {}, 错误信息: {}", responseCode, errorMessage);
+                throw new RuntimeException("LLM API调用失败: " + errorMessage);
+            }
+            ChatResponse response = objectMapper.readValue(upstream.body(), ChatResponse.class);
+            logger.debug("LLM API调用成功，响应ID: {}", response.getId());
+            return response;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * 流式聊天请求
+     * 上游请求异步发送，响应体由 {@link StreamRelay} 转发并通过 Servlet 非阻塞输出写给客户端，
+     * 整个过程不占用阻塞线程，客户端读得慢时暂停读取上游；同时进行的流式请求数超过上限时直接返回错误事件。
+     */
+    public void chatStream(ChatRequest request, HttpServletRequest servletRequest,
+                           HttpServletResponse servletResponse) throws IOException {
+        servletResponse.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        servletResponse.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        servletResponse.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        try {
+            checkServiceAvailable();
+        } catch (IllegalStateException e) {
+            logger.warn("LLM服务不可用: {}", e.getMessage());
+            sendError(servletResponse, e.getMessage());
+            return;
+        }
+        if (!streamPermits.tryAcquire()) {
+            rejectedStreams.increment();
+            if (rejectLogSampler.allow()) {
+                logger.warn("流式请求并发已达上限 {}，拒绝新请求 (期间省略{}条)",
+                    maxConcurrentStreams, rejectLogSampler.takeSuppressed());
+            }
+            sendError(servletResponse, "当前AI对话请求过多，请稍后重试");
+            return;
+        }
+
+        LlmCallEvent event = new LlmCallEvent();
+        event.begin();
+        event.stream = true;
+        event.statusCode = -1;
+        // 名额只归还一次：正常情况下由 relay 结束时归还，relay 接好之前出错时在这里归还
+        AtomicBoolean permitReleased = new AtomicBoolean();
+        Runnable releasePermit = () -> {
+            if (permitReleased.compareAndSet(false, true)) {
+                streamPermits.release();
+            }
+        };
+        AsyncContext asyncContext = null;
+        StreamRelay relay;
+        try {
+            asyncContext = servletRequest.startAsync();
+            asyncContext.setTimeout(STREAM_TIMEOUT_MS);
+            ServletOutputStream out = servletResponse.getOutputStream();
+            relay = new StreamRelay(asyncContext, out, event, relaySettings, releasePermit);
+            asyncContext.addListener(relay);
+            out.setWriteListener(relay.writeListener());
+        } catch (IOException | RuntimeException e) {
+            releasePermit.run();
+            if (asyncContext != null) {
+                try {
+                    asyncContext.complete();
+                } catch (IllegalStateException ignored) {
+                    // 容器已经结束了该请求
+                }
+            }
+            throw e;
+        }
+        relay.startHeartbeat();
+        try {
+            if (request.getModel() == null || request.getModel().trim().isEmpty()) {
+                request.setModel(defaultModel);
+            }
+            request.setStream(true);
+            event.model = request.getModel();
+            activityMetrics.record(ActivityType.LLM_CALL);
+
+            logger.debug("发送流式聊天请求到LLM API，模型: {}", request.getModel());
+
+            CompletableFuture<HttpResponse<String>> upstream = httpClient.postAsync(
+                objectMapper.writeValueAsBytes(request), true, responseInfo -> {
+                    relay.onResponse(responseInfo.statusCode());
+                    if (responseInfo.statusCode() == 200) {
+                        // 正常响应由 relay 消费，错误响应读成字符串
+                        return HttpResponse.BodySubscribers.fromSubscriber(relay, r -> (String) null);
+                    }
+                    return HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+                });
+            relay.setUpstream(upstream);
+            upstream.whenComplete((response, error) -> {
+                if (error != null) {
+                    relay.fail(error);
+                } else if (response.statusCode() != 200) {
+                    String body = response.body();
+                    relay.rejected(response.statusCode(), body != null && !body.isEmpty()
+                        ? body : "Unknown error (HTTP " + response.statusCode() + ")");
+                }
+            });
+        } catch (Exception e) {
+            relay.fail(e);
+        }
+    }
+
+    /**
+     * 在请求线程内直接写出错误事件（尚未进入异步模式）
+     */
+    private void sendError(HttpServletResponse servletResponse, String message) throws IOException {
+        ServletOutputStream out = servletResponse.getOutputStream();
+        out.write(StreamRelay.errorEvent(message));
+        out.flush();
+    }
+
+    /**
+     * 读取错误响应
+     */
+    private String readErrorResponse(byte[] body, int responseCode) {
+        if (body != null && body.length > 0) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        return "Unknown error (HTTP " + responseCode + ")";
+    }
+}
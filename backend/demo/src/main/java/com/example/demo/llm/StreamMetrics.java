@@ -0,0 +1,67 @@
+package com.example.demo.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 流式对话的转发指标
+ * llm.streams.buffer.peak / llm.streams.flushes：每个流的缓冲峰值和写出次数；
+ * llm.streams.chunks：正常结束的流收到的数据块数（约等于生成的 token 数）；
+ * llm.streams.cancelled：因客户端断开、超时或连接错误而中止上游的流（按 reason 区分）；
+ * llm.streams.tokens.saved：中止时估算省下的 token 数（正常结束的流的平均块数减去已收到的块数）。
+ */
+final class StreamMetrics {
+
+    static final String CLIENT_CLOSED = "client_closed";
+    static final String TIMEOUT = "timeout";
+    static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary bufferPeak;
+    private final DistributionSummary flushes;
+    private final DistributionSummary chunks;
+    private final DistributionSummary tokensSaved;
+    private final Map<String, Counter> cancelled = new ConcurrentHashMap<>();
+
+    StreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.bufferPeak = DistributionSummary.builder("llm.streams.buffer.peak").baseUnit("bytes")
+            .description("每个流式对话在服务端缓冲的峰值字节数").register(registry);
+        this.flushes = DistributionSummary.builder("llm.streams.flushes")
+            .description("每个流式对话向客户端写出并刷新的次数").register(registry);
+        this.chunks = DistributionSummary.builder("llm.streams.chunks")
+            .description("正常结束的流式对话收到的数据块数").register(registry);
+        this.tokensSaved = DistributionSummary.builder("llm.streams.tokens.saved")
+            .description("中止上游时估算省下的 token 数").register(registry);
+    }
+
+    /**
+     * 流结束时记录缓冲和写出情况
+     */
+    void recordFinished(int peakBufferedBytes, int flushCount) {
+        bufferPeak.record(peakBufferedBytes);
+        flushes.record(flushCount);
+    }
+
+    /**
+     * 上游正常读完
+     */
+    void recordCompleted(int chunkCount) {
+        chunks.record(chunkCount);
+    }
+
+    /**
+     * 上游在读完前被中止
+     */
+    void recordCancelled(String reason, int chunkCount) {
+        cancelled.computeIfAbsent(reason, key -> Counter.builder("llm.streams.cancelled")
+            .description("中止上游请求的流式对话数").tag("reason", key).register(registry)).increment();
+        if (chunks.count() > 0) {
+            tokensSaved.record(Math.max(0, chunks.mean() - chunkCount));
+        }
+    }
+}
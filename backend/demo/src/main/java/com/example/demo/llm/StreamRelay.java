@@ -0,0 +1,495 @@
+package com.example.demo.llm;
+
+import com.example.demo.metrics.jfr.LlmCallEvent;
+import com.example.demo.metrics.jfr.SseChunkEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 一次流式对话的转发：上游响应体以字节块推送过来，逐行取出 data 事件，用 Servlet 非阻塞输出写给客户端
+ * 背压：每次只向上游请求一个数据块，写完并刷出后才请求下一块；客户端读得慢时上游读取随之暂停，
+ * 因此每个流在服务端最多缓冲一个上游数据块和一行未完成的事件（单行上限 {@link #MAX_LINE_BYTES}）。
+ * 合并写出（coalesceNanos > 0）：距上次写出不足一个窗口时先不写，继续读取上游攒批，窗口到期后
+ * 把攒下的多个完整事件一次写出并刷新，减少小包和系统调用；距上次写出已超过窗口的事件（包括首个事件）立即写出。
+ * 客户端断开、超时或连接出错时立即中止上游：已开始读取响应体时取消订阅（HTTP/1.1 关闭连接，HTTP/2 发送 RST_STREAM），
+ * 还在等待响应头时取消请求本身。Servlet 只有在写出时才能发现客户端断开，因此长时间没有写出时发送 SSE 注释行作为心跳。
+ * 无论正常结束、上游失败、客户端断开还是超时，结束处理（提交 JFR 事件、释放并发名额）只执行一次。
+ */
+final class StreamRelay implements Flow.Subscriber<List<ByteBuffer>>, AsyncListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamRelay.class);
+
+    static final int MAX_LINE_BYTES = 256 * 1024;
+    // 合并写出时攒批的上限，超过后立即写出，不再继续读取上游
+    static final int MAX_COALESCE_BYTES = 16 * 1024;
+
+    private static final byte[] DATA_PREFIX = "data:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DONE = "[DONE]".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EVENT_END = {'\n', '\n'};
+    private static final byte[] HEARTBEAT = {':', '\n', '\n'};
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final LlmCallEvent event;
+    private final Settings settings;
+    private final Runnable onFinish;
+    private final long start;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    // 以下字段由 this 保护
+    private Flow.Subscription subscription;
+    private CompletableFuture<?> upstream;
+    private ScheduledFuture<?> heartbeatTask;
+    private boolean requested;
+    private boolean upstreamDone;
+    private boolean flushNeeded;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private byte[] pending = new byte[1024];
+    private int pendingLength;
+    private int peakBuffered;
+    private int flushCount;
+    private long lastFlush;
+    private boolean flushScheduled;
+
+    StreamRelay(AsyncContext asyncContext, ServletOutputStream out, LlmCallEvent event,
+                Settings settings, Runnable onFinish) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.event = event;
+        this.settings = settings;
+        this.onFinish = onFinish;
+        this.start = System.nanoTime();
+        this.lastFlush = start - settings.coalesceNanos;
+    }
+
+    /**
+     * 所有流共享的依赖和参数
+     */
+    static final class Settings {
+        final LlmHttpClient httpClient;
+        final StreamMetrics metrics;
+        final ScheduledExecutorService scheduler;
+        final long coalesceNanos;
+        final long heartbeatNanos;
+
+        Settings(LlmHttpClient httpClient, StreamMetrics metrics, ScheduledExecutorService scheduler,
+                 long coalesceMillis, long heartbeatMillis) {
+            this.httpClient = httpClient;
+            this.metrics = metrics;
+            this.scheduler = scheduler;
+            this.coalesceNanos = TimeUnit.MILLISECONDS.toNanos(coalesceMillis);
+            this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        }
+    }
+
+    /**
+     * 关联上游请求，客户端在收到响应头之前断开时用于取消请求
+     */
+    void setUpstream(CompletableFuture<?> future) {
+        synchronized (this) {
+            if (!finished.get()) {
+                upstream = future;
+                return;
+            }
+        }
+        future.cancel(true);
+    }
+
+    /**
+     * 开始定时发送心跳
+     */
+    void startHeartbeat() {
+        if (settings.heartbeatNanos <= 0) {
+            return;
+        }
+        ScheduledFuture<?> task = settings.scheduler.scheduleWithFixedDelay(this::heartbeat,
+            settings.heartbeatNanos, settings.heartbeatNanos, TimeUnit.NANOSECONDS);
+        synchronized (this) {
+            heartbeatTask = task;
+        }
+        if (finished.get()) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * 客户端输出的写监听，注册到 ServletOutputStream 上
+     */
+    WriteListener writeListener() {
+        return new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                drain();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                clientGone(StreamMetrics.CLIENT_CLOSED, throwable);
+            }
+        };
+    }
+
+    /**
+     * 收到上游响应头
+     */
+    void onResponse(int statusCode) {
+        event.statusCode = statusCode;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            this.subscription = subscription;
+        }
+        if (finished.get()) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        synchronized (this) {
+            requested = false;
+            for (ByteBuffer buffer : buffers) {
+                if (!decode(buffer)) {
+                    subscription.cancel();
+                    upstreamDone = true;
+                    logger.error("上游事件超过 {} 字节，停止转发", MAX_LINE_BYTES);
+                    appendError("上游事件过大");
+                    break;
+                }
+            }
+            trackBuffered();
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if (lineLength > 0) {
+                emitLine();
+            }
+            upstreamDone = true;
+            settings.metrics.recordCompleted(event.chunks);
+        }
+        drain();
+    }
+
+    /**
+     * 上游连接或读取失败
+     */
+    void fail(Throwable throwable) {
+        synchronized (this) {
+            if (upstreamDone || finished.get()) {
+                return;
+            }
+            upstreamDone = true;
+            logger.error("流式聊天处理失败", throwable);
+            appendError("LLM调用失败: " + throwable.getMessage());
+        }
+        drain();
+    }
+
+    /**
+     * 上游返回非 200，把错误信息作为事件发给客户端
+     */
+    void rejected(int statusCode, String errorMessage) {
+        synchronized (this) {
+            if (upstreamDone || finished.get()) {
+                return;
+            }
+            upstreamDone = true;
+            logger.error("LLM API流式调用失败，响应码: {}, 错误信息: {}", statusCode, errorMessage);
+            appendError(errorMessage);
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(AsyncEvent asyncEvent) {
+        clientGone(StreamMetrics.ERROR, asyncEvent.getThrowable());
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent asyncEvent) {
+        logger.warn("SSE连接超时");
+        clientGone(StreamMetrics.TIMEOUT, null);
+    }
+
+    @Override
+    public void onComplete(AsyncEvent asyncEvent) {
+        // 正常情况下已经结束；容器自行结束请求时（如停机）同样中止上游
+        clientGone(StreamMetrics.CLIENT_CLOSED, null);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent asyncEvent) {
+    }
+
+    /**
+     * 在客户端可写时写出缓冲内容；缓冲清空后再向上游请求下一块
+     * request(1) 在锁外调用，上游可能在同一线程内同步回调 onNext
+     */
+    private void drain() {
+        Flow.Subscription toRequest = null;
+        synchronized (this) {
+            if (finished.get()) {
+                return;
+            }
+            try {
+                while (out.isReady()) {
+                    if (pendingLength > 0 && holdForCoalesce()) {
+                        if (subscription != null && !requested) {
+                            requested = true;
+                            toRequest = subscription;
+                        }
+                        break;
+                    } else if (pendingLength > 0) {
+                        // 非阻塞模式下 write 总是整块接收，写不完的部分由容器缓冲，之后 isReady 返回 false
+                        SseChunkEvent chunkEvent = new SseChunkEvent();
+                        chunkEvent.begin();
+                        out.write(pending, 0, pendingLength);
+                        chunkEvent.bytes = pendingLength;
+                        chunkEvent.commit();
+                        pendingLength = 0;
+                        flushNeeded = true;
+                    } else if (flushNeeded) {
+                        out.flush();
+                        flushNeeded = false;
+                        flushCount++;
+                        lastFlush = System.nanoTime();
+                    } else if (upstreamDone) {
+                        finish();
+                        asyncContext.complete();
+                        return;
+                    } else {
+                        if (subscription != null && !requested) {
+                            requested = true;
+                            toRequest = subscription;
+                        }
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                // 写给客户端失败（已断开）
+                toRequest = null;
+                clientGone(StreamMetrics.CLIENT_CLOSED, e);
+                return;
+            }
+        }
+        if (toRequest != null) {
+            toRequest.request(1);
+        }
+    }
+
+    /**
+     * 合并写出模式下是否暂不写出；需要等待时安排窗口到期后的写出
+     */
+    private boolean holdForCoalesce() {
+        if (settings.coalesceNanos <= 0 || upstreamDone || pendingLength >= MAX_COALESCE_BYTES) {
+            return false;
+        }
+        long wait = lastFlush + settings.coalesceNanos - System.nanoTime();
+        if (wait <= 0) {
+            return false;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            settings.scheduler.schedule(this::flushHeld, wait, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    private void flushHeld() {
+        synchronized (this) {
+            flushScheduled = false;
+        }
+        drain();
+    }
+
+    /**
+     * 长时间没有写出时发送一个 SSE 注释行，及时发现已断开的客户端
+     */
+    private void heartbeat() {
+        synchronized (this) {
+            if (finished.get() || pendingLength > 0 || System.nanoTime() - lastFlush < settings.heartbeatNanos) {
+                return;
+            }
+            append(HEARTBEAT, 0, HEARTBEAT.length);
+        }
+        drain();
+    }
+
+    /**
+     * 客户端断开、超时或出错：中止上游请求并结束异步请求
+     */
+    private void clientGone(String reason, Throwable cause) {
+        Flow.Subscription currentSubscription;
+        CompletableFuture<?> currentUpstream;
+        boolean upstreamActive;
+        int chunks;
+        synchronized (this) {
+            currentSubscription = subscription;
+            currentUpstream = upstream;
+            upstreamActive = !upstreamDone && !finished.get();
+            chunks = event.chunks;
+            if (upstreamActive) {
+                event.cancelled = true;
+            }
+        }
+        if (!finish()) {
+            return;
+        }
+        if (upstreamActive) {
+            if (currentSubscription != null) {
+                currentSubscription.cancel();
+            }
+            if (currentUpstream != null) {
+                currentUpstream.cancel(true);
+            }
+            settings.metrics.recordCancelled(reason, chunks);
+            logger.debug("客户端已离开({})，中止上游请求，已转发 {} 块: {}", reason, chunks,
+                cause != null ? cause.getMessage() : "");
+        }
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException ignored) {
+            // 容器已经结束了该请求
+        }
+    }
+
+    /**
+     * 按行切分上游数据；单行超过上限时返回 false
+     */
+    private boolean decode(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                emitLine();
+                lineLength = 0;
+                continue;
+            }
+            if (lineLength == line.length) {
+                if (line.length >= MAX_LINE_BYTES) {
+                    return false;
+                }
+                line = Arrays.copyOf(line, Math.min(line.length * 2, MAX_LINE_BYTES));
+            }
+            line[lineLength++] = b;
+        }
+        return true;
+    }
+
+    /**
+     * 把一行 "data: xxx" 转成 SSE 事件 "data:xxx\n\n" 放入待写缓冲，其他行（注释、空行）忽略
+     */
+    private void emitLine() {
+        int end = lineLength;
+        if (end > 0 && line[end - 1] == '\r') {
+            end--;
+        }
+        if (end < DATA_PREFIX.length || !Arrays.equals(line, 0, DATA_PREFIX.length, DATA_PREFIX, 0, DATA_PREFIX.length)) {
+            return;
+        }
+        int payload = DATA_PREFIX.length;
+        if (payload < end && line[payload] == ' ') {
+            payload++;
+        }
+        if (Arrays.equals(line, payload, end, DONE, 0, DONE.length)) {
+            logger.debug("流式响应完成");
+        } else {
+            if (event.chunks == 0) {
+                settings.httpClient.recordFirstToken(start);
+            }
+            event.chunks++;
+        }
+        append(DATA_PREFIX, 0, DATA_PREFIX.length);
+        append(line, payload, end - payload);
+        append(EVENT_END, 0, EVENT_END.length);
+    }
+
+    private void appendError(String message) {
+        byte[] data = errorEvent(message);
+        append(data, 0, data.length);
+    }
+
+    /**
+     * 错误事件 data:{"error":"..."}；消息经 JSON 转义，上游多行、带引号的错误响应不会破坏 SSE 分帧
+     */
+    static byte[] errorEvent(String message) {
+        byte[] json;
+        try {
+            json = JSON.writeValueAsBytes(Collections.singletonMap("error", message));
+        } catch (JsonProcessingException e) {
+            json = "{\"error\":null}".getBytes(StandardCharsets.US_ASCII);
+        }
+        byte[] data = new byte[DATA_PREFIX.length + json.length + EVENT_END.length];
+        System.arraycopy(DATA_PREFIX, 0, data, 0, DATA_PREFIX.length);
+        System.arraycopy(json, 0, data, DATA_PREFIX.length, json.length);
+        System.arraycopy(EVENT_END, 0, data, DATA_PREFIX.length + json.length, EVENT_END.length);
+        return data;
+    }
+
+    private void append(byte[] source, int offset, int length) {
+        if (pendingLength + length > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + length));
+        }
+        System.arraycopy(source, offset, pending, pendingLength, length);
+        pendingLength += length;
+    }
+
+    private void trackBuffered() {
+        peakBuffered = Math.max(peakBuffered, pendingLength + lineLength);
+    }
+
+    private boolean finish() {
+        if (!finished.compareAndSet(false, true)) {
+            return false;
+        }
+        event.commit();
+        int peak;
+        int flushes;
+        ScheduledFuture<?> task;
+        synchronized (this) {
+            peak = peakBuffered;
+            flushes = flushCount;
+            task = heartbeatTask;
+        }
+        if (task != null) {
+            task.cancel(false);
+        }
+        settings.metrics.recordFinished(peak, flushes);
+        onFinish.run();
+        return true;
+    }
+}
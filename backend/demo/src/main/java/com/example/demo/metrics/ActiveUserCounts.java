@@ -0,0 +1,35 @@
+package com.example.demo.metrics;
+
+/**
+ * 日/周/月活跃用户估计值（周、月为截至今天的滚动 7 天、30 天）
+ */
+public final class ActiveUserCounts {
+
+    private final long daily;
+    private final long weekly;
+    private final long monthly;
+    private final long computedAt;
+
+    public ActiveUserCounts(long daily, long weekly, long monthly, long computedAt) {
+        this.daily = daily;
+        this.weekly = weekly;
+        this.monthly = monthly;
+        this.computedAt = computedAt;
+    }
+
+    public long getDaily() {
+        return daily;
+    }
+
+    public long getWeekly() {
+        return weekly;
+    }
+
+    public long getMonthly() {
+        return monthly;
+    }
+
+    public long getComputedAt() {
+        return computedAt;
+    }
+}
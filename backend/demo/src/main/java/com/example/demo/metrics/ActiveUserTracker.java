@@ -0,0 +1,191 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.entity.ActiveUserSketch;
+import com.example.demo.metrics.mapper.ActiveUserSketchMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 活跃用户估计
+ * 每个已认证请求把用户ID写入当天的 HyperLogLog；定时任务在事务内锁定数据库中同一天的记录
+ * （SELECT ... FOR UPDATE），与本实例的寄存器合并后写回，多实例并发刷新时互不覆盖；
+ * 再合并最近 7/30 天得到周活、月活。
+ */
+@Component
+public class ActiveUserTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveUserTracker.class);
+
+    private static final int MONTH_DAYS = 30;
+    private static final int WEEK_DAYS = 7;
+
+    @Autowired
+    private ActiveUserSketchMapper activeUserSketchMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${metrics.active-users.retention-days:400}")
+    private int retentionDays;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    // 本实例尚未写入数据库的寄存器（今天，以及刚跨天时的昨天）
+    private final Map<LocalDate, HyperLogLog> pending = new ConcurrentHashMap<>();
+    // 最近 30 天内已结束日期的合并结果，只在刷新时访问
+    private final Map<LocalDate, HyperLogLog> history = new HashMap<>();
+    private volatile Day current;
+    private volatile ActiveUserCounts counts;
+    // 已从数据库加载到的日期（含），下次从这一天重新读取
+    private LocalDate loadedThrough;
+    private LocalDate lastPurgeDay;
+
+    /**
+     * 记录一次访问；除跨天外无锁、不分配对象
+     */
+    public void record(long userId) {
+        long now = System.currentTimeMillis();
+        Day day = current;
+        if (day == null || now >= day.endMillis) {
+            day = rollover(now);
+        }
+        day.sketch.offer(userId);
+    }
+
+    /**
+     * 最近一次刷新得到的估计值；尚未成功刷新时为 null
+     */
+    public ActiveUserCounts getCounts() {
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.active-users.flush-interval-ms:60000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("活跃用户数据写入失败: {}", e.getMessage());
+        }
+    }
+
+    private synchronized Day rollover(long now) {
+        Day day = current;
+        if (day != null && now < day.endMillis) {
+            return day;
+        }
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+        long endMillis = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        day = new Day(today, endMillis, pending.computeIfAbsent(today, d -> new HyperLogLog()));
+        current = day;
+        return day;
+    }
+
+    private synchronized void flush() {
+        LocalDate today = rollover(System.currentTimeMillis()).date;
+        HyperLogLog todayMerged = null;
+        for (Map.Entry<LocalDate, HyperLogLog> entry : pending.entrySet()) {
+            LocalDate date = entry.getKey();
+            HyperLogLog merged = save(date, entry.getValue().copy());
+            if (date.equals(today)) {
+                todayMerged = merged;
+            } else {
+                pending.remove(date);
+                history.put(date, merged);
+            }
+        }
+        if (todayMerged == null) {
+            todayMerged = new HyperLogLog();
+        }
+        refreshCounts(today, todayMerged);
+        purgeExpired(today);
+    }
+
+    /**
+     * 把本实例的寄存器合并进数据库中同一天的记录，返回合并后的结果
+     * 当天还没有记录时直接插入（自动提交，不持有锁）；已有记录时在事务内加锁读取、合并、写回
+     */
+    private HyperLogLog save(LocalDate date, HyperLogLog local) {
+        if (activeUserSketchMapper.insertIfAbsent(new ActiveUserSketch(date, local.toBytes())) > 0) {
+            return local;
+        }
+        return transactionTemplate.execute(status -> {
+            ActiveUserSketch stored = activeUserSketchMapper.findByDayForUpdate(date);
+            if (stored != null) {
+                merge(local, stored);
+            }
+            activeUserSketchMapper.update(new ActiveUserSketch(date, local.toBytes()));
+            return local;
+        });
+    }
+
+    /**
+     * 合并最近 7/30 天；更早的日期只从数据库加载一次；最后加载的那天可能仍有其他实例在补写，下次重新读取
+     */
+    private void refreshCounts(LocalDate today, HyperLogLog todayMerged) {
+        LocalDate firstDay = today.minusDays(MONTH_DAYS - 1);
+        history.keySet().removeIf(date -> date.isBefore(firstDay));
+        LocalDate yesterday = today.minusDays(1);
+        LocalDate from = loadedThrough == null || loadedThrough.isBefore(firstDay) ? firstDay : loadedThrough;
+        if (!from.isAfter(yesterday)) {
+            for (ActiveUserSketch stored : activeUserSketchMapper.findRange(from, yesterday)) {
+                HyperLogLog sketch = new HyperLogLog();
+                merge(sketch, stored);
+                history.put(stored.getDay(), sketch);
+            }
+            loadedThrough = yesterday;
+        }
+
+        HyperLogLog week = todayMerged.copy();
+        HyperLogLog month = todayMerged.copy();
+        history.forEach((date, sketch) -> {
+            if (date.isAfter(today.minusDays(WEEK_DAYS))) {
+                week.merge(sketch);
+            }
+            month.merge(sketch);
+        });
+        counts = new ActiveUserCounts(todayMerged.estimate(), week.estimate(), month.estimate(),
+                System.currentTimeMillis());
+    }
+
+    private void merge(HyperLogLog target, ActiveUserSketch stored) {
+        try {
+            target.merge(HyperLogLog.fromBytes(stored.getRegisters()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("忽略损坏的活跃用户数据: day={}, {}", stored.getDay(), e.getMessage());
+        }
+    }
+
+    private void purgeExpired(LocalDate today) {
+        if (today.equals(lastPurgeDay)) {
+            return;
+        }
+        lastPurgeDay = today;
+        int deleted = activeUserSketchMapper.deleteBefore(today.minusDays(retentionDays));
+        if (deleted > 0) {
+            logger.info("清理过期活跃用户数据: {} 天", deleted);
+        }
+    }
+
+    private static final class Day {
+        private final LocalDate date;
+        private final long endMillis;
+        private final HyperLogLog sketch;
+
+        private Day(LocalDate date, long endMillis, HyperLogLog sketch) {
+            this.date = date;
+            this.endMillis = endMillis;
+            this.sketch = sketch;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.demo.metrics;
+
+import com.example.demo.common.BusinessException;
+import com.example.demo.common.ErrorCode;
+import com.example.demo.metrics.dto.ActivityPoint;
+import com.example.demo.metrics.dto.ActivitySeriesResponse;
+import com.example.demo.metrics.entity.ActivityMetric;
+import com.example.demo.metrics.mapper.ActivityMetricMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 活动计数（登录、注册、LLM 调用、接口异常等）
+ * 记录时只在内存环形缓冲中累加当前分钟的计数；定时任务把已结束分钟的增量
+ * 连同按小时、按天汇总的增量一起批量累加到 activity_metrics 表；同一活动类型的各批在一个事务内写入，
+ * 中途失败整体回滚，重试时不会重复累加。
+ * 查询按主键范围读取汇总行，再叠加本实例尚未写入的增量，不需要扫描明细数据。
+ */
+@Component
+public class ActivityMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityMetrics.class);
+
+    // 内存保留 24 小时的分钟计数，足以覆盖数据库短时不可用
+    private static final int RING_MINUTES = 1440;
+    private static final int MAX_POINTS = 2000;
+    private static final long PURGE_INTERVAL_MS = 3_600_000L;
+
+    @Autowired
+    private ActivityMetricMapper activityMetricMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${metrics.activity.batch-size:500}")
+    private int batchSize;
+
+    @Value("${metrics.activity.minute-retention-days:7}")
+    private int minuteRetentionDays;
+
+    @Value("${metrics.activity.hour-retention-days:90}")
+    private int hourRetentionDays;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<ActivityType, MinuteRing> rings = new EnumMap<>(ActivityType.class);
+    private long lastPurgeAt;
+
+    public ActivityMetrics() {
+        for (ActivityType type : ActivityType.values()) {
+            rings.put(type, new MinuteRing(RING_MINUTES));
+        }
+    }
+
+    /**
+     * 记录一次活动
+     */
+    public void record(ActivityType type) {
+        rings.get(type).increment(System.currentTimeMillis() / 60_000L);
+    }
+
+    /**
+     * 写入已结束分钟的增量
+     */
+    @Scheduled(fixedDelayString = "${metrics.activity.flush-interval-ms:60000}")
+    public void scheduledFlush() {
+        try {
+            flush(System.currentTimeMillis() / 60_000L);
+            purgeExpired();
+        } catch (Exception e) {
+            logger.warn("活动计数写入失败，增量保留到下次重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 停机前把当前分钟也写入
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush(Long.MAX_VALUE);
+        } catch (Exception e) {
+            logger.warn("停机时写入活动计数失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 查询时间序列 [from, to)，空桶补零
+     */
+    public ActivitySeriesResponse query(ActivityType type, Granularity granularity, long from, long to) {
+        long start = granularity.bucketStart(from, zone);
+        if (to <= start) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "结束时间必须晚于开始时间");
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (ActivityMetric row : activityMetricMapper.findRange(type.name(), granularity.name(), start, to)) {
+            counts.merge(row.getBucketStart(), row.getEventCount(), Long::sum);
+        }
+        rings.get(type).forEachPending(Long.MAX_VALUE, (minute, count, delta) -> {
+            long bucket = granularity.bucketStart(minute * 60_000L, zone);
+            if (bucket >= start && bucket < to) {
+                counts.merge(bucket, delta, Long::sum);
+            }
+        });
+
+        List<ActivityPoint> points = new ArrayList<>();
+        long total = 0;
+        for (long bucket = start; bucket < to; bucket = granularity.next(bucket, zone)) {
+            if (points.size() >= MAX_POINTS) {
+                throw new BusinessException(ErrorCode.INVALID_PARAMETER, "时间范围过大，最多返回 " + MAX_POINTS + " 个点");
+            }
+            long count = counts.getOrDefault(bucket, 0L);
+            points.add(new ActivityPoint(bucket, count));
+            total += count;
+        }
+        return new ActivitySeriesResponse(type.name(), granularity.name(), total, points);
+    }
+
+    private synchronized void flush(long untilMinute) {
+        for (Map.Entry<ActivityType, MinuteRing> entry : rings.entrySet()) {
+            String activity = entry.getKey().name();
+            MinuteRing ring = entry.getValue();
+
+            List<long[]> flushed = new ArrayList<>();
+            Map<Long, Long> minutes = new HashMap<>();
+            Map<Long, Long> hours = new HashMap<>();
+            Map<Long, Long> days = new HashMap<>();
+            ring.forEachPending(untilMinute, (minute, count, delta) -> {
+                long time = minute * 60_000L;
+                minutes.merge(time, delta, Long::sum);
+                hours.merge(Granularity.HOUR.bucketStart(time, zone), delta, Long::sum);
+                days.merge(Granularity.DAY.bucketStart(time, zone), delta, Long::sum);
+                flushed.add(new long[]{minute, count});
+            });
+            if (flushed.isEmpty()) {
+                continue;
+            }
+
+            List<ActivityMetric> rows = new ArrayList<>();
+            addRows(rows, activity, Granularity.MINUTE, minutes);
+            addRows(rows, activity, Granularity.HOUR, hours);
+            addRows(rows, activity, Granularity.DAY, days);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < rows.size(); i += batchSize) {
+                    activityMetricMapper.batchUpsert(rows.subList(i, Math.min(i + batchSize, rows.size())));
+                }
+            });
+            // 事务提交后才推进已写入位置
+            for (long[] item : flushed) {
+                ring.markFlushed(item[0], item[1]);
+            }
+            logger.debug("活动计数已写入: activity={}, minutes={}, rows={}", activity, flushed.size(), rows.size());
+        }
+    }
+
+    private void addRows(List<ActivityMetric> rows, String activity, Granularity granularity, Map<Long, Long> buckets) {
+        buckets.forEach((bucket, count) -> rows.add(new ActivityMetric(activity, granularity.name(), bucket, count)));
+    }
+
+    /**
+     * 按粒度清理过期的汇总行，天粒度长期保留
+     */
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeAt < PURGE_INTERVAL_MS) {
+            return;
+        }
+        lastPurgeAt = now;
+        int minutes = purge(Granularity.MINUTE, now - minuteRetentionDays * 86_400_000L);
+        int hours = purge(Granularity.HOUR, now - hourRetentionDays * 86_400_000L);
+        if (minutes + hours > 0) {
+            logger.info("清理过期活动计数: minute={}, hour={}", minutes, hours);
+        }
+    }
+
+    private int purge(Granularity granularity, long before) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = activityMetricMapper.deleteBefore(granularity.name(), before, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.metrics;
+
+/**
+ * 按分钟计数的活动类型
+ */
+public enum ActivityType {
+    LOGIN,
+    LOGIN_FAILED,
+    REGISTRATION,
+    LLM_CALL,
+    API_ERROR
+}
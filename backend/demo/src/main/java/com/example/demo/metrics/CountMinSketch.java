@@ -0,0 +1,89 @@
+package com.example.demo.metrics;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-Min Sketch：depth 行 × width 列的计数器，内存固定，与键的基数无关
+ * 估计值只会偏大，超出真实值的部分以 1 - e^-depth 的概率不超过 e / width × 总次数。
+ * 添加一次只对键计算一次 64 位哈希，各行再用不同的奇数种子做乘法移位得到列下标。
+ */
+final class CountMinSketch {
+
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x85EBCA77C2B2AE63L, 0x27D4EB2F165667C5L
+    };
+
+    private final int depth;
+    private final int width;
+    private final int shift;
+    private final AtomicIntegerArray counters;
+
+    /**
+     * @param width 列数，必须是 2 的幂
+     */
+    CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width 必须是 2 的幂: " + width);
+        }
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth 取值范围 1-" + SEEDS.length + ": " + depth);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.shift = 64 - Integer.numberOfTrailingZeros(width);
+        this.counters = new AtomicIntegerArray(depth * width);
+    }
+
+    /**
+     * 计数加一并返回加完后的估计值
+     */
+    int add(long hash) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int value = counters.incrementAndGet(index(hash, i));
+            if (value < min) {
+                min = value;
+            }
+        }
+        return min;
+    }
+
+    int estimate(long hash) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int value = counters.get(index(hash, i));
+            if (value < min) {
+                min = value;
+            }
+        }
+        return min;
+    }
+
+    private int index(long hash, int row) {
+        return row * width + (int) ((hash * SEEDS[row]) >>> shift);
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    /**
+     * FNV-1a 逐字符累积后再做一次混合，不分配对象
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
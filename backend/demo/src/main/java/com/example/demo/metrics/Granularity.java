@@ -0,0 +1,47 @@
+package com.example.demo.metrics;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 时间序列粒度；桶起点为毫秒时间戳，小时/天按服务器时区对齐
+ */
+public enum Granularity {
+    MINUTE,
+    HOUR,
+    DAY;
+
+    /**
+     * 时间点所在桶的起点
+     */
+    public long bucketStart(long epochMillis, ZoneId zone) {
+        switch (this) {
+            case MINUTE:
+                return epochMillis - Math.floorMod(epochMillis, 60_000L);
+            case HOUR:
+                return ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone)
+                        .truncatedTo(ChronoUnit.HOURS).toInstant().toEpochMilli();
+            default:
+                return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), zone)
+                        .atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * 下一个桶的起点
+     */
+    public long next(long bucketStart, ZoneId zone) {
+        switch (this) {
+            case MINUTE:
+                return bucketStart + 60_000L;
+            case HOUR:
+                return bucketStart + 3_600_000L;
+            default:
+                return LocalDate.ofInstant(Instant.ofEpochMilli(bucketStart), zone)
+                        .plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.metrics;
+
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.util.IpUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 请求完成后把客户端IP、用户ID、接口路由计入高频访问统计
+ * 路由使用匹配到的路径模板（如 /api/users/{id}），未匹配到处理器的请求统一归为 UNMATCHED。
+ */
+public class HeavyHitterFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED = "UNMATCHED";
+
+    private final HeavyHitterTracker tracker;
+
+    public HeavyHitterFilter(HeavyHitterTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? request.getMethod() + " " + pattern : UNMATCHED;
+            Object userId = request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+            tracker.record(IpUtil.getClientIp(request), (Long) userId, route);
+        }
+    }
+}
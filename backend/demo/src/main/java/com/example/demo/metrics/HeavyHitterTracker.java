@@ -0,0 +1,60 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.dto.HeavyHittersResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按客户端IP、用户、接口统计滑动窗口内的高频访问者
+ * 每个维度占用固定内存（时间片数 × depth × width 个计数器），与访问者数量无关。
+ */
+@Component
+public class HeavyHitterTracker {
+
+    private final SlidingHeavyHitters clientIps;
+    private final SlidingHeavyHitters users;
+    private final SlidingHeavyHitters routes;
+    private final int windowSeconds;
+    private final int width;
+
+    public HeavyHitterTracker(@Value("${metrics.heavy-hitters.window-seconds:60}") int windowSeconds,
+                              @Value("${metrics.heavy-hitters.slots:6}") int slots,
+                              @Value("${metrics.heavy-hitters.depth:4}") int depth,
+                              @Value("${metrics.heavy-hitters.width:2048}") int width,
+                              @Value("${metrics.heavy-hitters.candidates:32}") int candidates) {
+        long slotMillis = windowSeconds * 1000L / slots;
+        this.clientIps = new SlidingHeavyHitters(slots, slotMillis, depth, width, candidates);
+        this.users = new SlidingHeavyHitters(slots, slotMillis, depth, width, candidates);
+        this.routes = new SlidingHeavyHitters(slots, slotMillis, depth, width, candidates);
+        this.windowSeconds = windowSeconds;
+        this.width = width;
+    }
+
+    /**
+     * 记录一次请求；未登录请求不计入用户维度
+     */
+    public void record(String clientIp, Long userId, String route) {
+        long now = System.currentTimeMillis();
+        clientIps.add(clientIp, now);
+        if (userId != null) {
+            users.add(userId.toString(), now);
+        }
+        routes.add(route, now);
+    }
+
+    /**
+     * 当前窗口内各维度的前 limit 个高频键
+     */
+    public HeavyHittersResponse getHeavyHitters(int limit) {
+        long now = System.currentTimeMillis();
+        long total = routes.total(now);
+        HeavyHittersResponse response = new HeavyHittersResponse();
+        response.setWindowSeconds(windowSeconds);
+        response.setTotalRequests(total);
+        response.setErrorBound((long) Math.ceil(Math.E / width * total));
+        response.setClientIps(clientIps.top(now, limit));
+        response.setUsers(users.top(now, limit));
+        response.setRoutes(routes.top(now, limit));
+        return response;
+    }
+}
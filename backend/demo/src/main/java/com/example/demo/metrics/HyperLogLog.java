@@ -0,0 +1,107 @@
+package com.example.demo.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * HyperLogLog 基数估计（2^14 个寄存器，标准误差约 0.8%，序列化后 16KB）
+ * offer 无锁、不分配对象：寄存器已不小于新值时只有一次读，否则用 CAS 抬高。
+ * 合并取逐个寄存器的最大值，满足交换律和幂等，重复合并同一份数据不会改变结果。
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 14;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private static final VarHandle REGISTER = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * 从序列化数据恢复；长度不符时视为损坏
+     */
+    public static HyperLogLog fromBytes(byte[] data) {
+        if (data == null || data.length != REGISTERS) {
+            throw new IllegalArgumentException("HyperLogLog 数据长度错误: " + (data == null ? 0 : data.length));
+        }
+        return new HyperLogLog(data.clone());
+    }
+
+    public void offer(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // 剩余位的前导零个数 + 1；低位补 1 保证结果不超过 64 - PRECISION + 1
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        byte current = (byte) REGISTER.getOpaque(registers, index);
+        while (current < rank) {
+            byte witness = (byte) REGISTER.compareAndExchange(registers, index, current, rank);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            byte rank = (byte) REGISTER.getOpaque(other.registers, i);
+            byte current = (byte) REGISTER.getOpaque(registers, i);
+            while (current < rank) {
+                byte witness = (byte) REGISTER.compareAndExchange(registers, i, current, rank);
+                if (witness == current) {
+                    break;
+                }
+                current = witness;
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTERS; i++) {
+            byte rank = (byte) REGISTER.getOpaque(registers, i);
+            sum += Double.longBitsToDouble((1023L - rank) << 52);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // 小基数时改用线性计数，误差更小
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public HyperLogLog copy() {
+        return new HyperLogLog(toBytes());
+    }
+
+    public byte[] toBytes() {
+        byte[] copy = new byte[REGISTERS];
+        for (int i = 0; i < REGISTERS; i++) {
+            copy[i] = (byte) REGISTER.getOpaque(registers, i);
+        }
+        return copy;
+    }
+
+    /**
+     * 64 位混合函数（SplitMix64 终结步骤），连续的用户ID也能均匀分布
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 固定大小的分钟计数环形缓冲
+ * 每个槽位记录所属分钟、累计次数和已持久化的次数，两者之差即待写入数据库的增量。
+ * 槽位在新的一分钟首次写入时复用；持久化持续失败超过环的长度时，最旧的增量会被覆盖。
+ */
+final class MinuteRing {
+
+    private final int size;
+    private final AtomicLongArray minutes;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray flushed;
+
+    MinuteRing(int size) {
+        this.size = size;
+        this.minutes = new AtomicLongArray(size);
+        this.counts = new AtomicLongArray(size);
+        this.flushed = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            minutes.set(i, -1);
+        }
+    }
+
+    void increment(long minute) {
+        int index = indexOf(minute);
+        if (minutes.get(index) != minute) {
+            rotate(index, minute);
+        }
+        counts.incrementAndGet(index);
+    }
+
+    /**
+     * 遍历尚未持久化的增量；until 之后（不含）的分钟跳过
+     */
+    void forEachPending(long untilMinute, PendingConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            long minute = minutes.get(i);
+            if (minute < 0 || minute >= untilMinute) {
+                continue;
+            }
+            long count = counts.get(i);
+            long delta = count - flushed.get(i);
+            if (delta > 0) {
+                consumer.accept(minute, count, delta);
+            }
+        }
+    }
+
+    /**
+     * 标记增量已持久化；count 为收集增量时读到的累计值，之后新增的次数留到下一轮
+     */
+    void markFlushed(long minute, long count) {
+        int index = indexOf(minute);
+        synchronized (this) {
+            if (minutes.get(index) == minute) {
+                flushed.set(index, count);
+            }
+        }
+    }
+
+    private synchronized void rotate(int index, long minute) {
+        if (minutes.get(index) < minute) {
+            counts.set(index, 0);
+            flushed.set(index, 0);
+            minutes.set(index, minute);
+        }
+    }
+
+    private int indexOf(long minute) {
+        return (int) Math.floorMod(minute, (long) size);
+    }
+
+    @FunctionalInterface
+    interface PendingConsumer {
+        void accept(long minute, long count, long delta);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个 HTTP 请求内执行的 SQL 统计，绑定在处理请求的线程上
+ * 只由该线程读写，不需要同步；请求在其他线程（异步任务、流式响应）中执行的 SQL 不计入。
+ */
+public class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long dbNanos;
+    // 语句ID -> 执行次数
+    private final Map<String, int[]> perStatement = new HashMap<>();
+
+    /**
+     * 开始统计当前线程上的请求
+     */
+    public static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * 当前请求的统计，不在请求线程上时为 null
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String statement, long nanos) {
+        statementCount++;
+        dbNanos += nanos;
+        perStatement.computeIfAbsent(statement, k -> new int[1])[0]++;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    /**
+     * 以 Server-Timing 格式追加重复执行的语句：, nplus1;desc="RoleMapper.findById x30"
+     */
+    void appendRepeated(StringBuilder header, int threshold) {
+        for (Map.Entry<String, int[]> entry : perStatement.entrySet()) {
+            int count = entry.getValue()[0];
+            if (count >= threshold) {
+                header.append(", nplus1;desc=\"").append(entry.getKey()).append(" x").append(count).append('"');
+            }
+        }
+    }
+
+    /**
+     * 同一语句执行次数达到阈值的（疑似 N+1），按次数从多到少
+     */
+    public List<Map.Entry<String, Integer>> getRepeated(int threshold) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : perStatement.entrySet()) {
+            if (entry.getValue()[0] >= threshold) {
+                repeated.add(Map.entry(entry.getKey(), entry.getValue()[0]));
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return repeated;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.metrics;
+
+import java.util.Arrays;
+
+/**
+ * 请求内各阶段耗时记录器，每个线程一个实例并在请求间复用
+ * 同一时刻只有一个“当前阶段”，进入新阶段时先把已用时间记到原阶段上，
+ * 因此各阶段是互不重叠的自身耗时（如加载用户时执行的 SQL 记为 db 而不是 principal），合计等于总耗时。
+ * 不在请求线程上（未调用 begin）时所有方法都是空操作。
+ */
+public final class RequestTimer {
+
+    private static final ThreadLocal<RequestTimer> CURRENT = ThreadLocal.withInitial(RequestTimer::new);
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final long[] nanos = new long[PHASES.length];
+    private final StringBuilder header = new StringBuilder(256);
+    private boolean active;
+    private boolean headerWritten;
+    private TimingPhase current;
+    private long start;
+    private long mark;
+
+    private RequestTimer() {
+    }
+
+    /**
+     * 开始记录当前线程上的请求，初始阶段为 FILTER
+     */
+    public static RequestTimer begin() {
+        RequestTimer timer = CURRENT.get();
+        Arrays.fill(timer.nanos, 0);
+        timer.active = true;
+        timer.headerWritten = false;
+        timer.current = TimingPhase.FILTER;
+        timer.start = System.nanoTime();
+        timer.mark = timer.start;
+        return timer;
+    }
+
+    /**
+     * 当前线程上正在记录的请求，没有时为 null
+     */
+    public static RequestTimer current() {
+        RequestTimer timer = CURRENT.get();
+        return timer.active ? timer : null;
+    }
+
+    /**
+     * 进入阶段，返回之前的阶段，供 exit 恢复
+     */
+    public static TimingPhase enter(TimingPhase phase) {
+        RequestTimer timer = CURRENT.get();
+        if (!timer.active) {
+            return null;
+        }
+        TimingPhase previous = timer.current;
+        timer.switchTo(phase);
+        return previous;
+    }
+
+    /**
+     * 退出阶段，回到 enter 返回的阶段
+     */
+    public static void exit(TimingPhase previous) {
+        if (previous == null) {
+            return;
+        }
+        RequestTimer timer = CURRENT.get();
+        if (timer.active) {
+            timer.switchTo(previous);
+        }
+    }
+
+    public void end() {
+        active = false;
+    }
+
+    /**
+     * 响应头是否已生成（每个请求只写一次）
+     */
+    public boolean isHeaderWritten() {
+        return headerWritten;
+    }
+
+    /**
+     * 生成 Server-Timing 响应头，例如：
+     * total;dur=35.2, auth;dur=0.4, db;dur=12.1, app;dur=20.3, json;dur=1.8, filter;dur=0.6
+     * sqlDetails 为 true 时（压测用，会暴露语句ID）db 带 desc="7 queries"，
+     * 同一请求内重复执行达到阈值的语句以 nplus1;desc="..." 列出
+     */
+    public String buildHeader(boolean sqlDetails, int nPlusOneThreshold) {
+        switchTo(current);
+        headerWritten = true;
+        header.setLength(0);
+        appendMetric("total", mark - start);
+        RequestSqlStats sqlStats = sqlDetails ? RequestSqlStats.current() : null;
+        for (TimingPhase phase : PHASES) {
+            long value = nanos[phase.ordinal()];
+            if (value == 0) {
+                continue;
+            }
+            header.append(", ");
+            appendMetric(phase.getMetricName(), value);
+            if (phase == TimingPhase.DB && sqlStats != null) {
+                header.append(";desc=\"").append(sqlStats.getStatementCount()).append(" queries\"");
+            }
+        }
+        if (sqlStats != null) {
+            sqlStats.appendRepeated(header, nPlusOneThreshold);
+        }
+        return header.toString();
+    }
+
+    private void switchTo(TimingPhase phase) {
+        long now = System.nanoTime();
+        nanos[current.ordinal()] += now - mark;
+        mark = now;
+        current = phase;
+    }
+
+    private void appendMetric(String name, long value) {
+        // 保留一位小数的毫秒，避免 String.format 的开销
+        long tenths = (value + 50_000) / 100_000;
+        header.append(name).append(";dur=").append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * 请求关联ID与分阶段计时
+ * 关联ID取自请求头 X-Request-Id（格式合法时），否则生成；写入 MDC（requestId）和响应头。
+ * JSON 响应的 Server-Timing 头由 ServerTimingJacksonConverter 在序列化后写入；
+ * 没有响应体的响应在这里补写（响应未提交时）。
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final boolean serverTimingEnabled;
+    private final boolean sqlDetails;
+    private final int nPlusOneThreshold;
+
+    public RequestTimingFilter(boolean serverTimingEnabled, boolean sqlDetails, int nPlusOneThreshold) {
+        this.serverTimingEnabled = serverTimingEnabled;
+        this.sqlDetails = sqlDetails;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        }
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        RequestTimer timer = serverTimingEnabled ? RequestTimer.begin() : null;
+        try {
+            filterChain.doFilter(request, response);
+            if (timer != null && !timer.isHeaderWritten() && !response.isCommitted()) {
+                response.addHeader(ServerTimingJacksonConverter.HEADER, timer.buildHeader(sqlDetails, nPlusOneThreshold));
+            }
+        } finally {
+            if (timer != null) {
+                timer.end();
+            }
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 非 JSON 响应体（字符串、字节等）在写出前添加 Server-Timing 头；JSON 由 ServerTimingJacksonConverter 处理
+ */
+@RestControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean sqlDetails;
+    private final int nPlusOneThreshold;
+
+    public ServerTimingAdvice(@Value("${metrics.sql-budget.server-timing:false}") boolean sqlDetails,
+                              @Value("${metrics.sql-budget.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.sqlDetails = sqlDetails;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return !ServerTimingJacksonConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimer timer = RequestTimer.current();
+        if (timer != null && !timer.isHeaderWritten()) {
+            response.getHeaders().add(ServerTimingJacksonConverter.HEADER, timer.buildHeader(sqlDetails, nPlusOneThreshold));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * 先把 JSON 序列化到每线程复用的缓冲区，再写 Server-Timing 响应头和响应体
+ * 响应头必须在响应体之前发出，只有这样序列化本身的耗时才能出现在头里。
+ * 不在计时中的请求（流式推送、非请求线程）直接按原方式输出。
+ */
+public class ServerTimingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public static final String HEADER = "Server-Timing";
+
+    // 超过该大小的缓冲区用完即丢弃，避免个别大响应长期占用内存
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+    private static final ThreadLocal<ReusableBuffer> BUFFER = ThreadLocal.withInitial(ReusableBuffer::new);
+
+    private final boolean sqlDetails;
+    private final int nPlusOneThreshold;
+
+    public ServerTimingJacksonConverter(ObjectMapper objectMapper, boolean sqlDetails, int nPlusOneThreshold) {
+        super(objectMapper);
+        this.sqlDetails = sqlDetails;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTimer timer = RequestTimer.current();
+        if (timer == null || timer.isHeaderWritten()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        ReusableBuffer buffer = BUFFER.get();
+        buffer.reset();
+        TimingPhase previous = RequestTimer.enter(TimingPhase.JSON);
+        try {
+            super.writeInternal(object, type, new BufferedOutputMessage(outputMessage.getHeaders(), buffer));
+        } finally {
+            RequestTimer.exit(previous);
+        }
+        try {
+            outputMessage.getHeaders().add(HEADER, timer.buildHeader(sqlDetails, nPlusOneThreshold));
+        } catch (UnsupportedOperationException e) {
+            // 响应头已经发出（流式推送的后续事件）
+        }
+        buffer.writeTo(outputMessage.getBody());
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+    }
+
+    private static final class ReusableBuffer extends ByteArrayOutputStream {
+        ReusableBuffer() {
+            super(8192);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers;
+        private final OutputStream body;
+
+        BufferedOutputMessage(HttpHeaders headers, OutputStream body) {
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.dto.HeavyHitter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 滑动时间窗口内的高频键
+ * 窗口切成若干个时间片，每片一个 Count-Min Sketch 和候选集合，时间片过期后整片复用。
+ * 查询时取所有有效时间片候选键的并集，按各片估计值之和排序。
+ */
+final class SlidingHeavyHitters {
+
+    private final Slot[] slots;
+    private final long slotMillis;
+
+    SlidingHeavyHitters(int slotCount, long slotMillis, int depth, int width, int capacity) {
+        this.slots = new Slot[slotCount];
+        this.slotMillis = slotMillis;
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot(depth, width, capacity);
+        }
+    }
+
+    void add(String key, long now) {
+        long epoch = now / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        if (slot.epoch != epoch) {
+            slot.rotate(epoch);
+        }
+        int estimate = slot.sketch.add(CountMinSketch.hash(key));
+        slot.total.increment();
+        slot.candidates.offer(key, estimate);
+    }
+
+    /**
+     * 窗口内估计次数最多的 limit 个键
+     */
+    List<HeavyHitter> top(long now, int limit) {
+        List<Slot> live = liveSlots(now);
+        long total = 0;
+        Set<String> keys = new HashSet<>();
+        for (Slot slot : live) {
+            total += slot.total.sum();
+            keys.addAll(slot.candidates.keys());
+        }
+
+        List<HeavyHitter> hitters = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            long hash = CountMinSketch.hash(key);
+            long count = 0;
+            for (Slot slot : live) {
+                count += slot.sketch.estimate(hash);
+            }
+            hitters.add(new HeavyHitter(key, count, total > 0 ? (double) count / total : 0));
+        }
+        hitters.sort(Comparator.comparingLong(HeavyHitter::getCount).reversed());
+        return hitters.size() > limit ? new ArrayList<>(hitters.subList(0, limit)) : hitters;
+    }
+
+    long total(long now) {
+        long total = 0;
+        for (Slot slot : liveSlots(now)) {
+            total += slot.total.sum();
+        }
+        return total;
+    }
+
+    private List<Slot> liveSlots(long now) {
+        long epoch = now / slotMillis;
+        List<Slot> live = new ArrayList<>(slots.length);
+        for (Slot slot : slots) {
+            if (slot.epoch > epoch - slots.length && slot.epoch <= epoch) {
+                live.add(slot);
+            }
+        }
+        return live;
+    }
+
+    private static final class Slot {
+        private final CountMinSketch sketch;
+        private final TopKCandidates candidates;
+        private final LongAdder total = new LongAdder();
+        private volatile long epoch = -1;
+
+        private Slot(int depth, int width, int capacity) {
+            this.sketch = new CountMinSketch(depth, width);
+            this.candidates = new TopKCandidates(capacity);
+        }
+
+        private synchronized void rotate(long newEpoch) {
+            if (epoch < newEpoch) {
+                sketch.clear();
+                candidates.clear();
+                total.reset();
+                epoch = newEpoch;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.metrics;
+
+/**
+ * 一次慢查询的样本
+ * 参数只以类型“形状”对外展示；参数值仅保留在内存中，用于对 SELECT 语句执行 EXPLAIN。
+ */
+class SlowQuerySample {
+
+    final String sql;
+    final String parameterShape;
+    final long micros;
+    final long rows;
+    final long timestamp;
+    final Object[] parameterValues;
+
+    SlowQuerySample(String sql, String parameterShape, long micros, long rows, long timestamp, Object[] parameterValues) {
+        this.sql = sql;
+        this.parameterShape = parameterShape;
+        this.micros = micros;
+        this.rows = rows;
+        this.timestamp = timestamp;
+        this.parameterValues = parameterValues;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.dto.SlowQueryReport;
+import com.example.demo.metrics.dto.SlowQuerySampleInfo;
+import com.example.demo.metrics.dto.StatementStats;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 慢查询采样器
+ * 每次执行只累加计数、耗时和固定桶直方图；超过阈值的执行才计算 BoundSql 并记录参数形状，
+ * 因此正常请求的开销只有一次 Map 查找和几次原子累加。
+ * 统计按语句ID聚合，语句数有上限，排行在查询时排序。
+ */
+@Component
+@Intercepts({
+    @Signature(type = Executor.class, method = "query",
+               args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query",
+               args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class SlowQuerySampler implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQuerySampler.class);
+
+    private static final int MAX_SQL_LENGTH = 4000;
+    private static final Map<String, Comparator<StatementStats>> SORTS = Map.of(
+        "total", Comparator.comparingDouble(StatementStats::getTotalMs),
+        "max", Comparator.comparingDouble(StatementStats::getMaxMs),
+        "p99", Comparator.comparingDouble(StatementStats::getP99Ms),
+        "avg", Comparator.comparingDouble(StatementStats::getAvgMs),
+        "count", Comparator.comparingLong(StatementStats::getCount),
+        "slow", Comparator.comparingLong(StatementStats::getSlowCount));
+
+    private final long thresholdMicros;
+    private final int maxStatements;
+    private final int samplesPerStatement;
+    private final JdbcTemplate explainTemplate;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Map<String, StatementProfile> profiles = new ConcurrentHashMap<>();
+    private volatile long since = System.currentTimeMillis();
+
+    public SlowQuerySampler(DataSource dataSource,
+                            @Value("${metrics.slow-query.threshold-ms:200}") long thresholdMs,
+                            @Value("${metrics.slow-query.max-statements:1000}") int maxStatements,
+                            @Value("${metrics.slow-query.samples-per-statement:5}") int samplesPerStatement,
+                            @Value("${metrics.slow-query.explain-timeout-seconds:5}") int explainTimeoutSeconds) {
+        this.thresholdMicros = thresholdMs * 1000;
+        this.maxStatements = maxStatements;
+        this.samplesPerStatement = Math.max(1, samplesPerStatement);
+        this.explainTemplate = new JdbcTemplate(dataSource);
+        this.explainTemplate.setQueryTimeout(explainTimeoutSeconds);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        boolean success = false;
+        try {
+            result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            record(invocation, result, success, (System.nanoTime() - start) / 1000);
+        }
+    }
+
+    /**
+     * 按指定字段排序的前 N 条语句；explainTop > 0 时对排名靠前的 SELECT 语句用最慢样本执行 EXPLAIN
+     */
+    public SlowQueryReport getReport(int limit, String sortBy, int explainTop) {
+        Comparator<StatementStats> order = SORTS.getOrDefault(sortBy, SORTS.get("total")).reversed();
+        Map<String, StatementProfile> current = profiles;
+        List<StatementStats> all = new ArrayList<>(current.size());
+        for (StatementProfile profile : current.values()) {
+            all.add(toStats(profile));
+        }
+        all.sort(order);
+        List<StatementStats> top = new ArrayList<>(all.subList(0, Math.min(limit, all.size())));
+        for (int i = 0; i < Math.min(explainTop, top.size()); i++) {
+            StatementStats stats = top.get(i);
+            explain(stats, current.get(stats.getStatement()));
+        }
+
+        SlowQueryReport report = new SlowQueryReport();
+        report.setThresholdMs(thresholdMicros / 1000);
+        report.setSince(since);
+        report.setStatementCount(current.size());
+        report.setDroppedStatements(dropped.sum());
+        report.setSortBy(SORTS.containsKey(sortBy) ? sortBy : "total");
+        report.setStatements(top);
+        return report;
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        profiles = new ConcurrentHashMap<>();
+        dropped.reset();
+        since = System.currentTimeMillis();
+    }
+
+    private void record(Invocation invocation, Object result, boolean success, long micros) {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        String name = MybatisMetricsInterceptor.shortName(statement.getId());
+        StatementProfile profile = profileOf(name, statement.getSqlCommandType());
+        if (profile == null) {
+            return;
+        }
+        long rows = rowCount(result);
+        profile.record(micros, rows, success);
+        if (micros >= thresholdMicros) {
+            try {
+                captureSample(profile, invocation, micros, rows);
+            } catch (RuntimeException e) {
+                logger.debug("记录慢查询样本失败: {}, {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private StatementProfile profileOf(String name, SqlCommandType type) {
+        Map<String, StatementProfile> current = profiles;
+        StatementProfile profile = current.get(name);
+        if (profile != null) {
+            return profile;
+        }
+        if (current.size() >= maxStatements) {
+            dropped.increment();
+            return null;
+        }
+        return current.computeIfAbsent(name, key -> new StatementProfile(key, type.name(), samplesPerStatement));
+    }
+
+    private void captureSample(StatementProfile profile, Invocation invocation, long micros, long rows) {
+        Object[] args = invocation.getArgs();
+        MappedStatement statement = (MappedStatement) args[0];
+        Object parameter = args[1];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : statement.getBoundSql(parameter);
+        Object[] values = parameterValues(statement.getConfiguration(), boundSql, parameter);
+        String sql = boundSql.getSql().replaceAll("\\s+", " ").trim();
+        if (sql.length() > MAX_SQL_LENGTH) {
+            sql = sql.substring(0, MAX_SQL_LENGTH);
+        }
+        String shape = shapeOf(values);
+        boolean explainable = statement.getSqlCommandType() == SqlCommandType.SELECT;
+        profile.addSample(new SlowQuerySample(sql, shape, micros, rows, System.currentTimeMillis(),
+            explainable ? values : null));
+        logger.warn("慢查询: {} 耗时={}ms 行数={} 参数={}", profile.statement, micros / 1000, rows, shape);
+    }
+
+    /**
+     * 按 DefaultParameterHandler 的规则取出绑定参数值
+     */
+    private static Object[] parameterValues(Configuration configuration, BoundSql boundSql, Object parameter) {
+        TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        Object[] values = new Object[mappings.size()];
+        MetaObject metaObject = null;
+        for (int i = 0; i < mappings.size(); i++) {
+            ParameterMapping mapping = mappings.get(i);
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            if (boundSql.hasAdditionalParameter(property)) {
+                values[i] = boundSql.getAdditionalParameter(property);
+            } else if (parameter == null) {
+                values[i] = null;
+            } else if (registry.hasTypeHandler(parameter.getClass())) {
+                values[i] = parameter;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameter);
+                }
+                values[i] = metaObject.getValue(property);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 参数形状：类型与字符串长度，连续相同的合并计数（foreach 展开的 IN 列表）
+     */
+    static String shapeOf(Object[] values) {
+        StringBuilder shape = new StringBuilder("[");
+        String previous = null;
+        int run = 0;
+        for (Object value : values) {
+            String current = value == null ? "null"
+                : value instanceof CharSequence text ? "String(" + text.length() + ")"
+                : value.getClass().getSimpleName();
+            if (current.equals(previous)) {
+                run++;
+                continue;
+            }
+            appendRun(shape, previous, run);
+            previous = current;
+            run = 1;
+        }
+        appendRun(shape, previous, run);
+        return shape.append(']').toString();
+    }
+
+    private static void appendRun(StringBuilder shape, String type, int run) {
+        if (type == null) {
+            return;
+        }
+        if (shape.length() > 1) {
+            shape.append(", ");
+        }
+        shape.append(type);
+        if (run > 1) {
+            shape.append(" x").append(run);
+        }
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        return 0;
+    }
+
+    private void explain(StatementStats stats, StatementProfile profile) {
+        SlowQuerySample worst = profile != null ? profile.worstSample() : null;
+        if (worst == null || worst.parameterValues == null) {
+            return;
+        }
+        Object[] args = new Object[worst.parameterValues.length];
+        for (int i = 0; i < args.length; i++) {
+            Object value = worst.parameterValues[i];
+            args[i] = value instanceof Enum<?> e ? e.name() : value;
+        }
+        try {
+            stats.setExplain(explainTemplate.queryForList("EXPLAIN " + worst.sql, args));
+        } catch (RuntimeException e) {
+            stats.setExplainError(e.getMessage());
+        }
+    }
+
+    private static StatementStats toStats(StatementProfile profile) {
+        StatementStats stats = new StatementStats();
+        long count = profile.count.sum();
+        long totalMicros = profile.totalMicros.sum();
+        long rows = profile.rows.sum();
+        stats.setStatement(profile.statement);
+        stats.setType(profile.type);
+        stats.setCount(count);
+        stats.setErrors(profile.errors.sum());
+        stats.setTotalMs(totalMicros / 1000.0);
+        stats.setAvgMs(count > 0 ? totalMicros / 1000.0 / count : 0);
+        stats.setP99Ms(profile.histogram.percentile(0.99) / 1000.0);
+        stats.setMaxMs(profile.maxMicros.get() / 1000.0);
+        stats.setRows(rows);
+        stats.setAvgRows(count > 0 ? (double) rows / count : 0);
+        stats.setSlowCount(profile.slowCount.sum());
+        List<SlowQuerySampleInfo> samples = new ArrayList<>();
+        for (SlowQuerySample sample : profile.recentSamples()) {
+            SlowQuerySampleInfo info = new SlowQuerySampleInfo();
+            info.setSql(sample.sql);
+            info.setParameterShape(sample.parameterShape);
+            info.setDurationMs(sample.micros / 1000.0);
+            info.setRows(sample.rows);
+            info.setTimestamp(sample.timestamp);
+            samples.add(info);
+        }
+        stats.setSlowSamples(samples);
+        return stats;
+    }
+}
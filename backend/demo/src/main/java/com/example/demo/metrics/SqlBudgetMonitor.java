@@ -0,0 +1,106 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按接口检查每个请求的 SQL 次数和数据库耗时预算，并识别重复执行的同一语句（N+1）
+ * 指标：http.server.sql.statements（每请求语句数）、http.server.sql.budget.exceeded（按原因计数）。
+ * 超出预算的日志按接口限频，避免压测时刷屏。
+ */
+@Component
+public class SqlBudgetMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetMonitor.class);
+
+    private final MeterRegistry registry;
+    private final int maxStatements;
+    private final long maxDbNanos;
+    private final int nPlusOneThreshold;
+    private final long logIntervalMs;
+
+    private final Map<String, RouteMeters> routes = new ConcurrentHashMap<>();
+
+    public SqlBudgetMonitor(MeterRegistry registry,
+                            @Value("${metrics.sql-budget.max-statements:20}") int maxStatements,
+                            @Value("${metrics.sql-budget.max-db-time-ms:500}") long maxDbTimeMs,
+                            @Value("${metrics.sql-budget.n-plus-one-threshold:5}") int nPlusOneThreshold,
+                            @Value("${metrics.sql-budget.log-interval-ms:60000}") long logIntervalMs) {
+        this.registry = registry;
+        this.maxStatements = maxStatements;
+        this.maxDbNanos = maxDbTimeMs * 1_000_000;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.logIntervalMs = logIntervalMs;
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    /**
+     * 请求结束后记录指标并检查预算；route 为“方法 路径模板”
+     */
+    public void check(String method, String uri, RequestSqlStats stats) {
+        RouteMeters meters = routes.computeIfAbsent(method + " " + uri, key -> new RouteMeters(method, uri));
+        meters.statements.record(stats.getStatementCount());
+        if (stats.getStatementCount() == 0) {
+            return;
+        }
+        boolean tooMany = stats.getStatementCount() > maxStatements;
+        boolean tooSlow = stats.getDbNanos() > maxDbNanos;
+        List<Map.Entry<String, Integer>> repeated = stats.getRepeated(nPlusOneThreshold);
+        if (tooMany) {
+            meters.statementsExceeded.increment();
+        }
+        if (tooSlow) {
+            meters.dbTimeExceeded.increment();
+        }
+        if (!repeated.isEmpty()) {
+            meters.nPlusOne.increment();
+        }
+        if ((tooMany || tooSlow || !repeated.isEmpty()) && meters.shouldLog(logIntervalMs)) {
+            logger.warn("SQL 预算超出: {} {} 语句数={}(上限{}) 数据库耗时={}ms(上限{}ms) 重复语句={}",
+                method, uri, stats.getStatementCount(), maxStatements, stats.getDbNanos() / 1_000_000,
+                maxDbNanos / 1_000_000, repeated);
+        }
+    }
+
+    private final class RouteMeters {
+        final DistributionSummary statements;
+        final Counter statementsExceeded;
+        final Counter dbTimeExceeded;
+        final Counter nPlusOne;
+        private volatile long lastLogged;
+
+        RouteMeters(String method, String uri) {
+            statements = DistributionSummary.builder("http.server.sql.statements")
+                .description("每个请求执行的 SQL 语句数").tag("method", method).tag("uri", uri).register(registry);
+            statementsExceeded = exceeded(method, uri, "statements");
+            dbTimeExceeded = exceeded(method, uri, "db_time");
+            nPlusOne = exceeded(method, uri, "n_plus_one");
+        }
+
+        private Counter exceeded(String method, String uri, String reason) {
+            return Counter.builder("http.server.sql.budget.exceeded").description("超出 SQL 预算的请求数")
+                .tag("method", method).tag("uri", uri).tag("reason", reason).register(registry);
+        }
+
+        boolean shouldLog(long intervalMs) {
+            long now = System.currentTimeMillis();
+            if (now - lastLogged < intervalMs) {
+                return false;
+            }
+            lastLogged = now;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条 Mapper 语句的累计执行统计与最近的慢查询样本
+ */
+class StatementProfile {
+
+    final String statement;
+    final String type;
+    final LongAdder count = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder totalMicros = new LongAdder();
+    final LongAdder rows = new LongAdder();
+    final LongAdder slowCount = new LongAdder();
+    final AtomicLong maxMicros = new AtomicLong();
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    private final int maxSamples;
+    // 最近的慢查询样本（环形覆盖）与耗时最长的一次，由 this 保护
+    private final SlowQuerySample[] recent;
+    private int next;
+    private SlowQuerySample worst;
+
+    StatementProfile(String statement, String type, int maxSamples) {
+        this.statement = statement;
+        this.type = type;
+        this.maxSamples = maxSamples;
+        this.recent = new SlowQuerySample[maxSamples];
+    }
+
+    void record(long micros, long rowCount, boolean success) {
+        count.increment();
+        if (!success) {
+            errors.increment();
+        }
+        totalMicros.add(micros);
+        rows.add(rowCount);
+        histogram.record(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    synchronized void addSample(SlowQuerySample sample) {
+        slowCount.increment();
+        recent[next] = sample;
+        next = (next + 1) % maxSamples;
+        if (worst == null || sample.micros >= worst.micros) {
+            worst = sample;
+        }
+    }
+
+    /**
+     * 最近的样本，新的在前
+     */
+    synchronized List<SlowQuerySample> recentSamples() {
+        List<SlowQuerySample> samples = new ArrayList<>(maxSamples);
+        for (int i = 1; i <= maxSamples; i++) {
+            SlowQuerySample sample = recent[(next - i + maxSamples) % maxSamples];
+            if (sample != null) {
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
+    synchronized SlowQuerySample worstSample() {
+        return worst;
+    }
+}
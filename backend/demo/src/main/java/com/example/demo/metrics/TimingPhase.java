@@ -0,0 +1,31 @@
+package com.example.demo.metrics;
+
+/**
+ * 请求耗时的阶段，名称即 Server-Timing 中的指标名
+ */
+public enum TimingPhase {
+    /** 过滤器链中未归入其他阶段的时间（安全过滤器、统计等） */
+    FILTER("filter"),
+    /** JWT 校验与解析 */
+    AUTH("auth"),
+    /** 根据令牌加载用户和角色 */
+    PRINCIPAL("principal"),
+    /** 控制器与业务逻辑 */
+    APP("app"),
+    /** SQL 执行 */
+    DB("db"),
+    /** 密码哈希计算与校验 */
+    BCRYPT("bcrypt"),
+    /** 响应 JSON 序列化 */
+    JSON("json");
+
+    private final String metricName;
+
+    TimingPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.metrics;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 有界的高频键候选集合（最多 capacity 个）
+ * 估计值不超过当前门槛且不在集合中的键直接跳过，只需一次 volatile 读和一次哈希查找；
+ * 需要换入新键时才加锁淘汰最小的一个。
+ */
+final class TopKCandidates {
+
+    private final int capacity;
+    private final Map<String, Integer> counts;
+    // 集合已满时的最小估计值，未满时为 0
+    private volatile int threshold;
+
+    TopKCandidates(int capacity) {
+        this.capacity = capacity;
+        this.counts = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    void offer(String key, int estimate) {
+        if (estimate <= threshold && !counts.containsKey(key)) {
+            return;
+        }
+        if (counts.computeIfPresent(key, (k, current) -> Math.max(current, estimate)) != null) {
+            return;
+        }
+        synchronized (this) {
+            if (counts.containsKey(key)) {
+                return;
+            }
+            if (counts.size() >= capacity) {
+                String minKey = null;
+                int min = Integer.MAX_VALUE;
+                for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                    if (entry.getValue() < min) {
+                        min = entry.getValue();
+                        minKey = entry.getKey();
+                    }
+                }
+                if (estimate <= min) {
+                    threshold = min;
+                    return;
+                }
+                counts.remove(minKey);
+            }
+            counts.put(key, estimate);
+            if (counts.size() >= capacity) {
+                threshold = counts.values().stream().mapToInt(Integer::intValue).min().orElse(0);
+            }
+        }
+    }
+
+    Set<String> keys() {
+        return counts.keySet();
+    }
+
+    synchronized void clear() {
+        counts.clear();
+        threshold = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.metrics.dto;
+
+/**
+ * 时间序列中的一个点
+ */
+public class ActivityPoint {
+    // 桶起点（毫秒时间戳）
+    private long time;
+    private long count;
+
+    public ActivityPoint() {}
+
+    public ActivityPoint(long time, long count) {
+        this.time = time;
+        this.count = count;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
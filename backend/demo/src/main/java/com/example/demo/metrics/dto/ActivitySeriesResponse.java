@@ -0,0 +1,54 @@
+package com.example.demo.metrics.dto;
+
+import java.util.List;
+
+/**
+ * 活动时间序列响应DTO
+ */
+public class ActivitySeriesResponse {
+    private String activity;
+    private String granularity;
+    private long total;
+    private List<ActivityPoint> points;
+
+    public ActivitySeriesResponse() {}
+
+    public ActivitySeriesResponse(String activity, String granularity, long total, List<ActivityPoint> points) {
+        this.activity = activity;
+        this.granularity = granularity;
+        this.total = total;
+        this.points = points;
+    }
+
+    public String getActivity() {
+        return activity;
+    }
+
+    public void setActivity(String activity) {
+        this.activity = activity;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<ActivityPoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<ActivityPoint> points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.metrics.dto;
+
+/**
+ * 高频键及其估计次数
+ */
+public class HeavyHitter {
+    private String key;
+    // 窗口内估计次数（只会偏大）
+    private long count;
+    // 占窗口内总请求数的比例
+    private double share;
+
+    public HeavyHitter() {}
+
+    public HeavyHitter(String key, long count, double share) {
+        this.key = key;
+        this.count = count;
+        this.share = share;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getShare() {
+        return share;
+    }
+
+    public void setShare(double share) {
+        this.share = share;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.metrics.dto;
+
+import java.util.List;
+
+/**
+ * 高频客户端/用户/接口响应DTO
+ */
+public class HeavyHittersResponse {
+    private int windowSeconds;
+    private long totalRequests;
+    // 估计值相对真实值的最大偏差（大概率成立）
+    private long errorBound;
+    private List<HeavyHitter> clientIps;
+    private List<HeavyHitter> users;
+    private List<HeavyHitter> routes;
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public long getTotalRequests() {
+        return totalRequests;
+    }
+
+    public void setTotalRequests(long totalRequests) {
+        this.totalRequests = totalRequests;
+    }
+
+    public long getErrorBound() {
+        return errorBound;
+    }
+
+    public void setErrorBound(long errorBound) {
+        this.errorBound = errorBound;
+    }
+
+    public List<HeavyHitter> getClientIps() {
+        return clientIps;
+    }
+
+    public void setClientIps(List<HeavyHitter> clientIps) {
+        this.clientIps = clientIps;
+    }
+
+    public List<HeavyHitter> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<HeavyHitter> users) {
+        this.users = users;
+    }
+
+    public List<HeavyHitter> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<HeavyHitter> routes) {
+        this.routes = routes;
+    }
+}
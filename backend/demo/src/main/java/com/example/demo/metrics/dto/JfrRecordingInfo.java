@@ -0,0 +1,105 @@
+package com.example.demo.metrics.dto;
+
+import java.util.List;
+
+/**
+ * JFR 录制状态DTO
+ */
+public class JfrRecordingInfo {
+    // NEW/RUNNING/STOPPED
+    private String state;
+    // JVM 是否支持 JFR
+    private boolean available;
+    private String settings;
+    private long sqlThresholdMs;
+    private Long startTime;
+    private Long stopTime;
+    private Long maxAgeMinutes;
+    private long maxSizeBytes;
+    // 已写入磁盘的大小
+    private long sizeBytes;
+    // 本应用的自定义事件
+    private List<String> events;
+
+    public JfrRecordingInfo() {}
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public long getSqlThresholdMs() {
+        return sqlThresholdMs;
+    }
+
+    public void setSqlThresholdMs(long sqlThresholdMs) {
+        this.sqlThresholdMs = sqlThresholdMs;
+    }
+
+    public Long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Long startTime) {
+        this.startTime = startTime;
+    }
+
+    public Long getStopTime() {
+        return stopTime;
+    }
+
+    public void setStopTime(Long stopTime) {
+        this.stopTime = stopTime;
+    }
+
+    public Long getMaxAgeMinutes() {
+        return maxAgeMinutes;
+    }
+
+    public void setMaxAgeMinutes(Long maxAgeMinutes) {
+        this.maxAgeMinutes = maxAgeMinutes;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    public void setMaxSizeBytes(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public List<String> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<String> events) {
+        this.events = events;
+    }
+}
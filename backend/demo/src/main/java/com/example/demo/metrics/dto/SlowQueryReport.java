@@ -0,0 +1,68 @@
+package com.example.demo.metrics.dto;
+
+import java.util.List;
+
+/**
+ * 慢查询排行DTO
+ */
+public class SlowQueryReport {
+    private long thresholdMs;
+    // 统计开始时间（启动或上次重置）
+    private long since;
+    // 已统计的语句数
+    private int statementCount;
+    // 超过语句数上限而未统计的执行次数
+    private long droppedStatements;
+    private String sortBy;
+    private List<StatementStats> statements;
+
+    public SlowQueryReport() {}
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public void setThresholdMs(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public void setSince(long since) {
+        this.since = since;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public void setStatementCount(int statementCount) {
+        this.statementCount = statementCount;
+    }
+
+    public long getDroppedStatements() {
+        return droppedStatements;
+    }
+
+    public void setDroppedStatements(long droppedStatements) {
+        this.droppedStatements = droppedStatements;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public List<StatementStats> getStatements() {
+        return statements;
+    }
+
+    public void setStatements(List<StatementStats> statements) {
+        this.statements = statements;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.metrics.dto;
+
+/**
+ * 慢查询样本DTO
+ */
+public class SlowQuerySampleInfo {
+    private String sql;
+    // 参数类型形状，如 [Long, String(12), Long x500]，不含参数值
+    private String parameterShape;
+    private double durationMs;
+    private long rows;
+    private long timestamp;
+
+    public SlowQuerySampleInfo() {}
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public String getParameterShape() {
+        return parameterShape;
+    }
+
+    public void setParameterShape(String parameterShape) {
+        this.parameterShape = parameterShape;
+    }
+
+    public double getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(double durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
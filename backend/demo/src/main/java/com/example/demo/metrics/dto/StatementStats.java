@@ -0,0 +1,144 @@
+package com.example.demo.metrics.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单条 Mapper 语句的执行统计DTO
+ */
+public class StatementStats {
+    // 如 UserMapper.findByUsername
+    private String statement;
+    private String type;
+    private long count;
+    private long errors;
+    private double totalMs;
+    private double avgMs;
+    // 由固定桶直方图估计，偏大不超过 25%
+    private double p99Ms;
+    private double maxMs;
+    // 返回或影响的总行数
+    private long rows;
+    private double avgRows;
+    // 超过阈值的次数
+    private long slowCount;
+    // 最近的慢查询样本，新的在前
+    private List<SlowQuerySampleInfo> slowSamples;
+    // 耗时最长一次样本的 EXPLAIN 结果（仅 SELECT，按需获取）
+    private List<Map<String, Object>> explain;
+    private String explainError;
+
+    public StatementStats() {}
+
+    public String getStatement() {
+        return statement;
+    }
+
+    public void setStatement(String statement) {
+        this.statement = statement;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public void setErrors(long errors) {
+        this.errors = errors;
+    }
+
+    public double getTotalMs() {
+        return totalMs;
+    }
+
+    public void setTotalMs(double totalMs) {
+        this.totalMs = totalMs;
+    }
+
+    public double getAvgMs() {
+        return avgMs;
+    }
+
+    public void setAvgMs(double avgMs) {
+        this.avgMs = avgMs;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+
+    public void setP99Ms(double p99Ms) {
+        this.p99Ms = p99Ms;
+    }
+
+    public double getMaxMs() {
+        return maxMs;
+    }
+
+    public void setMaxMs(double maxMs) {
+        this.maxMs = maxMs;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public double getAvgRows() {
+        return avgRows;
+    }
+
+    public void setAvgRows(double avgRows) {
+        this.avgRows = avgRows;
+    }
+
+    public long getSlowCount() {
+        return slowCount;
+    }
+
+    public void setSlowCount(long slowCount) {
+        this.slowCount = slowCount;
+    }
+
+    public List<SlowQuerySampleInfo> getSlowSamples() {
+        return slowSamples;
+    }
+
+    public void setSlowSamples(List<SlowQuerySampleInfo> slowSamples) {
+        this.slowSamples = slowSamples;
+    }
+
+    public List<Map<String, Object>> getExplain() {
+        return explain;
+    }
+
+    public void setExplain(List<Map<String, Object>> explain) {
+        this.explain = explain;
+    }
+
+    public String getExplainError() {
+        return explainError;
+    }
+
+    public void setExplainError(String explainError) {
+        this.explainError = explainError;
+    }
+}
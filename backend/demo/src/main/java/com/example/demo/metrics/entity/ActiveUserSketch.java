@@ -0,0 +1,36 @@
+package com.example.demo.metrics.entity;
+
+import java.time.LocalDate;
+
+/**
+ * 每日活跃用户 HyperLogLog 寄存器实体类
+ */
+public class ActiveUserSketch {
+    private LocalDate day;
+    private byte[] registers;
+
+    // 构造函数
+    public ActiveUserSketch() {}
+
+    public ActiveUserSketch(LocalDate day, byte[] registers) {
+        this.day = day;
+        this.registers = registers;
+    }
+
+    // Getter和Setter方法
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    public void setRegisters(byte[] registers) {
+        this.registers = registers;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.metrics.entity;
+
+/**
+ * 活动计数汇总实体类（每个类型、粒度、时间桶一行）
+ */
+public class ActivityMetric {
+    private String activity;
+    private String granularity;
+    // 桶起点（毫秒时间戳）
+    private Long bucketStart;
+    private Long eventCount;
+
+    // 构造函数
+    public ActivityMetric() {}
+
+    public ActivityMetric(String activity, String granularity, Long bucketStart, Long eventCount) {
+        this.activity = activity;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.eventCount = eventCount;
+    }
+
+    // Getter和Setter方法
+    public String getActivity() {
+        return activity;
+    }
+
+    public void setActivity(String activity) {
+        this.activity = activity;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public Long getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Long bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(Long eventCount) {
+        this.eventCount = eventCount;
+    }
+}
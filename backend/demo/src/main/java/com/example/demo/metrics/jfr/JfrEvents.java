@@ -0,0 +1,21 @@
+package com.example.demo.metrics.jfr;
+
+import jdk.jfr.Event;
+
+import java.util.List;
+
+/**
+ * 本应用自定义的 JFR 事件
+ * 没有进行中的录制时，事件的 begin/commit 只是一次开关判断，可以留在热路径上。
+ */
+public final class JfrEvents {
+
+    public static final String PREFIX = "com.example.demo.";
+
+    public static final List<Class<? extends Event>> ALL = List.of(
+        JwtVerifyEvent.class, PrincipalLoadEvent.class, PasswordHashEvent.class,
+        SqlStatementEvent.class, LlmCallEvent.class, SseChunkEvent.class);
+
+    private JfrEvents() {
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.metrics.jfr;
+
+import com.example.demo.common.BusinessException;
+import com.example.demo.common.ErrorCode;
+import com.example.demo.metrics.dto.JfrRecordingInfo;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * 按需启动的持续 JFR 录制
+ * 录制按时间和大小滚动（只保留最近 maxAge / maxSize 的数据），同一时刻只有一个录制。
+ * 停止后数据保留到下一次启动，可以随时下载；录制进行中下载得到的是当前数据的快照。
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordingService.class);
+
+    private static final String RECORDING_NAME = "demo-on-demand";
+
+    @Value("${jfr.max-age-minutes:30}")
+    private long defaultMaxAgeMinutes;
+
+    @Value("${jfr.max-size-mb:100}")
+    private long defaultMaxSizeMb;
+
+    @Value("${jfr.max-allowed-size-mb:1024}")
+    private long maxAllowedSizeMb;
+
+    private Recording recording;
+    private String settings;
+    private long sqlThresholdMs;
+
+    /**
+     * 启动录制；settings 为 JDK 自带的 default（开销约 1%）或 profile（更详细，开销约 2%）
+     */
+    public synchronized JfrRecordingInfo start(String settings, Long maxAgeMinutes, Long maxSizeMb, long sqlThresholdMs) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR, "当前 JVM 不支持 JFR");
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "已有录制在进行中，请先停止");
+        }
+        String configName = settings == null || settings.isBlank() ? "default" : settings;
+        if (!"default".equals(configName) && !"profile".equals(configName)) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "settings 只能是 default 或 profile");
+        }
+        long maxAge = maxAgeMinutes != null ? maxAgeMinutes : defaultMaxAgeMinutes;
+        long maxSize = maxSizeMb != null ? maxSizeMb : defaultMaxSizeMb;
+        if (maxAge <= 0 || maxAge > 24 * 60 || maxSize <= 0 || maxSize > maxAllowedSizeMb) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER,
+                "maxAgeMinutes 取值 1-1440，maxSizeMb 取值 1-" + maxAllowedSizeMb);
+        }
+
+        Recording next;
+        try {
+            next = new Recording(Configuration.getConfiguration(configName));
+        } catch (IOException | ParseException e) {
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR, "读取 JFR 配置失败: " + e.getMessage());
+        }
+        next.setName(RECORDING_NAME);
+        next.setToDisk(true);
+        next.setMaxAge(Duration.ofMinutes(maxAge));
+        next.setMaxSize(maxSize * 1024 * 1024);
+        for (Class<? extends Event> eventClass : JfrEvents.ALL) {
+            next.enable(eventClass).withThreshold(Duration.ZERO);
+        }
+        // SQL 语句数量大，可以只记录超过阈值的
+        next.enable(SqlStatementEvent.class).withThreshold(Duration.ofMillis(Math.max(0, sqlThresholdMs)));
+        next.start();
+
+        if (recording != null) {
+            recording.close();
+        }
+        recording = next;
+        this.settings = configName;
+        this.sqlThresholdMs = Math.max(0, sqlThresholdMs);
+        logger.info("JFR 录制已启动: 配置={}, 最长保留={}分钟, 最大={}MB, SQL 阈值={}ms",
+            configName, maxAge, maxSize, this.sqlThresholdMs);
+        return getInfo();
+    }
+
+    /**
+     * 停止录制，数据保留供下载
+     */
+    public synchronized JfrRecordingInfo stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "没有进行中的录制");
+        }
+        recording.stop();
+        logger.info("JFR 录制已停止: 大小={}字节", recording.getSize());
+        return getInfo();
+    }
+
+    /**
+     * 把录制数据写出到输出流（通过临时文件中转）
+     */
+    public void dump(OutputStream out) throws IOException {
+        Path file = Files.createTempFile("demo-", ".jfr");
+        try {
+            synchronized (this) {
+                if (recording == null || recording.getState() == RecordingState.NEW
+                        || recording.getState() == RecordingState.CLOSED) {
+                    throw new BusinessException(ErrorCode.INVALID_PARAMETER, "没有可下载的录制");
+                }
+                recording.dump(file);
+            }
+            Files.copy(file, out);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public synchronized boolean hasData() {
+        return recording != null && (recording.getState() == RecordingState.RUNNING
+            || recording.getState() == RecordingState.STOPPED);
+    }
+
+    public synchronized JfrRecordingInfo getInfo() {
+        JfrRecordingInfo info = new JfrRecordingInfo();
+        info.setAvailable(FlightRecorder.isAvailable());
+        info.setEvents(JfrEvents.ALL.stream().map(c -> EventType.getEventType(c).getName()).toList());
+        if (recording == null) {
+            info.setState(RecordingState.NEW.name());
+            return info;
+        }
+        info.setState(recording.getState().name());
+        info.setSettings(settings);
+        info.setSqlThresholdMs(sqlThresholdMs);
+        info.setStartTime(recording.getStartTime() != null ? recording.getStartTime().toEpochMilli() : null);
+        info.setStopTime(recording.getStopTime() != null ? recording.getStopTime().toEpochMilli() : null);
+        info.setMaxAgeMinutes(recording.getMaxAge() != null ? recording.getMaxAge().toMinutes() : null);
+        info.setMaxSizeBytes(recording.getMaxSize());
+        info.setSizeBytes(recording.getSize());
+        return info;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
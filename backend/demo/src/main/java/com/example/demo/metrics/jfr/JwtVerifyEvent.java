@@ -0,0 +1,22 @@
+package com.example.demo.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：JWT 校验与解析
+ */
+@Name(JfrEvents.PREFIX + "JwtVerify")
+@Label("JWT Verify")
+@Category({"Demo", "Security"})
+@StackTrace(false)
+public class JwtVerifyEvent extends Event {
+
+    @Label("Valid")
+    @Description("令牌是否有效")
+    public boolean valid;
+}
@@ -0,0 +1,36 @@
+package com.example.demo.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：一次上游 LLM 调用；流式调用覆盖整个响应流
+ */
+@Name(JfrEvents.PREFIX + "LlmCall")
+@Label("LLM Call")
+@Category({"Demo", "LLM"})
+@StackTrace(false)
+public class LlmCallEvent extends Event {
+
+    @Label("Model")
+    public String model;
+
+    @Label("Stream")
+    public boolean stream;
+
+    @Label("Status Code")
+    @Description("上游响应码，连接失败时为 -1")
+    public int statusCode;
+
+    @Label("Chunks")
+    @Description("流式调用转发的事件数")
+    public int chunks;
+
+    @Label("Cancelled")
+    @Description("客户端断开或超时后中止了上游请求")
+    public boolean cancelled;
+}
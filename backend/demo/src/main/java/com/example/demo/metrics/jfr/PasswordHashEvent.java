@@ -0,0 +1,25 @@
+package com.example.demo.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：密码哈希计算（encode）或校验（matches）
+ */
+@Name(JfrEvents.PREFIX + "PasswordHash")
+@Label("Password Hash")
+@Category({"Demo", "Security"})
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Matched")
+    @Description("校验结果，仅 matches 有意义")
+    public boolean matched;
+}
@@ -0,0 +1,25 @@
+package com.example.demo.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：根据令牌加载用户及角色
+ */
+@Name(JfrEvents.PREFIX + "PrincipalLoad")
+@Label("Principal Load")
+@Category({"Demo", "Security"})
+@StackTrace(false)
+public class PrincipalLoadEvent extends Event {
+
+    @Label("User Id")
+    @Description("用户ID，用户不存在或已禁用时为 0")
+    public long userId;
+
+    @Label("Role Count")
+    public int roleCount;
+}
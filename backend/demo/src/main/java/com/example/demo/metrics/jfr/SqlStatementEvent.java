@@ -0,0 +1,28 @@
+package com.example.demo.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：一次 MyBatis 语句执行
+ */
+@Name(JfrEvents.PREFIX + "SqlStatement")
+@Label("SQL Statement")
+@Category({"Demo", "Database"})
+@StackTrace(false)
+public class SqlStatementEvent extends Event {
+
+    @Label("Statement")
+    @Description("如 UserMapper.findByUsername")
+    public String statement;
+
+    @Label("Command Type")
+    public String commandType;
+
+    @Label("Success")
+    public boolean success;
+}
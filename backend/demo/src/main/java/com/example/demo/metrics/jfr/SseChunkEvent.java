@@ -0,0 +1,22 @@
+package com.example.demo.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：向客户端转发一个 SSE 事件
+ */
+@Name(JfrEvents.PREFIX + "SseChunk")
+@Label("SSE Chunk Relay")
+@Category({"Demo", "LLM"})
+@StackTrace(false)
+public class SseChunkEvent extends Event {
+
+    @Label("Bytes")
+    @Description("事件数据长度（字符数）")
+    public int bytes;
+}
@@ -0,0 +1,44 @@
+package com.example.demo.metrics.mapper;
+
+import com.example.demo.metrics.entity.ActiveUserSketch;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日活跃用户 HyperLogLog 数据访问接口
+ */
+@Mapper
+public interface ActiveUserSketchMapper {
+
+    /**
+     * 查询并锁定某天的寄存器（在事务内调用）
+     */
+    @Select("SELECT day, registers FROM active_user_sketches WHERE day = #{day} FOR UPDATE")
+    ActiveUserSketch findByDayForUpdate(@Param("day") LocalDate day);
+
+    /**
+     * 查询日期范围 [from, to] 内的寄存器
+     */
+    @Select("SELECT day, registers FROM active_user_sketches WHERE day >= #{from} AND day <= #{to}")
+    List<ActiveUserSketch> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 某天还没有记录时写入；已存在时返回 0，由调用方加锁合并
+     */
+    @Insert("INSERT IGNORE INTO active_user_sketches (day, registers, updated_at) VALUES (#{day}, #{registers}, NOW())")
+    int insertIfAbsent(ActiveUserSketch sketch);
+
+    /**
+     * 覆盖某天的寄存器（调用方已在同一事务内锁定并合并）
+     */
+    @Update("UPDATE active_user_sketches SET registers = #{registers}, updated_at = NOW() WHERE day = #{day}")
+    int update(ActiveUserSketch sketch);
+
+    /**
+     * 删除过期数据
+     */
+    @Delete("DELETE FROM active_user_sketches WHERE day < #{before}")
+    int deleteBefore(@Param("before") LocalDate before);
+}
@@ -0,0 +1,40 @@
+package com.example.demo.metrics.mapper;
+
+import com.example.demo.metrics.entity.ActivityMetric;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 活动计数汇总数据访问接口
+ */
+@Mapper
+public interface ActivityMetricMapper {
+
+    /**
+     * 批量累加计数（多实例各自写入增量，同一桶合并为一行）
+     */
+    @Insert("<script>" +
+            "INSERT INTO activity_metrics (activity, granularity, bucket_start, event_count) VALUES " +
+            "<foreach collection='rows' item='item' separator=','>" +
+            "(#{item.activity}, #{item.granularity}, #{item.bucketStart}, #{item.eventCount})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count)" +
+            "</script>")
+    int batchUpsert(@Param("rows") List<ActivityMetric> rows);
+
+    /**
+     * 按主键范围读取时间桶 [from, to)
+     */
+    @Select("SELECT activity, granularity, bucket_start, event_count FROM activity_metrics " +
+            "WHERE activity = #{activity} AND granularity = #{granularity} " +
+            "AND bucket_start >= #{from} AND bucket_start < #{to} ORDER BY bucket_start")
+    List<ActivityMetric> findRange(@Param("activity") String activity, @Param("granularity") String granularity,
+                                   @Param("from") long from, @Param("to") long to);
+
+    /**
+     * 删除过期的时间桶（分批）
+     */
+    @Delete("DELETE FROM activity_metrics WHERE granularity = #{granularity} AND bucket_start < #{before} LIMIT #{limit}")
+    int deleteBefore(@Param("granularity") String granularity, @Param("before") long before, @Param("limit") int limit);
+}
@@ -2,10 +2,17 @@ package com.example.demo.permission;
 
 import com.example.demo.common.ApiResponse;
 import com.example.demo.permission.dto.CreatePermissionRequest;
+import com.example.demo.permission.dto.PermissionUsersResponse;
 import com.example.demo.permission.dto.UpdatePermissionRequest;
 import com.example.demo.permission.entity.Permission;
 import com.example.demo.permission.service.PermissionService;
+import com.example.demo.rbac.catalog.PermissionCatalog;
+import com.example.demo.rbac.index.PermissionUserIndexService;
+import com.example.rbac.index.PermissionUserIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,27 +27,38 @@ public class PermissionController {
     @Autowired
     private PermissionService permissionService;
 
+    @Autowired
+    private PermissionUserIndexService permissionUserIndexService;
+
     /**
      * 获取权限列表
+     * 响应携带目录 ETag，客户端带 If-None-Match 且未变化时直接返回 304
      */
     @GetMapping
-    public ApiResponse<List<Permission>> getPermissions(@RequestParam(required = false) String module) {
+    public ResponseEntity<ApiResponse<List<Permission>>> getPermissions(@RequestParam(required = false) String module) {
+        PermissionCatalog catalog = permissionService.getPermissionCatalog();
         List<Permission> permissions;
         if (module != null && !module.trim().isEmpty()) {
-            permissions = permissionService.getPermissionsByModule(module);
+            permissions = catalog.getPermissionsByModule(module);
         } else {
-            permissions = permissionService.getAllPermissions();
+            permissions = catalog.getPermissions();
         }
-        return ApiResponse.ok(permissions);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.getEtag())
+                .body(ApiResponse.ok(permissions));
     }
 
     /**
      * 获取权限模块列表
      */
     @GetMapping("/modules")
-    public ApiResponse<List<String>> getPermissionModules() {
-        List<String> modules = permissionService.getAllModules();
-        return ApiResponse.ok(modules);
+    public ResponseEntity<ApiResponse<List<String>>> getPermissionModules() {
+        PermissionCatalog catalog = permissionService.getPermissionCatalog();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.getEtag())
+                .body(ApiResponse.ok(catalog.getModules()));
     }
 
     /**
@@ -52,6 +70,20 @@ public class PermissionController {
         return ApiResponse.ok(permission);
     }
 
+    /**
+     * 查询拥有该权限的用户（基于倒排索引，只含无条件授权，按用户ID键集分页）
+     */
+    @GetMapping("/{id}/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<PermissionUsersResponse> getPermissionUsers(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "0") long after,
+                                                                   @RequestParam(defaultValue = "100") int limit) {
+        permissionService.getPermissionById(id);
+        int pageSize = Math.max(1, Math.min(limit, 1000));
+        PermissionUserIndex.Page page = permissionUserIndexService.findUsers(id, after, pageSize);
+        return ApiResponse.ok(new PermissionUsersResponse(id, page.getTotal(), page.getUserIds(), page.getNextCursor()));
+    }
+
     /**
      * 创建权限
      */
@@ -0,0 +1,56 @@
+package com.example.demo.permission.dto;
+
+import java.util.List;
+
+/**
+ * 拥有指定权限的用户分页响应DTO
+ */
+public class PermissionUsersResponse {
+    private Long permissionId;
+    // 拥有该权限的用户总数
+    private Long total;
+    private List<Long> userIds;
+    // 下一页游标（本页最后一个用户ID），没有更多数据时为 null
+    private Long nextCursor;
+
+    public PermissionUsersResponse() {}
+
+    public PermissionUsersResponse(Long permissionId, Long total, List<Long> userIds, Long nextCursor) {
+        this.permissionId = permissionId;
+        this.total = total;
+        this.userIds = userIds;
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getPermissionId() {
+        return permissionId;
+    }
+
+    public void setPermissionId(Long permissionId) {
+        this.permissionId = permissionId;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.permission.event;
+
+/**
+ * 权限删除事件
+ */
+public class PermissionDeletedEvent {
+    private final Long permissionId;
+
+    public PermissionDeletedEvent(Long permissionId) {
+        this.permissionId = permissionId;
+    }
+
+    public Long getPermissionId() {
+        return permissionId;
+    }
+}
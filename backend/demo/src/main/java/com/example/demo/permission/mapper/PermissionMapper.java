@@ -3,6 +3,7 @@ package com.example.demo.permission.mapper;
 import com.example.demo.permission.entity.Permission;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +24,15 @@ public interface PermissionMapper {
     @Select("SELECT * FROM permissions WHERE id = #{id}")
     Permission findById(Long id);
 
+    /**
+     * 批量查询存在的权限ID（用于一次性校验权限是否存在）
+     */
+    @Select("<script>" +
+            "SELECT id FROM permissions WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     /**
      * 根据代码获取权限
      */
@@ -96,11 +106,11 @@ public interface PermissionMapper {
     Long countByIsSystem(@Param("isSystem") Boolean isSystem);
     
     /**
-     * 根据用户ID查找权限代码列表
+     * 根据用户ID查找权限代码列表（仅无条件授权）
      */
     @Select("SELECT DISTINCT p.code FROM permissions p " +
             "INNER JOIN role_permissions rp ON p.id = rp.permission_id " +
             "INNER JOIN user_roles ur ON rp.role_id = ur.role_id " +
-            "WHERE ur.user_id = #{userId}")
+            "WHERE ur.user_id = #{userId} AND rp.condition_expr IS NULL")
     List<String> findPermissionCodesByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -1,14 +1,25 @@
 package com.example.demo.permission.service;
 
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
 import com.example.demo.common.BusinessException;
 import com.example.demo.common.ErrorCode;
 import com.example.demo.permission.entity.Permission;
+import com.example.demo.permission.event.PermissionDeletedEvent;
 import com.example.demo.permission.mapper.PermissionMapper;
+import com.example.demo.rbac.catalog.PermissionCatalog;
+import com.example.demo.rbac.catalog.RbacCatalogCache;
+import com.example.demo.system.stats.SystemStatsCounters;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 权限服务类
@@ -16,14 +27,36 @@ import java.util.List;
 @Service
 public class PermissionService {
 
+    // 单条 IN 查询的最大参数数量
+    private static final int IN_BATCH_SIZE = 500;
+
     @Autowired
     private PermissionMapper permissionMapper;
 
+    @Autowired
+    private RbacCatalogCache catalogCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private SystemStatsCounters systemStatsCounters;
+
+    /**
+     * 获取权限目录快照（带 ETag）
+     */
+    public PermissionCatalog getPermissionCatalog() {
+        return catalogCache.getPermissionCatalog();
+    }
+
     /**
      * 获取所有权限
      */
     public List<Permission> getAllPermissions() {
-        return permissionMapper.findAll();
+        return catalogCache.getPermissionCatalog().getPermissions();
     }
 
     /**
@@ -37,18 +70,42 @@ public class PermissionService {
         return permission;
     }
 
+    /**
+     * 批量校验权限是否存在（按批次使用 IN 查询，避免逐个查询）
+     */
+    public void validatePermissionsExist(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        Set<Long> existingIds = new HashSet<>();
+        for (int from = 0; from < idList.size(); from += IN_BATCH_SIZE) {
+            List<Long> chunk = idList.subList(from, Math.min(from + IN_BATCH_SIZE, idList.size()));
+            existingIds.addAll(permissionMapper.findExistingIds(chunk));
+        }
+        if (existingIds.size() < ids.size()) {
+            List<Long> missingIds = new ArrayList<>();
+            for (Long id : ids) {
+                if (!existingIds.contains(id)) {
+                    missingIds.add(id);
+                }
+            }
+            throw new BusinessException(40004, "权限不存在: " + missingIds);
+        }
+    }
+
     /**
      * 根据模块获取权限
      */
     public List<Permission> getPermissionsByModule(String module) {
-        return permissionMapper.findByModule(module);
+        return catalogCache.getPermissionCatalog().getPermissionsByModule(module);
     }
 
     /**
      * 获取所有模块
      */
     public List<String> getAllModules() {
-        return permissionMapper.findAllModules();
+        return catalogCache.getPermissionCatalog().getModules();
     }
 
     /**
@@ -73,6 +130,9 @@ public class PermissionService {
         }
 
         permissionMapper.insert(permission);
+        systemStatsCounters.permissionCreated(permission.getIsSystem());
+        catalogCache.invalidatePermissions();
+        invalidationBus.publish(CacheNames.PERMISSIONS, permission.getId());
         return permission;
     }
 
@@ -100,6 +160,8 @@ public class PermissionService {
         permission.setIsSystem(existingPermission.getIsSystem());
 
         permissionMapper.update(permission);
+        catalogCache.invalidatePermissions();
+        invalidationBus.publish(CacheNames.PERMISSIONS, id);
         return permission;
     }
 
@@ -115,6 +177,10 @@ public class PermissionService {
         }
 
         permissionMapper.deleteById(id);
+        systemStatsCounters.permissionDeleted(permission.getIsSystem());
+        catalogCache.invalidatePermissions();
+        eventPublisher.publishEvent(new PermissionDeletedEvent(id));
+        invalidationBus.publish(CacheNames.PERMISSIONS, id);
     }
 
     /**
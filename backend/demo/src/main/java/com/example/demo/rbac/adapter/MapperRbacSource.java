@@ -0,0 +1,109 @@
+package com.example.demo.rbac.adapter;
+
+import com.example.demo.cache.ChangeLogCursor;
+import com.example.demo.cache.entity.CacheChangeLog;
+import com.example.demo.cache.mapper.CacheChangeLogMapper;
+import com.example.demo.permission.entity.Permission;
+import com.example.demo.permission.mapper.PermissionMapper;
+import com.example.demo.role.entity.Role;
+import com.example.demo.role.entity.RolePermission;
+import com.example.demo.role.entity.UserRole;
+import com.example.demo.role.mapper.RoleMapper;
+import com.example.demo.role.mapper.RolePermissionMapper;
+import com.example.demo.role.mapper.UserRoleMapper;
+import com.example.rbac.RbacSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 MyBatis Mapper 的 RBAC 数据来源，供 rbac-core 使用
+ * 版本号取变更日志游标的 position()：不大于它的变更都已提交或已放弃，
+ * 仍未提交的事务（自增ID空洞）在版本之后，加载快照后从版本开始回放时能读到
+ */
+@Component
+public class MapperRbacSource implements RbacSource {
+
+    // 单条 IN 查询的最大参数数量
+    private static final int IN_BATCH_SIZE = 500;
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private RolePermissionMapper rolePermissionMapper;
+
+    @Autowired
+    private UserRoleMapper userRoleMapper;
+
+    @Autowired
+    private CacheChangeLogMapper changeLogMapper;
+
+    @Value("${cache.invalidation.gap-timeout-ms:60000}")
+    private long gapTimeoutMs;
+
+    /**
+     * 从最近一个 gap-timeout 窗口读到末尾，取游标位置
+     */
+    @Override
+    public long currentVersion() {
+        ChangeLogCursor cursor = ChangeLogCursor.startingNow(changeLogMapper, gapTimeoutMs);
+        List<CacheChangeLog> rows;
+        do {
+            rows = cursor.next(IN_BATCH_SIZE);
+        } while (!rows.isEmpty());
+        return cursor.position();
+    }
+
+    @Override
+    public void forEachPermission(CodeConsumer consumer) {
+        for (Permission permission : permissionMapper.findAll()) {
+            consumer.accept(permission.getId(), permission.getCode());
+        }
+    }
+
+    @Override
+    public void forEachRole(CodeConsumer consumer) {
+        for (Role role : roleMapper.findAll()) {
+            consumer.accept(role.getId(), role.getCode());
+        }
+    }
+
+    @Override
+    public void forEachGrant(GrantConsumer consumer) {
+        for (RolePermission grant : rolePermissionMapper.findAllActive()) {
+            consumer.accept(grant.getRoleId(), grant.getPermissionId(), grant.getConditionExpr());
+        }
+    }
+
+    @Override
+    public void forEachMember(LinkConsumer consumer) {
+        userRoleMapper.scanAllActiveOrderByUserId(context -> {
+            UserRole member = context.getResultObject();
+            consumer.accept(member.getUserId(), member.getRoleId());
+        });
+    }
+
+    @Override
+    public Map<Long, long[]> findRoleIds(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        Map<Long, List<Long>> rolesByUser = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_BATCH_SIZE) {
+            for (UserRole userRole : userRoleMapper.findByUserIds(ids.subList(from, Math.min(from + IN_BATCH_SIZE, ids.size())))) {
+                rolesByUser.computeIfAbsent(userRole.getUserId(), k -> new ArrayList<>()).add(userRole.getRoleId());
+            }
+        }
+        Map<Long, long[]> result = new HashMap<>();
+        rolesByUser.forEach((userId, roleIds) -> result.put(userId, roleIds.stream().mapToLong(Long::longValue).toArray()));
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.rbac.catalog;
+
+import com.example.demo.permission.entity.Permission;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 权限目录快照（不可变）
+ * 列表、模块列表和按模块分组的结果在构建时一次算好，ETag 由内容摘要生成
+ */
+public class PermissionCatalog {
+    private final long version;
+    private final String etag;
+    private final List<Permission> permissions;
+    private final List<String> modules;
+    private final Map<String, List<Permission>> permissionsByModule;
+
+    public PermissionCatalog(long version, String etag, List<Permission> permissions) {
+        this.version = version;
+        this.etag = etag;
+        this.permissions = Collections.unmodifiableList(new ArrayList<>(permissions));
+
+        // permissions 已按 module, name 排序，分组后每个模块内仍按 name 有序
+        Map<String, List<Permission>> byModule = new LinkedHashMap<>();
+        TreeSet<String> moduleSet = new TreeSet<>();
+        for (Permission permission : permissions) {
+            if (permission.getModule() != null) {
+                moduleSet.add(permission.getModule());
+                byModule.computeIfAbsent(permission.getModule(), k -> new ArrayList<>()).add(permission);
+            }
+        }
+        byModule.replaceAll((module, list) -> Collections.unmodifiableList(list));
+        this.modules = List.copyOf(moduleSet);
+        this.permissionsByModule = Collections.unmodifiableMap(byModule);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public List<Permission> getPermissions() {
+        return permissions;
+    }
+
+    public List<String> getModules() {
+        return modules;
+    }
+
+    public List<Permission> getPermissionsByModule(String module) {
+        return permissionsByModule.getOrDefault(module, List.of());
+    }
+}
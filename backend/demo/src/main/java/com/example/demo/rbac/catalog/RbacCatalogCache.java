@@ -0,0 +1,127 @@
+package com.example.demo.rbac.catalog;
+
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.permission.entity.Permission;
+import com.example.demo.permission.mapper.PermissionMapper;
+import com.example.demo.role.entity.Role;
+import com.example.demo.role.mapper.RoleMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+
+/**
+ * 权限/角色目录的内存缓存
+ * 目录数据很少变化，首次读取时加载为不可变快照，由对应的增删改方法失效。
+ * 使用代数（generation）防止“加载旧数据时恰好发生失效”导致旧快照被重新装入。
+ * 其他实例上的修改通过 InvalidationBus 传递过来，同样使目录失效。
+ */
+@Component
+public class RbacCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacCatalogCache.class);
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    private long permissionGeneration = 0;
+    private long roleGeneration = 0;
+    private volatile PermissionCatalog permissionCatalog;
+    private volatile RoleCatalog roleCatalog;
+
+    @PostConstruct
+    public void registerInvalidationListeners() {
+        invalidationBus.register(CacheNames.PERMISSIONS, events -> invalidatePermissions());
+        invalidationBus.register(CacheNames.ROLES, events -> invalidateRoles());
+    }
+
+    /**
+     * 获取权限目录快照
+     */
+    public PermissionCatalog getPermissionCatalog() {
+        PermissionCatalog catalog = permissionCatalog;
+        if (catalog != null) {
+            return catalog;
+        }
+        long generation;
+        synchronized (this) {
+            generation = permissionGeneration;
+        }
+        List<Permission> permissions = permissionMapper.findAll();
+        catalog = new PermissionCatalog(generation, computeEtag("permissions", permissions), permissions);
+        synchronized (this) {
+            if (generation == permissionGeneration) {
+                permissionCatalog = catalog;
+                logger.debug("权限目录已加载: 版本={}, 权限数={}", generation, permissions.size());
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * 获取角色目录快照
+     */
+    public RoleCatalog getRoleCatalog() {
+        RoleCatalog catalog = roleCatalog;
+        if (catalog != null) {
+            return catalog;
+        }
+        long generation;
+        synchronized (this) {
+            generation = roleGeneration;
+        }
+        List<Role> roles = roleMapper.findAll();
+        catalog = new RoleCatalog(generation, computeEtag("roles", roles), roles);
+        synchronized (this) {
+            if (generation == roleGeneration) {
+                roleCatalog = catalog;
+                logger.debug("角色目录已加载: 版本={}, 角色数={}", generation, roles.size());
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * 失效权限目录
+     */
+    public synchronized void invalidatePermissions() {
+        permissionGeneration++;
+        permissionCatalog = null;
+    }
+
+    /**
+     * 失效角色目录
+     */
+    public synchronized void invalidateRoles() {
+        roleGeneration++;
+        roleCatalog = null;
+    }
+
+    /**
+     * 根据内容摘要生成强 ETag，保证多实例和重启后同样的内容得到同样的 ETag
+     */
+    private String computeEtag(String name, Object content) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(content);
+            return "\"" + name + "-" + DigestUtils.md5DigestAsHex(json) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("生成目录ETag失败", e);
+        }
+    }
+}
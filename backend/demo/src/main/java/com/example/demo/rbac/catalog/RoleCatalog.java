@@ -0,0 +1,34 @@
+package com.example.demo.rbac.catalog;
+
+import com.example.demo.role.entity.Role;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 角色目录快照（不可变）
+ */
+public class RoleCatalog {
+    private final long version;
+    private final String etag;
+    private final List<Role> roles;
+
+    public RoleCatalog(long version, String etag, List<Role> roles) {
+        this.version = version;
+        this.etag = etag;
+        this.roles = Collections.unmodifiableList(new ArrayList<>(roles));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public List<Role> getRoles() {
+        return roles;
+    }
+}
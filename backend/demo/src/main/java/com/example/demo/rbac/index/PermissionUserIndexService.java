@@ -0,0 +1,272 @@
+package com.example.demo.rbac.index;
+
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.cache.InvalidationEvent;
+import com.example.demo.permission.event.PermissionDeletedEvent;
+import com.example.demo.permission.mapper.PermissionMapper;
+import com.example.demo.role.entity.RolePermission;
+import com.example.demo.role.entity.UserRole;
+import com.example.demo.role.event.RoleDeletedEvent;
+import com.example.demo.role.event.RolePermissionsChangedEvent;
+import com.example.demo.role.event.UserRolesChangedEvent;
+import com.example.demo.role.mapper.RoleMapper;
+import com.example.demo.role.mapper.RolePermissionMapper;
+import com.example.demo.role.mapper.UserRoleMapper;
+import com.example.rbac.index.PermissionUserIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 权限用户倒排索引服务（只包含无条件授权，带条件的授权不计入）
+ * 首次查询时从数据库全量构建索引，之后由 RBAC 变更事件（事务提交后）增量维护；
+ * 其他实例上的变更通过 InvalidationBus 到达，按键从数据库重新读取受影响的部分。
+ * 本实例上不发布变更事件的批量写入（如归档任务的级联删除）同样通过本地失效事件重新读取。
+ */
+@Service
+public class PermissionUserIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionUserIndexService.class);
+
+    // 单条 IN 查询的最大参数数量
+    private static final int IN_BATCH_SIZE = 500;
+
+    private final PermissionUserIndex index = new PermissionUserIndex();
+    private volatile boolean loaded = false;
+
+    @Autowired
+    private RolePermissionMapper rolePermissionMapper;
+
+    @Autowired
+    private UserRoleMapper userRoleMapper;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @PostConstruct
+    public void registerInvalidationListeners() {
+        invalidationBus.register(CacheNames.USER_ROLES, this::onUserRolesInvalidated);
+        invalidationBus.register(CacheNames.ROLE_PERMISSIONS, this::onRolePermissionsInvalidated);
+        invalidationBus.register(CacheNames.ROLES, this::onRolesInvalidated);
+        invalidationBus.register(CacheNames.PERMISSIONS, this::onPermissionsInvalidated);
+        invalidationBus.registerLocal(CacheNames.USER_ROLES, this::onUserRolesInvalidated);
+        invalidationBus.registerLocal(CacheNames.ROLE_PERMISSIONS, this::onRolePermissionsInvalidated);
+        invalidationBus.registerLocal(CacheNames.ROLES, this::onRolesInvalidated);
+        invalidationBus.registerLocal(CacheNames.PERMISSIONS, this::onPermissionsInvalidated);
+    }
+
+    /**
+     * 分页查询拥有指定权限的用户
+     */
+    public PermissionUserIndex.Page findUsers(Long permissionId, long afterUserId, int limit) {
+        ensureLoaded();
+        return index.page(permissionId, afterUserId, limit);
+    }
+
+    /**
+     * 拥有指定权限的用户数
+     */
+    public long countUsers(Long permissionId) {
+        ensureLoaded();
+        return index.count(permissionId);
+    }
+
+    /**
+     * 丢弃当前索引，下一次查询时重新全量构建
+     */
+    public synchronized void reset() {
+        index.clear();
+        loaded = false;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserRolesChanged(UserRolesChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        for (UserRole userRole : event.getAssigned()) {
+            index.addMember(userRole.getRoleId(), userRole.getUserId());
+        }
+        for (UserRole userRole : event.getRevoked()) {
+            index.removeMember(userRole.getRoleId(), userRole.getUserId());
+        }
+        index.commit();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRolePermissionsChanged(RolePermissionsChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        for (Long permissionId : event.getAddedPermissionIds()) {
+            index.grant(event.getRoleId(), permissionId);
+        }
+        for (Long permissionId : event.getRemovedPermissionIds()) {
+            index.revoke(event.getRoleId(), permissionId);
+        }
+        index.commit();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRoleDeleted(RoleDeletedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        index.removeRole(event.getRoleId());
+        index.commit();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPermissionDeleted(PermissionDeletedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        index.removePermission(event.getPermissionId());
+        index.commit();
+    }
+
+    /**
+     * 首次使用时全量构建索引
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            List<RolePermission> grants = rolePermissionMapper.findAllActive();
+            List<UserRole> members = userRoleMapper.findAllActive();
+            index.clear();
+            for (RolePermission grant : grants) {
+                // 条件授权要按请求属性求值，与 findPermissionCodesByUserId 一致不计入
+                if (grant.getConditionExpr() == null) {
+                    index.grant(grant.getRoleId(), grant.getPermissionId());
+                }
+            }
+            for (UserRole member : members) {
+                index.addMember(member.getRoleId(), member.getUserId());
+            }
+            index.commit();
+            loaded = true;
+            logger.info("权限用户倒排索引构建完成: 权限数={}, 位图大小={}字节, 耗时={}ms",
+                index.permissionCount(), index.sizeInBytes(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 用户角色已修改：分批重新读取这些用户的角色
+     */
+    private synchronized void onUserRolesInvalidated(List<InvalidationEvent> events) {
+        if (!loaded) {
+            return;
+        }
+        if (containsAll(events)) {
+            reset();
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(distinctKeys(events));
+        for (int from = 0; from < userIds.size(); from += IN_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + IN_BATCH_SIZE, userIds.size()));
+            Map<Long, Set<Long>> rolesByUser = new HashMap<>();
+            for (Long userId : batch) {
+                rolesByUser.put(userId, new HashSet<>());
+            }
+            for (UserRole userRole : userRoleMapper.findByUserIds(batch)) {
+                rolesByUser.get(userRole.getUserId()).add(userRole.getRoleId());
+            }
+            rolesByUser.forEach(index::replaceUserRoles);
+        }
+        index.commit();
+    }
+
+    /**
+     * 角色权限或授权条件已修改：重新读取这些角色的无条件授权
+     */
+    private synchronized void onRolePermissionsInvalidated(List<InvalidationEvent> events) {
+        if (!loaded) {
+            return;
+        }
+        if (containsAll(events)) {
+            reset();
+            return;
+        }
+        for (Long roleId : distinctKeys(events)) {
+            index.replacePermissions(roleId, rolePermissionMapper.findUnconditionalPermissionIdsByRoleId(roleId));
+        }
+        index.commit();
+    }
+
+    /**
+     * 角色已修改：已删除的角色从索引中移除
+     */
+    private synchronized void onRolesInvalidated(List<InvalidationEvent> events) {
+        if (!loaded) {
+            return;
+        }
+        if (containsAll(events)) {
+            reset();
+            return;
+        }
+        for (Long roleId : distinctKeys(events)) {
+            if (roleMapper.findById(roleId) == null) {
+                index.removeRole(roleId);
+            }
+        }
+        index.commit();
+    }
+
+    /**
+     * 权限已修改：已删除的权限从索引中移除
+     */
+    private synchronized void onPermissionsInvalidated(List<InvalidationEvent> events) {
+        if (!loaded) {
+            return;
+        }
+        if (containsAll(events)) {
+            reset();
+            return;
+        }
+        for (Long permissionId : distinctKeys(events)) {
+            if (permissionMapper.findById(permissionId) == null) {
+                index.removePermission(permissionId);
+            }
+        }
+        index.commit();
+    }
+
+    private static boolean containsAll(List<InvalidationEvent> events) {
+        return events.stream().anyMatch(InvalidationEvent::isAll);
+    }
+
+    private static Set<Long> distinctKeys(List<InvalidationEvent> events) {
+        Set<Long> keys = new LinkedHashSet<>();
+        for (InvalidationEvent event : events) {
+            Long key = event.keyAsLong();
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
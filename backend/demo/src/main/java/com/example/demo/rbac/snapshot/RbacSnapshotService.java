@@ -0,0 +1,308 @@
+package com.example.demo.rbac.snapshot;
+
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.ChangeLogCursor;
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.cache.InvalidationEvent;
+import com.example.demo.cache.entity.CacheChangeLog;
+import com.example.demo.cache.mapper.CacheChangeLogMapper;
+import com.example.demo.rbac.adapter.MapperRbacSource;
+import com.example.demo.system.dto.RbacSnapshotInfo;
+import com.example.rbac.AuthorizationEngine;
+import com.example.rbac.condition.Attributes;
+import com.example.rbac.condition.CompiledPolicy;
+import com.example.rbac.snapshot.RbacSnapshot;
+import com.example.rbac.snapshot.RbacSnapshotWriter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * RBAC 快照服务：rbac-core 授权引擎在本应用中的生命周期管理
+ *
+ * 启动后在后台线程内存映射快照文件（只解析角色/权限字典），再从快照版本开始追平 cache_change_log：
+ * 角色/权限类变更重新加载角色字典，用户角色变更按用户重新读取并保存在引擎的覆盖表中。
+ * 快照文件不存在或加载失败时不影响启动，权限检查回退到直接查询数据库。
+ * 快照定期重新生成，生成后覆盖表清空。
+ */
+@Service
+public class RbacSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacSnapshotService.class);
+
+    private static final Set<String> RBAC_CACHES = Set.of(
+        CacheNames.USER_ROLES, CacheNames.ROLES, CacheNames.PERMISSIONS, CacheNames.ROLE_PERMISSIONS);
+
+    @Autowired
+    private MapperRbacSource rbacSource;
+
+    @Autowired
+    private CacheChangeLogMapper changeLogMapper;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${rbac.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rbac.snapshot.path:data/rbac.snapshot}")
+    private String path;
+
+    @Value("${cache.invalidation.gap-timeout-ms:60000}")
+    private long gapTimeoutMs;
+
+    @Value("${cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // 加载完成前为 null，此时调用方应回退到数据库查询
+    private volatile AuthorizationEngine engine;
+    // 以下字段由 this 保护
+    private ChangeLogCursor cursor;
+    private String source;
+    private long loadMillis;
+
+    @PostConstruct
+    public void registerInvalidationListeners() {
+        for (String cache : RBAC_CACHES) {
+            invalidationBus.registerLocal(cache, this::onLocalChange);
+        }
+    }
+
+    /**
+     * 启动完成后在后台加载快照，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(this::load, "rbac-snapshot-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return engine != null;
+    }
+
+    public List<String> getRoleCodes(long userId) {
+        return requireEngine().getRoleCodes(userId);
+    }
+
+    public List<String> getPermissionCodes(long userId) {
+        return requireEngine().getPermissionCodes(userId);
+    }
+
+    public boolean hasRole(long userId, String roleCode) {
+        return requireEngine().hasRole(userId, roleCode);
+    }
+
+    public boolean hasPermission(long userId, String permissionCode) {
+        return requireEngine().hasPermission(userId, permissionCode);
+    }
+
+    /**
+     * 带属性的权限检查；属性只在需要对条件授权求值时才获取
+     */
+    public boolean hasPermission(long userId, String permissionCode, Supplier<Map<String, Object>> attributes) {
+        AuthorizationEngine current = requireEngine();
+        return current.hasPermission(userId, permissionCode, () -> {
+            Attributes resolved = current.newAttributes();
+            attributes.get().forEach(resolved::put);
+            return resolved;
+        });
+    }
+
+    /**
+     * 条件策略及其求值统计；快照未加载时为空
+     */
+    public List<CompiledPolicy> getPolicies() {
+        AuthorizationEngine current = engine;
+        return current != null ? current.getPolicies() : List.of();
+    }
+
+    /**
+     * 从数据库重新生成快照文件并切换到新快照
+     */
+    public RbacSnapshotInfo rebuild() throws IOException {
+        if (!rebuildLock.tryLock()) {
+            logger.info("RBAC 快照正在生成中，跳过本次请求");
+            return getInfo();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Path file = Path.of(path);
+            RbacSnapshotWriter.write(rbacSource, file);
+            install(AuthorizationEngine.open(file), "database", start);
+            return getInfo();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 定期重新生成快照，清空覆盖表
+     */
+    @Scheduled(fixedDelayString = "${rbac.snapshot.rebuild-interval-ms:3600000}",
+               initialDelayString = "${rbac.snapshot.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (!enabled || engine == null) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("定期生成 RBAC 快照失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 追平变更日志中其他实例（以及本实例）的变更
+     */
+    @Scheduled(fixedDelayString = "${rbac.snapshot.poll-interval-ms:500}")
+    public synchronized void poll() {
+        if (engine == null) {
+            return;
+        }
+        try {
+            catchUp(engine, cursor);
+        } catch (Exception e) {
+            logger.debug("追平 RBAC 变更日志失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取快照状态
+     */
+    public synchronized RbacSnapshotInfo getInfo() {
+        RbacSnapshotInfo info = new RbacSnapshotInfo();
+        info.setPath(path);
+        AuthorizationEngine current = engine;
+        info.setReady(current != null);
+        if (current != null) {
+            info.setSource(source);
+            info.setVersion(current.getSnapshot().getVersion());
+            info.setAppliedVersion(cursor.position());
+            info.setUserCount(current.getSnapshot().getUserCount());
+            info.setRoleCount(current.getRoleTable().size());
+            info.setPermissionCount(current.getSnapshot().getPermissionCount());
+            info.setSizeBytes(current.getSnapshot().sizeInBytes());
+            info.setOverlaySize(current.getOverlaySize());
+            info.setLoadMillis(loadMillis);
+        }
+        return info;
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        try {
+            Path file = Path.of(path);
+            if (Files.exists(file)) {
+                try {
+                    AuthorizationEngine opened = AuthorizationEngine.open(file);
+                    long minId = changeLogMapper.findMinId();
+                    if (minId == 0 || opened.getSnapshot().getVersion() + 1 >= minId) {
+                        install(opened, "file", start);
+                        return;
+                    }
+                    // 快照之后的部分变更日志已被清理，无法追平
+                    logger.warn("RBAC 快照文件过旧(版本={}, 最早保留的变更={})，从数据库重新生成",
+                        opened.getSnapshot().getVersion(), minId);
+                } catch (IllegalArgumentException e) {
+                    // 文件损坏或格式版本不兼容，重新生成
+                    logger.warn("RBAC 快照文件不可用，从数据库重新生成: {}", e.getMessage());
+                }
+            } else {
+                logger.info("RBAC 快照文件不存在，从数据库生成: {}", file.toAbsolutePath());
+            }
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("RBAC 快照加载失败，权限检查将直接查询数据库: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 追平变更日志后切换到新快照
+     */
+    private synchronized void install(AuthorizationEngine next, String source, long start) {
+        RbacSnapshot snapshot = next.getSnapshot();
+        ChangeLogCursor nextCursor = new ChangeLogCursor(changeLogMapper, snapshot.getVersion(), gapTimeoutMs);
+        catchUp(next, nextCursor);
+        this.engine = next;
+        this.cursor = nextCursor;
+        this.source = source;
+        this.loadMillis = System.currentTimeMillis() - start;
+        logger.info("RBAC 快照已加载: 来源={}, 版本={}, 追平至={}, 用户数={}, 大小={}字节, 耗时={}ms",
+            source, snapshot.getVersion(), nextCursor.position(), snapshot.getUserCount(),
+            snapshot.sizeInBytes(), loadMillis);
+    }
+
+    private synchronized void onLocalChange(List<InvalidationEvent> events) {
+        if (engine == null) {
+            return;
+        }
+        Map<String, Set<Long>> keysByCache = new HashMap<>();
+        for (InvalidationEvent event : events) {
+            Long key = event.keyAsLong();
+            if (key != null) {
+                keysByCache.computeIfAbsent(event.getCache(), k -> new LinkedHashSet<>()).add(key);
+            }
+        }
+        apply(engine, keysByCache);
+    }
+
+    private void catchUp(AuthorizationEngine target, ChangeLogCursor from) {
+        List<CacheChangeLog> rows;
+        while (!(rows = from.next(batchSize)).isEmpty()) {
+            Map<String, Set<Long>> keysByCache = new HashMap<>();
+            for (CacheChangeLog row : rows) {
+                if (!RBAC_CACHES.contains(row.getCacheName())) {
+                    continue;
+                }
+                keysByCache.computeIfAbsent(row.getCacheName(), k -> new LinkedHashSet<>()).add(Long.valueOf(row.getCacheKey()));
+            }
+            apply(target, keysByCache);
+        }
+    }
+
+    /**
+     * 应用一批变更：角色/权限类变更整体重载角色字典，用户角色变更按用户重新读取
+     */
+    private void apply(AuthorizationEngine target, Map<String, Set<Long>> keysByCache) {
+        if (keysByCache.containsKey(CacheNames.ROLES) || keysByCache.containsKey(CacheNames.PERMISSIONS)
+                || keysByCache.containsKey(CacheNames.ROLE_PERMISSIONS)) {
+            target.reloadRoles(rbacSource);
+        }
+        Set<Long> userIds = keysByCache.get(CacheNames.USER_ROLES);
+        if (userIds != null) {
+            target.refreshUsers(rbacSource, userIds);
+        }
+    }
+
+    private AuthorizationEngine requireEngine() {
+        AuthorizationEngine current = engine;
+        if (current == null) {
+            throw new IllegalStateException("RBAC 快照尚未加载");
+        }
+        return current;
+    }
+}
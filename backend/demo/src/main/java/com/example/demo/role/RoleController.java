@@ -2,9 +2,16 @@ package com.example.demo.role;
 
 import com.example.demo.common.ApiResponse;
 import com.example.demo.permission.entity.Permission;
+import com.example.demo.rbac.catalog.RoleCatalog;
+import com.example.demo.role.dto.PermissionAssignmentResult;
+import com.example.demo.role.dto.PermissionConditionRequest;
 import com.example.demo.role.entity.Role;
 import com.example.demo.role.service.RoleService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,11 +28,15 @@ public class RoleController {
 
     /**
      * 获取所有角色
+     * 响应携带目录 ETag，客户端带 If-None-Match 且未变化时直接返回 304
      */
     @GetMapping
-    public ApiResponse<List<Role>> getAllRoles() {
-        List<Role> roles = roleService.getAllRoles();
-        return ApiResponse.ok(roles);
+    public ResponseEntity<ApiResponse<List<Role>>> getAllRoles() {
+        RoleCatalog catalog = roleService.getRoleCatalog();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.getEtag())
+                .body(ApiResponse.ok(catalog.getRoles()));
     }
 
     /**
@@ -78,9 +89,9 @@ public class RoleController {
      * 为角色分配权限
      */
     @PostMapping("/{id}/permissions")
-    public ApiResponse<Void> assignPermissions(@PathVariable Long id, @RequestBody List<Long> permissionIds) {
-        roleService.assignPermissions(id, permissionIds);
-        return ApiResponse.ok();
+    public ApiResponse<PermissionAssignmentResult> assignPermissions(@PathVariable Long id, @RequestBody List<Long> permissionIds) {
+        PermissionAssignmentResult result = roleService.assignPermissions(id, permissionIds);
+        return ApiResponse.ok(result);
     }
 
     /**
@@ -92,6 +103,17 @@ public class RoleController {
         return ApiResponse.ok();
     }
 
+    /**
+     * 设置角色权限的授权条件
+     */
+    @PutMapping("/{roleId}/permissions/{permissionId}/condition")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Void> updatePermissionCondition(@PathVariable Long roleId, @PathVariable Long permissionId,
+                                                       @Valid @RequestBody PermissionConditionRequest request) {
+        roleService.updatePermissionCondition(roleId, permissionId, request.getCondition());
+        return ApiResponse.ok();
+    }
+
     /**
      * 从角色中移除权限
      */
@@ -0,0 +1,52 @@
+package com.example.demo.role;
+
+import com.example.demo.common.ApiResponse;
+import com.example.demo.role.dto.UserRoleBatchRequest;
+import com.example.demo.role.dto.UserRoleBatchResult;
+import com.example.demo.role.service.UserRoleService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 用户角色管理控制器
+ * 所有接口需要 ADMIN 角色才能访问
+ */
+@RestController
+@RequestMapping("/api/user-roles")
+@PreAuthorize("hasRole('ADMIN')")
+public class UserRoleController {
+
+    @Autowired
+    private UserRoleService userRoleService;
+
+    /**
+     * 获取用户的角色ID列表
+     */
+    @GetMapping("/users/{userId}")
+    public ApiResponse<List<Long>> getUserRoleIds(@PathVariable Long userId) {
+        List<Long> roleIds = userRoleService.getRoleIdsByUserId(userId);
+        return ApiResponse.ok(roleIds);
+    }
+
+    /**
+     * 批量为用户分配角色
+     */
+    @PostMapping("/assign")
+    public ApiResponse<UserRoleBatchResult> assignRoles(@Valid @RequestBody UserRoleBatchRequest request) {
+        UserRoleBatchResult result = userRoleService.assignRoles(request.getUserIds(), request.getRoleIds());
+        return ApiResponse.ok(result);
+    }
+
+    /**
+     * 批量移除用户角色
+     */
+    @PostMapping("/revoke")
+    public ApiResponse<UserRoleBatchResult> revokeRoles(@Valid @RequestBody UserRoleBatchRequest request) {
+        UserRoleBatchResult result = userRoleService.revokeRoles(request.getUserIds(), request.getRoleIds());
+        return ApiResponse.ok(result);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.role.dto;
+
+import java.util.List;
+
+/**
+ * 角色权限分配结果DTO
+ * 只包含本次实际新增和移除的权限ID，便于调用方精确失效缓存
+ */
+public class PermissionAssignmentResult {
+    private Long roleId;
+    private List<Long> addedPermissionIds;
+    private List<Long> removedPermissionIds;
+
+    public PermissionAssignmentResult() {}
+
+    public PermissionAssignmentResult(Long roleId, List<Long> addedPermissionIds, List<Long> removedPermissionIds) {
+        this.roleId = roleId;
+        this.addedPermissionIds = addedPermissionIds;
+        this.removedPermissionIds = removedPermissionIds;
+    }
+
+    /**
+     * 本次分配是否产生了变更
+     */
+    public boolean isChanged() {
+        return !addedPermissionIds.isEmpty() || !removedPermissionIds.isEmpty();
+    }
+
+    public Long getRoleId() {
+        return roleId;
+    }
+
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+
+    public List<Long> getAddedPermissionIds() {
+        return addedPermissionIds;
+    }
+
+    public void setAddedPermissionIds(List<Long> addedPermissionIds) {
+        this.addedPermissionIds = addedPermissionIds;
+    }
+
+    public List<Long> getRemovedPermissionIds() {
+        return removedPermissionIds;
+    }
+
+    public void setRemovedPermissionIds(List<Long> removedPermissionIds) {
+        this.removedPermissionIds = removedPermissionIds;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.role.dto;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * 角色权限授权条件请求DTO
+ * 例如：user.status == 1 && resource.ownerId == user.id；传空表示取消条件
+ */
+public class PermissionConditionRequest {
+    @Size(max = 500, message = "条件表达式不能超过500个字符")
+    private String condition;
+
+    public PermissionConditionRequest() {}
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.role.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * 批量分配/移除用户角色请求DTO
+ */
+public class UserRoleBatchRequest {
+    @NotEmpty(message = "用户ID列表不能为空")
+    @Size(max = 10000, message = "单次最多处理10000个用户")
+    private List<Long> userIds;
+
+    @NotEmpty(message = "角色ID列表不能为空")
+    @Size(max = 50, message = "单次最多处理50个角色")
+    private List<Long> roleIds;
+
+    public UserRoleBatchRequest() {}
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    public List<Long> getRoleIds() {
+        return roleIds;
+    }
+
+    public void setRoleIds(List<Long> roleIds) {
+        this.roleIds = roleIds;
+    }
+}
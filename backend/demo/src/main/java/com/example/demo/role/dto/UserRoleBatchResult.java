@@ -0,0 +1,58 @@
+package com.example.demo.role.dto;
+
+import java.util.Set;
+
+/**
+ * 批量分配/移除用户角色结果DTO
+ */
+public class UserRoleBatchResult {
+    // 请求的用户-角色组合数
+    private int requested;
+    // 实际新增或删除的关联数
+    private int changed;
+    // 无需变更的关联数（已拥有/本就没有）
+    private int unchanged;
+    // 角色发生变化的用户ID
+    private Set<Long> affectedUserIds;
+
+    public UserRoleBatchResult() {}
+
+    public UserRoleBatchResult(int requested, int changed, Set<Long> affectedUserIds) {
+        this.requested = requested;
+        this.changed = changed;
+        this.unchanged = requested - changed;
+        this.affectedUserIds = affectedUserIds;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getChanged() {
+        return changed;
+    }
+
+    public void setChanged(int changed) {
+        this.changed = changed;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public Set<Long> getAffectedUserIds() {
+        return affectedUserIds;
+    }
+
+    public void setAffectedUserIds(Set<Long> affectedUserIds) {
+        this.affectedUserIds = affectedUserIds;
+    }
+}
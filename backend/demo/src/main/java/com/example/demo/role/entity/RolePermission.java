@@ -11,6 +11,8 @@ public class RolePermission {
     private Long id;
     private Long roleId;
     private Long permissionId;
+    // 授权条件表达式，为空表示无条件授权
+    private String conditionExpr;
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
@@ -49,6 +51,14 @@ public class RolePermission {
         this.permissionId = permissionId;
     }
 
+    public String getConditionExpr() {
+        return conditionExpr;
+    }
+
+    public void setConditionExpr(String conditionExpr) {
+        this.conditionExpr = conditionExpr;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -63,6 +73,7 @@ public class RolePermission {
                 "id=" + id +
                 ", roleId=" + roleId +
                 ", permissionId=" + permissionId +
+                ", conditionExpr='" + conditionExpr + '\'' +
                 ", createdAt=" + createdAt +
                 '}';
     }
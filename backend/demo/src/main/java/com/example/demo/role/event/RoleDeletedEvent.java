@@ -0,0 +1,16 @@
+package com.example.demo.role.event;
+
+/**
+ * 角色删除事件
+ */
+public class RoleDeletedEvent {
+    private final Long roleId;
+
+    public RoleDeletedEvent(Long roleId) {
+        this.roleId = roleId;
+    }
+
+    public Long getRoleId() {
+        return roleId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.role.event;
+
+import java.util.List;
+
+/**
+ * 角色权限变更事件
+ * 携带本次实际新增和移除的权限ID
+ */
+public class RolePermissionsChangedEvent {
+    private final Long roleId;
+    private final List<Long> addedPermissionIds;
+    private final List<Long> removedPermissionIds;
+
+    public RolePermissionsChangedEvent(Long roleId, List<Long> addedPermissionIds, List<Long> removedPermissionIds) {
+        this.roleId = roleId;
+        this.addedPermissionIds = List.copyOf(addedPermissionIds);
+        this.removedPermissionIds = List.copyOf(removedPermissionIds);
+    }
+
+    public Long getRoleId() {
+        return roleId;
+    }
+
+    public List<Long> getAddedPermissionIds() {
+        return addedPermissionIds;
+    }
+
+    public List<Long> getRemovedPermissionIds() {
+        return removedPermissionIds;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.role.event;
+
+import com.example.demo.role.entity.UserRole;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户角色变更事件
+ * 携带本次实际新增和移除的用户-角色关联，供用户级鉴权缓存精确失效
+ */
+public class UserRolesChangedEvent {
+    private final List<UserRole> assigned;
+    private final List<UserRole> revoked;
+
+    public UserRolesChangedEvent(List<UserRole> assigned, List<UserRole> revoked) {
+        this.assigned = List.copyOf(assigned);
+        this.revoked = List.copyOf(revoked);
+    }
+
+    public List<UserRole> getAssigned() {
+        return assigned;
+    }
+
+    public List<UserRole> getRevoked() {
+        return revoked;
+    }
+
+    /**
+     * 受影响的用户ID（去重）
+     */
+    public Set<Long> getAffectedUserIds() {
+        Set<Long> userIds = new LinkedHashSet<>();
+        assigned.forEach(userRole -> userIds.add(userRole.getUserId()));
+        revoked.forEach(userRole -> userIds.add(userRole.getUserId()));
+        return userIds;
+    }
+}
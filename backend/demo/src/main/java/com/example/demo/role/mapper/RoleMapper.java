@@ -4,6 +4,7 @@ import com.example.demo.role.entity.Role;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -56,4 +57,9 @@ public interface RoleMapper {
      * 根据用户ID查找角色代码列表
      */
     List<String> findRoleCodesByUserId(@Param("userId") Long userId);
+    
+    /**
+     * 批量查询存在的角色ID
+     */
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.example.demo.role.mapper;
 import com.example.demo.role.entity.RolePermission;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,6 +18,19 @@ public interface RolePermissionMapper {
     @Select("SELECT permission_id FROM role_permissions WHERE role_id = #{roleId}")
     List<Long> findPermissionIdsByRoleId(Long roleId);
 
+    /**
+     * 根据角色ID获取无条件授权的权限ID列表
+     */
+    @Select("SELECT permission_id FROM role_permissions WHERE role_id = #{roleId} AND condition_expr IS NULL")
+    List<Long> findUnconditionalPermissionIdsByRoleId(Long roleId);
+
+    /**
+     * 获取所有未删除角色的权限关联（角色ID、权限ID和授权条件）
+     */
+    @Select("SELECT rp.role_id, rp.permission_id, rp.condition_expr FROM role_permissions rp " +
+            "INNER JOIN roles r ON r.id = rp.role_id WHERE r.deleted_at IS NULL")
+    List<RolePermission> findAllActive();
+
     /**
      * 根据权限ID获取角色ID列表
      */
@@ -49,6 +63,23 @@ public interface RolePermissionMapper {
     @Delete("DELETE FROM role_permissions WHERE role_id = #{roleId} AND permission_id = #{permissionId}")
     int deleteByRoleIdAndPermissionId(@Param("roleId") Long roleId, @Param("permissionId") Long permissionId);
 
+    /**
+     * 批量删除角色的指定权限关联
+     */
+    @Delete("<script>" +
+            "DELETE FROM role_permissions WHERE role_id = #{roleId} AND permission_id IN " +
+            "<foreach collection='permissionIds' item='permissionId' open='(' separator=',' close=')'>#{permissionId}</foreach>" +
+            "</script>")
+    int batchDeleteByRoleIdAndPermissionIds(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * 设置角色权限关联的授权条件（null 表示无条件）
+     */
+    @Update("UPDATE role_permissions SET condition_expr = #{conditionExpr} " +
+            "WHERE role_id = #{roleId} AND permission_id = #{permissionId}")
+    int updateCondition(@Param("roleId") Long roleId, @Param("permissionId") Long permissionId,
+                        @Param("conditionExpr") String conditionExpr);
+
     /**
      * 检查角色权限关联是否存在
      */
@@ -0,0 +1,82 @@
+package com.example.demo.role.mapper;
+
+import com.example.demo.role.entity.UserRole;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户角色关联数据访问接口
+ */
+@Mapper
+public interface UserRoleMapper {
+
+    /**
+     * 根据用户ID获取角色ID列表
+     */
+    @Select("SELECT role_id FROM user_roles WHERE user_id = #{userId}")
+    List<Long> findRoleIdsByUserId(Long userId);
+
+    /**
+     * 获取所有未删除角色的用户关联（仅用户ID和角色ID）
+     */
+    @Select("SELECT ur.user_id, ur.role_id FROM user_roles ur " +
+            "INNER JOIN roles r ON r.id = ur.role_id WHERE r.deleted_at IS NULL")
+    List<UserRole> findAllActive();
+
+    /**
+     * 按用户ID升序流式读取所有未删除角色的用户关联，用于生成 RBAC 快照
+     */
+    @Select("SELECT ur.user_id, ur.role_id FROM user_roles ur " +
+            "INNER JOIN roles r ON r.id = ur.role_id WHERE r.deleted_at IS NULL ORDER BY ur.user_id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(UserRole.class)
+    void scanAllActiveOrderByUserId(ResultHandler<UserRole> handler);
+
+    /**
+     * 批量获取一组用户的角色关联
+     */
+    @Select("<script>" +
+            "SELECT user_id, role_id FROM user_roles WHERE user_id IN " +
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<UserRole> findByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 根据角色ID获取用户ID列表
+     */
+    @Select("SELECT user_id FROM user_roles WHERE role_id = #{roleId}")
+    List<Long> findUserIdsByRoleId(Long roleId);
+
+    /**
+     * 在指定用户中查找已拥有该角色的用户ID
+     */
+    @Select("<script>" +
+            "SELECT user_id FROM user_roles WHERE role_id = #{roleId} AND user_id IN " +
+            "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>" +
+            "</script>")
+    List<Long> findUserIdsByRoleIdAndUserIds(@Param("roleId") Long roleId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 批量插入用户角色关联（已存在的关联会被忽略）
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO user_roles (user_id, role_id, created_at) VALUES " +
+            "<foreach collection='userRoles' item='item' separator=','>" +
+            "(#{item.userId}, #{item.roleId}, #{item.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    int batchInsert(@Param("userRoles") List<UserRole> userRoles);
+
+    /**
+     * 批量删除指定用户的某个角色
+     */
+    @Delete("<script>" +
+            "DELETE FROM user_roles WHERE role_id = #{roleId} AND user_id IN " +
+            "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>" +
+            "</script>")
+    int deleteByRoleIdAndUserIds(@Param("roleId") Long roleId, @Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,273 @@
+package com.example.demo.role.service;
+
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.common.BusinessException;
+import com.example.demo.common.ErrorCode;
+import com.example.demo.permission.entity.Permission;
+import com.example.demo.permission.service.PermissionService;
+import com.example.demo.rbac.catalog.RbacCatalogCache;
+import com.example.demo.rbac.catalog.RoleCatalog;
+import com.example.demo.role.dto.PermissionAssignmentResult;
+import com.example.demo.role.entity.Role;
+import com.example.demo.role.entity.RolePermission;
+import com.example.demo.role.event.RoleDeletedEvent;
+import com.example.demo.role.event.RolePermissionsChangedEvent;
+import com.example.demo.role.mapper.RoleMapper;
+import com.example.demo.role.mapper.RolePermissionMapper;
+import com.example.demo.system.stats.SystemStatsCounters;
+import com.example.rbac.condition.AttributeSchema;
+import com.example.rbac.condition.ConditionCompiler;
+import com.example.rbac.condition.ConditionSyntaxException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 角色服务类
+ */
+@Service
+public class RoleService {
+
+    // 批量写入/删除时每条语句的最大行数
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private RolePermissionMapper rolePermissionMapper;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private RbacCatalogCache catalogCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private SystemStatsCounters systemStatsCounters;
+
+    /**
+     * 获取角色目录快照（带 ETag）
+     */
+    public RoleCatalog getRoleCatalog() {
+        return catalogCache.getRoleCatalog();
+    }
+
+    /**
+     * 获取所有角色
+     */
+    public List<Role> getAllRoles() {
+        return catalogCache.getRoleCatalog().getRoles();
+    }
+
+    /**
+     * 根据ID获取角色
+     */
+    public Role getRoleById(Long id) {
+        Role role = roleMapper.findById(id);
+        if (role == null) {
+            throw new BusinessException(40004, "角色不存在");
+        }
+        return role;
+    }
+
+    /**
+     * 创建角色
+     */
+    public Role createRole(Role role) {
+        // 检查角色名称是否已存在
+        if (roleMapper.findByName(role.getName()) != null) {
+            throw new BusinessException(40003, "角色名称已存在");
+        }
+
+        // 设置默认值
+        if (role.getCode() == null || role.getCode().trim().isEmpty()) {
+            role.setCode(role.getName().toUpperCase().replace(" ", "_"));
+        }
+        role.setStatus(1); // 启用状态
+        role.setIsSystem(false);
+        role.setCreatedAt(LocalDateTime.now());
+        role.setUpdatedAt(LocalDateTime.now());
+
+        roleMapper.insert(role);
+        systemStatsCounters.roleCreated(role.getIsSystem());
+        catalogCache.invalidateRoles();
+        invalidationBus.publish(CacheNames.ROLES, role.getId());
+        return role;
+    }
+
+    /**
+     * 更新角色
+     */
+    public Role updateRole(Role role) {
+        Role existingRole = getRoleById(role.getId());
+        
+        // 检查角色名称是否被其他角色使用
+        Role roleWithSameName = roleMapper.findByName(role.getName());
+        if (roleWithSameName != null && !roleWithSameName.getId().equals(role.getId())) {
+            throw new BusinessException(40003, "角色名称已存在");
+        }
+
+        // 更新字段
+        existingRole.setName(role.getName());
+        existingRole.setDescription(role.getDescription());
+        existingRole.setUpdatedAt(LocalDateTime.now());
+
+        roleMapper.update(existingRole);
+        catalogCache.invalidateRoles();
+        invalidationBus.publish(CacheNames.ROLES, existingRole.getId());
+        return existingRole;
+    }
+
+    /**
+     * 删除角色
+     */
+    public void deleteRole(Long id) {
+        Role role = getRoleById(id);
+        
+        // 检查是否为系统角色
+        if (Boolean.TRUE.equals(role.getIsSystem())) {
+            throw new BusinessException(40005, "系统角色不能删除");
+        }
+
+        roleMapper.deleteById(id);
+        systemStatsCounters.roleDeleted(role.getIsSystem());
+        catalogCache.invalidateRoles();
+        eventPublisher.publishEvent(new RoleDeletedEvent(id));
+        invalidationBus.publish(CacheNames.ROLES, id);
+    }
+
+    /**
+     * 获取角色的权限列表
+     */
+    public List<Permission> getRolePermissions(Long roleId) {
+        // 验证角色是否存在
+        getRoleById(roleId);
+        return permissionService.getPermissionsByRoleId(roleId);
+    }
+
+    /**
+     * 为角色分配权限
+     * 与现有权限做差集，只插入新增的关联、删除被移除的关联，返回实际变更
+     */
+    @Transactional
+    public PermissionAssignmentResult assignPermissions(Long roleId, List<Long> permissionIds) {
+        // 验证角色是否存在
+        getRoleById(roleId);
+
+        // 去重并一次性验证所有权限是否存在
+        Set<Long> targetIds = new LinkedHashSet<>(permissionIds);
+        permissionService.validatePermissionsExist(targetIds);
+
+        // 计算与现有权限的差异
+        Set<Long> currentIds = new HashSet<>(rolePermissionMapper.findPermissionIdsByRoleId(roleId));
+        List<Long> addedIds = new ArrayList<>();
+        for (Long permissionId : targetIds) {
+            if (!currentIds.contains(permissionId)) {
+                addedIds.add(permissionId);
+            }
+        }
+        List<Long> removedIds = new ArrayList<>();
+        for (Long permissionId : currentIds) {
+            if (!targetIds.contains(permissionId)) {
+                removedIds.add(permissionId);
+            }
+        }
+
+        // 分批删除被移除的权限关联
+        for (int from = 0; from < removedIds.size(); from += WRITE_BATCH_SIZE) {
+            List<Long> chunk = removedIds.subList(from, Math.min(from + WRITE_BATCH_SIZE, removedIds.size()));
+            rolePermissionMapper.batchDeleteByRoleIdAndPermissionIds(roleId, chunk);
+        }
+
+        // 分批插入新增的权限关联
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < addedIds.size(); from += WRITE_BATCH_SIZE) {
+            List<RolePermission> rolePermissions = new ArrayList<>();
+            for (Long permissionId : addedIds.subList(from, Math.min(from + WRITE_BATCH_SIZE, addedIds.size()))) {
+                RolePermission rolePermission = new RolePermission(roleId, permissionId);
+                rolePermission.setCreatedAt(now);
+                rolePermissions.add(rolePermission);
+            }
+            rolePermissionMapper.batchInsert(rolePermissions);
+        }
+
+        if (!addedIds.isEmpty() || !removedIds.isEmpty()) {
+            eventPublisher.publishEvent(new RolePermissionsChangedEvent(roleId, addedIds, removedIds));
+            invalidationBus.publish(CacheNames.ROLE_PERMISSIONS, roleId);
+        }
+        return new PermissionAssignmentResult(roleId, addedIds, removedIds);
+    }
+
+    /**
+     * 为角色添加权限
+     */
+    public void addPermissionToRole(Long roleId, Long permissionId) {
+        // 验证角色和权限是否存在
+        getRoleById(roleId);
+        permissionService.getPermissionById(permissionId);
+
+        // 检查关联是否已存在
+        if (rolePermissionMapper.countByRoleIdAndPermissionId(roleId, permissionId) > 0) {
+            throw new BusinessException(40003, "角色已拥有该权限");
+        }
+
+        // 添加权限关联
+        RolePermission rolePermission = new RolePermission(roleId, permissionId);
+        rolePermissionMapper.insert(rolePermission);
+        eventPublisher.publishEvent(new RolePermissionsChangedEvent(roleId, List.of(permissionId), List.of()));
+        invalidationBus.publish(CacheNames.ROLE_PERMISSIONS, roleId);
+    }
+
+    /**
+     * 设置角色权限的授权条件（为空表示取消条件，恢复为无条件授权）
+     */
+    public void updatePermissionCondition(Long roleId, Long permissionId, String condition) {
+        getRoleById(roleId);
+        String expression = condition == null || condition.isBlank() ? null : condition.trim();
+        if (expression != null) {
+            // 保存前先编译一次，语法错误直接返回给调用方
+            try {
+                new ConditionCompiler(new AttributeSchema()).compile(expression);
+            } catch (ConditionSyntaxException e) {
+                throw new BusinessException(ErrorCode.INVALID_PARAMETER, "条件表达式有误: " + e.getMessage());
+            }
+        }
+        if (rolePermissionMapper.updateCondition(roleId, permissionId, expression) == 0) {
+            throw new BusinessException(40004, "角色权限关联不存在");
+        }
+        invalidationBus.publish(CacheNames.ROLE_PERMISSIONS, roleId);
+    }
+
+    /**
+     * 从角色中移除权限
+     */
+    public void removePermissionFromRole(Long roleId, Long permissionId) {
+        // 验证角色和权限是否存在
+        getRoleById(roleId);
+        permissionService.getPermissionById(permissionId);
+
+        // 删除权限关联
+        int deleted = rolePermissionMapper.deleteByRoleIdAndPermissionId(roleId, permissionId);
+        if (deleted == 0) {
+            throw new BusinessException(40004, "角色权限关联不存在");
+        }
+        eventPublisher.publishEvent(new RolePermissionsChangedEvent(roleId, List.of(), List.of(permissionId)));
+        invalidationBus.publish(CacheNames.ROLE_PERMISSIONS, roleId);
+    }
+}
\ No newline at end of file
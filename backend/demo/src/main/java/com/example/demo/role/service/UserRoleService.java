@@ -0,0 +1,193 @@
+package com.example.demo.role.service;
+
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.common.BusinessException;
+import com.example.demo.common.ErrorCode;
+import com.example.demo.role.dto.UserRoleBatchResult;
+import com.example.demo.role.entity.UserRole;
+import com.example.demo.role.event.UserRolesChangedEvent;
+import com.example.demo.role.mapper.RoleMapper;
+import com.example.demo.role.mapper.UserRoleMapper;
+import com.example.demo.user.mapper.UserMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户角色服务类
+ * 支持一次调用为大量用户分配或移除角色，按用户ID顺序分批执行多行 INSERT IGNORE / DELETE，每批单独提交，
+ * 不长时间持有用户行锁，也不对不存在的关联加间隙锁；中途失败时已提交的批次保留，重试是幂等的。
+ * 变更数取自语句的影响行数；变更事件包含本批写入/删除的全部组合，并发写入时重复的组合对事件消费方是幂等的。
+ */
+@Service
+public class UserRoleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRoleService.class);
+
+    // 单条 IN 查询或批量写入语句的最大行数
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private UserRoleMapper userRoleMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 获取用户的角色ID列表
+     */
+    public List<Long> getRoleIdsByUserId(Long userId) {
+        return userRoleMapper.findRoleIdsByUserId(userId);
+    }
+
+    /**
+     * 批量为用户分配角色（已拥有的组合会被跳过）
+     */
+    public UserRoleBatchResult assignRoles(Collection<Long> userIds, Collection<Long> roleIds) {
+        List<Long> users = sortedDistinct(userIds);
+        List<Long> roles = sortedDistinct(roleIds);
+        validateRolesExist(roles);
+        validateUsersExist(users);
+
+        LocalDateTime now = LocalDateTime.now();
+        int changed = 0;
+        Set<Long> affectedUserIds = new LinkedHashSet<>();
+        for (Long roleId : roles) {
+            for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+                List<Long> chunk = users.subList(from, Math.min(from + BATCH_SIZE, users.size()));
+                Set<Long> existing = new HashSet<>(userRoleMapper.findUserIdsByRoleIdAndUserIds(roleId, chunk));
+                List<UserRole> pending = new ArrayList<>();
+                for (Long userId : chunk) {
+                    if (!existing.contains(userId)) {
+                        UserRole userRole = new UserRole(userId, roleId);
+                        userRole.setCreatedAt(now);
+                        pending.add(userRole);
+                    }
+                }
+                if (pending.isEmpty()) {
+                    continue;
+                }
+                Integer inserted = transactionTemplate.execute(status -> {
+                    int rows = userRoleMapper.batchInsert(pending);
+                    if (rows > 0) {
+                        publish(pending, List.of());
+                    }
+                    return rows;
+                });
+                if (inserted != null && inserted > 0) {
+                    changed += inserted;
+                    pending.forEach(userRole -> affectedUserIds.add(userRole.getUserId()));
+                }
+            }
+        }
+
+        int requested = users.size() * roles.size();
+        logger.info("批量分配角色完成: 用户数={}, 角色数={}, 新增关联={}", users.size(), roles.size(), changed);
+        return new UserRoleBatchResult(requested, changed, affectedUserIds);
+    }
+
+    /**
+     * 批量移除用户角色（未拥有的组合会被跳过）
+     */
+    public UserRoleBatchResult revokeRoles(Collection<Long> userIds, Collection<Long> roleIds) {
+        List<Long> users = sortedDistinct(userIds);
+        List<Long> roles = sortedDistinct(roleIds);
+        validateRolesExist(roles);
+
+        int changed = 0;
+        Set<Long> affectedUserIds = new LinkedHashSet<>();
+        for (Long roleId : roles) {
+            for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+                List<Long> chunk = users.subList(from, Math.min(from + BATCH_SIZE, users.size()));
+                List<Long> existing = userRoleMapper.findUserIdsByRoleIdAndUserIds(roleId, chunk);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                List<UserRole> revoked = new ArrayList<>(existing.size());
+                for (Long userId : existing) {
+                    revoked.add(new UserRole(userId, roleId));
+                }
+                Integer deleted = transactionTemplate.execute(status -> {
+                    int rows = userRoleMapper.deleteByRoleIdAndUserIds(roleId, existing);
+                    if (rows > 0) {
+                        publish(List.of(), revoked);
+                    }
+                    return rows;
+                });
+                if (deleted != null && deleted > 0) {
+                    changed += deleted;
+                    affectedUserIds.addAll(existing);
+                }
+            }
+        }
+
+        int requested = users.size() * roles.size();
+        logger.info("批量移除角色完成: 用户数={}, 角色数={}, 删除关联={}", users.size(), roles.size(), changed);
+        return new UserRoleBatchResult(requested, changed, affectedUserIds);
+    }
+
+    /**
+     * 在当前批次的事务内发布变更事件和失效事件，随本批一起提交
+     */
+    private void publish(List<UserRole> assigned, List<UserRole> revoked) {
+        UserRolesChangedEvent event = new UserRolesChangedEvent(assigned, revoked);
+        eventPublisher.publishEvent(event);
+        invalidationBus.publishAll(CacheNames.USER_ROLES, event.getAffectedUserIds());
+    }
+
+    /**
+     * 验证角色是否都存在
+     */
+    private void validateRolesExist(List<Long> roleIds) {
+        Set<Long> existing = new HashSet<>(roleMapper.findExistingIds(roleIds));
+        if (existing.size() < roleIds.size()) {
+            List<Long> missing = roleIds.stream().filter(id -> !existing.contains(id)).toList();
+            throw new BusinessException(40004, "角色不存在: " + missing);
+        }
+    }
+
+    /**
+     * 验证用户都存在且未删除（普通读取，不锁定用户行；写入时的外键检查保证用户未被物理删除）
+     */
+    private void validateUsersExist(List<Long> userIds) {
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < userIds.size(); from += BATCH_SIZE) {
+            existing.addAll(userMapper.findExistingIds(userIds.subList(from, Math.min(from + BATCH_SIZE, userIds.size()))));
+        }
+        if (existing.size() < userIds.size()) {
+            List<Long> missing = userIds.stream().filter(id -> !existing.contains(id)).toList();
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND, "用户不存在: " + missing);
+        }
+    }
+
+    /**
+     * 去重并按ID升序排列，并发的批量操作按相同顺序写入
+     */
+    private static List<Long> sortedDistinct(Collection<Long> ids) {
+        return ids.stream().distinct().sorted().toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.security;
+
+import com.example.demo.metrics.ActiveUserTracker;
+import com.example.demo.metrics.RequestTimer;
+import com.example.demo.metrics.TimingPhase;
+import com.example.demo.metrics.jfr.JwtVerifyEvent;
+import com.example.demo.metrics.jfr.PrincipalLoadEvent;
+import com.example.demo.role.mapper.RoleMapper;
+import com.example.demo.user.entity.User;
+import com.example.demo.user.mapper.UserMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    /**
+     * 认证成功后保存用户ID的请求属性，供后续过滤器使用（安全上下文在请求结束前会被清除）
+     */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".userId";
+
+    private final JwtUtil jwtUtil;
+    private final UserMapper userMapper;
+    private final RoleMapper roleMapper;
+    private final ActiveUserTracker activeUserTracker;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserMapper userMapper, RoleMapper roleMapper,
+                                   ActiveUserTracker activeUserTracker) {
+        this.jwtUtil = jwtUtil;
+        this.userMapper = userMapper;
+        this.roleMapper = roleMapper;
+        this.activeUserTracker = activeUserTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+                                  FilterChain filterChain) throws ServletException, IOException {
+        
+        TimingPhase previous = RequestTimer.enter(TimingPhase.AUTH);
+        try {
+            authenticate(request);
+        } finally {
+            RequestTimer.exit(previous);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request) {
+        String token = getTokenFromRequest(request);
+        if (!StringUtils.hasText(token)) {
+            return;
+        }
+
+        JwtVerifyEvent verifyEvent = new JwtVerifyEvent();
+        verifyEvent.begin();
+        boolean valid = jwtUtil.validateToken(token);
+        String username = valid ? jwtUtil.getUsernameFromToken(token) : null;
+        verifyEvent.valid = valid;
+        verifyEvent.commit();
+
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            TimingPhase previous = RequestTimer.enter(TimingPhase.PRINCIPAL);
+            try {
+                loadPrincipal(request, username);
+            } finally {
+                RequestTimer.exit(previous);
+            }
+        }
+    }
+
+    /**
+     * 加载用户及角色并设置到安全上下文
+     */
+    private void loadPrincipal(HttpServletRequest request, String username) {
+        PrincipalLoadEvent loadEvent = new PrincipalLoadEvent();
+        loadEvent.begin();
+        User user = userMapper.findByUsername(username);
+        
+        if (user != null && user.getStatus() == 1) {
+            // 获取用户角色
+            List<String> roleCodes = roleMapper.findRoleCodesByUserId(user.getId());
+            loadEvent.userId = user.getId();
+            loadEvent.roleCount = roleCodes.size();
+            List<GrantedAuthority> authorities = roleCodes.stream()
+                .map(code -> new SimpleGrantedAuthority("ROLE_" + code))
+                .collect(Collectors.toList());
+
+            // 创建认证对象（包含角色权限）
+            UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user, null, authorities);
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            // 设置到安全上下文
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+
+            request.setAttribute(USER_ID_ATTRIBUTE, user.getId());
+
+            // 计入当天活跃用户
+            activeUserTracker.record(user.getId());
+        }
+        loadEvent.commit();
+    }
+
+    /**
+     * 从请求头中获取token
+     */
+    private String getTokenFromRequest(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.demo.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -9,6 +10,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -16,13 +19,18 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    // 管理端口（actuator），未单独配置时为 -1
+    private final int managementPort;
+
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          @Value("${management.server.port:-1}") int managementPort) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.managementPort = managementPort;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     @Bean
@@ -43,6 +51,9 @@ public class SecurityConfig {
                 .requestMatchers("/hello").permitAll()
                 // Swagger UI 和 OpenAPI 文档
                 .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/swagger-resources/**", "/webjars/**").permitAll()
+                // 健康检查公开；Prometheus 指标只在独立的管理端口上免认证（docker-compose 不发布该端口）
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers(onManagementPort("/actuator/prometheus")).permitAll()
                 // 系统管理接口需要认证
                 .requestMatchers("/api/system/**").authenticated()
                 // 其他所有请求都需要认证
@@ -54,4 +65,12 @@ public class SecurityConfig {
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * 只匹配从管理端口进入的请求；管理端口与业务端口相同或未配置时不匹配，指标接口需要登录
+     */
+    private RequestMatcher onManagementPort(String pattern) {
+        AntPathRequestMatcher path = new AntPathRequestMatcher(pattern);
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort && path.matches(request);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.security;
+
+import com.example.demo.metrics.RequestTimer;
+import com.example.demo.metrics.TimingPhase;
+import com.example.demo.metrics.jfr.PasswordHashEvent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 把密码哈希计算计入请求的 bcrypt 阶段，并记录 JFR 事件
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        TimingPhase previous = RequestTimer.enter(TimingPhase.BCRYPT);
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            event.operation = "encode";
+            event.commit();
+            RequestTimer.exit(previous);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        TimingPhase previous = RequestTimer.enter(TimingPhase.BCRYPT);
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        boolean matched = false;
+        try {
+            matched = delegate.matches(rawPassword, encodedPassword);
+            return matched;
+        } finally {
+            event.operation = "matches";
+            event.matched = matched;
+            event.commit();
+            RequestTimer.exit(previous);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
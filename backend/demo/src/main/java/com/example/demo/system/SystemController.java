@@ -0,0 +1,262 @@
+package com.example.demo.system;
+
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.cache.InvalidationStats;
+import com.example.demo.common.ApiResponse;
+import com.example.demo.common.BusinessException;
+import com.example.demo.common.ErrorCode;
+import com.example.demo.metrics.ActivityMetrics;
+import com.example.demo.metrics.ActivityType;
+import com.example.demo.metrics.Granularity;
+import com.example.demo.metrics.HeavyHitterTracker;
+import com.example.demo.metrics.SlowQuerySampler;
+import com.example.demo.metrics.dto.ActivitySeriesResponse;
+import com.example.demo.metrics.dto.HeavyHittersResponse;
+import com.example.demo.metrics.dto.JfrRecordingInfo;
+import com.example.demo.metrics.dto.SlowQueryReport;
+import com.example.demo.metrics.jfr.JfrRecordingService;
+import com.example.demo.rbac.snapshot.RbacSnapshotService;
+import com.example.demo.system.dto.MaintenanceReport;
+import com.example.demo.system.dto.PermissionCheckRequest;
+import com.example.demo.system.dto.PolicyStatsResponse;
+import com.example.demo.system.dto.RbacSnapshotInfo;
+import com.example.demo.system.dto.RoleCheckRequest;
+import com.example.demo.system.dto.SystemStatsResponse;
+import com.example.demo.system.maintenance.MaintenanceEngine;
+import com.example.demo.system.service.SystemService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 系统管理控制器
+ */
+@RestController
+@RequestMapping("/api/system")
+public class SystemController {
+
+    @Autowired
+    private SystemService systemService;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private RbacSnapshotService rbacSnapshotService;
+
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    @Autowired
+    private HeavyHitterTracker heavyHitterTracker;
+
+    @Autowired
+    private MaintenanceEngine maintenanceEngine;
+
+    @Autowired
+    private SlowQuerySampler slowQuerySampler;
+
+    @Autowired
+    private JfrRecordingService jfrRecordingService;
+
+    /**
+     * 获取系统统计信息
+     */
+    @GetMapping("/stats")
+    public ApiResponse<SystemStatsResponse> getSystemStats() {
+        SystemStatsResponse stats = systemService.getSystemStats();
+        return ApiResponse.ok(stats);
+    }
+
+    /**
+     * 执行系统清理（清除过期锁定、清理变更日志、归档软删除数据），可用 tasks 指定部分任务
+     */
+    @PostMapping("/cleanup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<MaintenanceReport> cleanup(@RequestParam(required = false) List<String> tasks) {
+        return ApiResponse.ok(systemService.cleanup(tasks));
+    }
+
+    /**
+     * 获取最近一次系统清理报告
+     */
+    @GetMapping("/cleanup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<MaintenanceReport> getLastCleanup() {
+        return ApiResponse.ok(maintenanceEngine.getLastReport());
+    }
+
+    /**
+     * 获取活动时间序列（登录、注册、LLM 调用等），默认最近 24 小时按小时汇总
+     */
+    @GetMapping("/metrics/activity")
+    public ApiResponse<ActivitySeriesResponse> getActivitySeries(@RequestParam ActivityType type,
+                                                                 @RequestParam(defaultValue = "HOUR") Granularity granularity,
+                                                                 @RequestParam(required = false) Long from,
+                                                                 @RequestParam(required = false) Long to) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 86_400_000L;
+        return ApiResponse.ok(activityMetrics.query(type, granularity, start, end));
+    }
+
+    /**
+     * 获取滑动窗口内请求最多的客户端IP、用户和接口
+     */
+    @GetMapping("/metrics/heavy-hitters")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<HeavyHittersResponse> getHeavyHitters(@RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.ok(heavyHitterTracker.getHeavyHitters(Math.max(1, Math.min(limit, 32))));
+    }
+
+    /**
+     * 获取 Mapper 语句执行排行（sortBy=total/max/p99/avg/count/slow），explain 指定对前几条 SELECT 执行 EXPLAIN
+     */
+    @GetMapping("/metrics/slow-queries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<SlowQueryReport> getSlowQueries(@RequestParam(defaultValue = "20") int limit,
+                                                       @RequestParam(defaultValue = "total") String sortBy,
+                                                       @RequestParam(defaultValue = "0") int explain) {
+        int top = Math.max(1, Math.min(limit, 200));
+        return ApiResponse.ok(slowQuerySampler.getReport(top, sortBy, Math.max(0, Math.min(explain, 10))));
+    }
+
+    /**
+     * 清空语句执行统计
+     */
+    @DeleteMapping("/metrics/slow-queries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Void> resetSlowQueries() {
+        slowQuerySampler.reset();
+        return ApiResponse.ok();
+    }
+
+    /**
+     * 查看 JFR 录制状态
+     */
+    @GetMapping("/jfr")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<JfrRecordingInfo> getJfrRecording() {
+        return ApiResponse.ok(jfrRecordingService.getInfo());
+    }
+
+    /**
+     * 启动持续 JFR 录制（按 maxAgeMinutes / maxSizeMb 滚动保留），sqlThresholdMs 只记录超过该耗时的 SQL 事件
+     */
+    @PostMapping("/jfr/start")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<JfrRecordingInfo> startJfrRecording(@RequestParam(defaultValue = "default") String settings,
+                                                           @RequestParam(required = false) Long maxAgeMinutes,
+                                                           @RequestParam(required = false) Long maxSizeMb,
+                                                           @RequestParam(defaultValue = "0") long sqlThresholdMs) {
+        return ApiResponse.ok(jfrRecordingService.start(settings, maxAgeMinutes, maxSizeMb, sqlThresholdMs));
+    }
+
+    /**
+     * 停止 JFR 录制，数据保留供下载
+     */
+    @PostMapping("/jfr/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<JfrRecordingInfo> stopJfrRecording() {
+        return ApiResponse.ok(jfrRecordingService.stop());
+    }
+
+    /**
+     * 下载 JFR 录制文件（录制进行中时为当前数据的快照），用 JDK Mission Control 或 jfr 命令打开
+     */
+    @GetMapping("/jfr/download")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadJfrRecording() {
+        if (!jfrRecordingService.hasData()) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "没有可下载的录制");
+        }
+        String filename = "demo-" + System.currentTimeMillis() + ".jfr";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(jfrRecordingService::dump);
+    }
+
+    /**
+     * 检查用户权限
+     */
+    @PostMapping("/permissions/check")
+    public ApiResponse<Boolean> checkPermission(@Valid @RequestBody PermissionCheckRequest request) {
+        boolean hasPermission = systemService.checkUserPermission(
+                request.getUserId(), request.getPermissionCode(), request.getAttributes());
+        return ApiResponse.ok(hasPermission);
+    }
+
+    /**
+     * 检查用户角色
+     */
+    @PostMapping("/roles/check")
+    public ApiResponse<Boolean> checkRole(@Valid @RequestBody RoleCheckRequest request) {
+        boolean hasRole = systemService.checkUserRole(request.getUserId(), request.getRoleCode());
+        return ApiResponse.ok(hasRole);
+    }
+
+    /**
+     * 获取用户权限列表
+     */
+    @GetMapping("/user/{userId}/permissions")
+    public ApiResponse<List<String>> getUserPermissions(@PathVariable Long userId) {
+        List<String> permissions = systemService.getUserPermissions(userId);
+        return ApiResponse.ok(permissions);
+    }
+
+    /**
+     * 获取用户角色列表
+     */
+    @GetMapping("/user/{userId}/roles")
+    public ApiResponse<List<String>> getUserRoles(@PathVariable Long userId) {
+        List<String> roles = systemService.getUserRoles(userId);
+        return ApiResponse.ok(roles);
+    }
+
+    /**
+     * 获取跨实例缓存失效总线状态（版本、陈旧时间等）
+     */
+    @GetMapping("/cache/invalidation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<InvalidationStats> getInvalidationStats() {
+        return ApiResponse.ok(invalidationBus.getStats());
+    }
+
+    /**
+     * 获取 RBAC 快照状态
+     */
+    @GetMapping("/rbac/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<RbacSnapshotInfo> getRbacSnapshot() {
+        return ApiResponse.ok(rbacSnapshotService.getInfo());
+    }
+
+    /**
+     * 从数据库重新生成 RBAC 快照
+     */
+    @PostMapping("/rbac/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<RbacSnapshotInfo> rebuildRbacSnapshot() throws IOException {
+        return ApiResponse.ok(rbacSnapshotService.rebuild());
+    }
+
+    /**
+     * 获取条件授权策略及其求值统计
+     */
+    @GetMapping("/rbac/policies")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<List<PolicyStatsResponse>> getRbacPolicies() {
+        List<PolicyStatsResponse> policies = rbacSnapshotService.getPolicies().stream()
+                .map(PolicyStatsResponse::from)
+                .toList();
+        return ApiResponse.ok(policies);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.system.dto;
+
+import java.util.List;
+
+/**
+ * 系统维护执行报告DTO
+ */
+public class MaintenanceReport {
+    // 触发方式：manual（接口触发）或 scheduled（定时）
+    private String trigger;
+    private long startedAt;
+    private long durationMs;
+    private List<MaintenanceTaskReport> tasks;
+
+    public MaintenanceReport() {}
+
+    public MaintenanceReport(String trigger, long startedAt, long durationMs, List<MaintenanceTaskReport> tasks) {
+        this.trigger = trigger;
+        this.startedAt = startedAt;
+        this.durationMs = durationMs;
+        this.tasks = tasks;
+    }
+
+    public String getTrigger() {
+        return trigger;
+    }
+
+    public void setTrigger(String trigger) {
+        this.trigger = trigger;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<MaintenanceTaskReport> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<MaintenanceTaskReport> tasks) {
+        this.tasks = tasks;
+    }
+}
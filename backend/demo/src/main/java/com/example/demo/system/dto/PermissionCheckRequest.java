@@ -3,6 +3,8 @@ package com.example.demo.system.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.Map;
+
 /**
  * 权限检查请求DTO
  */
@@ -13,6 +15,9 @@ public class PermissionCheckRequest {
     @NotBlank(message = "权限代码不能为空")
     private String permissionCode;
 
+    // 条件授权使用的资源/请求属性，键需以 resource. 或 request. 开头（user. 属性由服务端填充）
+    private Map<String, Object> attributes;
+
     public PermissionCheckRequest() {}
 
     public PermissionCheckRequest(Long userId, String permissionCode) {
@@ -35,4 +40,12 @@ public class PermissionCheckRequest {
     public void setPermissionCode(String permissionCode) {
         this.permissionCode = permissionCode;
     }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(Map<String, Object> attributes) {
+        this.attributes = attributes;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.example.demo.system.dto;
+
+import com.example.rbac.condition.CompiledPolicy;
+
+/**
+ * 条件授权策略统计DTO
+ */
+public class PolicyStatsResponse {
+    private long roleId;
+    private String permissionCode;
+    private String expression;
+    private boolean valid;
+    // 表达式编译失败时的错误信息，此时该授权一律拒绝
+    private String error;
+    private long evaluations;
+    private long allowed;
+    private long avgNanos;
+
+    public static PolicyStatsResponse from(CompiledPolicy policy) {
+        PolicyStatsResponse response = new PolicyStatsResponse();
+        response.roleId = policy.getRoleId();
+        response.permissionCode = policy.getPermissionCode();
+        response.expression = policy.getExpression();
+        response.valid = policy.isValid();
+        response.error = policy.getError();
+        response.evaluations = policy.getEvaluations();
+        response.allowed = policy.getAllowed();
+        response.avgNanos = response.evaluations > 0 ? policy.getTotalNanos() / response.evaluations : 0;
+        return response;
+    }
+
+    public long getRoleId() {
+        return roleId;
+    }
+
+    public void setRoleId(long roleId) {
+        this.roleId = roleId;
+    }
+
+    public String getPermissionCode() {
+        return permissionCode;
+    }
+
+    public void setPermissionCode(String permissionCode) {
+        this.permissionCode = permissionCode;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public void setEvaluations(long evaluations) {
+        this.evaluations = evaluations;
+    }
+
+    public long getAllowed() {
+        return allowed;
+    }
+
+    public void setAllowed(long allowed) {
+        this.allowed = allowed;
+    }
+
+    public long getAvgNanos() {
+        return avgNanos;
+    }
+
+    public void setAvgNanos(long avgNanos) {
+        this.avgNanos = avgNanos;
+    }
+}
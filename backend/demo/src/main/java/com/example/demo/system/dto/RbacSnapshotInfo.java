@@ -0,0 +1,110 @@
+package com.example.demo.system.dto;
+
+/**
+ * RBAC 快照状态DTO
+ */
+public class RbacSnapshotInfo {
+    private boolean ready;
+    // 快照来源：file（启动时从文件加载）或 database（从数据库生成）
+    private String source;
+    private String path;
+    // 快照生成时的变更日志版本
+    private long version;
+    // 已追平到的变更日志版本
+    private long appliedVersion;
+    private long userCount;
+    private int roleCount;
+    private int permissionCount;
+    private long sizeBytes;
+    // 快照之后发生变更、单独保存的用户数
+    private int overlaySize;
+    private long loadMillis;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getAppliedVersion() {
+        return appliedVersion;
+    }
+
+    public void setAppliedVersion(long appliedVersion) {
+        this.appliedVersion = appliedVersion;
+    }
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    public void setUserCount(long userCount) {
+        this.userCount = userCount;
+    }
+
+    public int getRoleCount() {
+        return roleCount;
+    }
+
+    public void setRoleCount(int roleCount) {
+        this.roleCount = roleCount;
+    }
+
+    public int getPermissionCount() {
+        return permissionCount;
+    }
+
+    public void setPermissionCount(int permissionCount) {
+        this.permissionCount = permissionCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public int getOverlaySize() {
+        return overlaySize;
+    }
+
+    public void setOverlaySize(int overlaySize) {
+        this.overlaySize = overlaySize;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    public void setLoadMillis(long loadMillis) {
+        this.loadMillis = loadMillis;
+    }
+}
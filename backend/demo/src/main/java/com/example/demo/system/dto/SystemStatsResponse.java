@@ -10,6 +10,10 @@ public class SystemStatsResponse {
     private Long activeUsers;
     private Long systemRoles;
     private Long systemPermissions;
+    // 活跃用户估计值（HyperLogLog，误差约 1%），尚未统计出结果时为空
+    private Long dailyActiveUsers;
+    private Long weeklyActiveUsers;
+    private Long monthlyActiveUsers;
 
     public SystemStatsResponse() {}
 
@@ -70,4 +74,28 @@ public class SystemStatsResponse {
     public void setSystemPermissions(Long systemPermissions) {
         this.systemPermissions = systemPermissions;
     }
-}
\ No newline at end of file
+
+    public Long getDailyActiveUsers() {
+        return dailyActiveUsers;
+    }
+
+    public void setDailyActiveUsers(Long dailyActiveUsers) {
+        this.dailyActiveUsers = dailyActiveUsers;
+    }
+
+    public Long getWeeklyActiveUsers() {
+        return weeklyActiveUsers;
+    }
+
+    public void setWeeklyActiveUsers(Long weeklyActiveUsers) {
+        this.weeklyActiveUsers = weeklyActiveUsers;
+    }
+
+    public Long getMonthlyActiveUsers() {
+        return monthlyActiveUsers;
+    }
+
+    public void setMonthlyActiveUsers(Long monthlyActiveUsers) {
+        this.monthlyActiveUsers = monthlyActiveUsers;
+    }
+}
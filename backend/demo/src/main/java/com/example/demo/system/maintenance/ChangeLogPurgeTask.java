@@ -0,0 +1,40 @@
+package com.example.demo.system.maintenance;
+
+import com.example.demo.cache.mapper.CacheChangeLogMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 清理超过保留期的缓存变更日志
+ * 至少保留最新的一条，使新启动的实例和快照追平总能找到当前版本。
+ * 停机超过保留期的实例上的 RBAC 快照文件会因无法追平而重新生成。
+ */
+@Component
+public class ChangeLogPurgeTask implements MaintenanceTask {
+
+    @Autowired
+    private MaintenanceMapper maintenanceMapper;
+
+    @Autowired
+    private CacheChangeLogMapper changeLogMapper;
+
+    @Value("${maintenance.change-log-retention-hours:168}")
+    private long retentionHours;
+
+    @Override
+    public String getName() {
+        return "change-log";
+    }
+
+    @Override
+    public int runBatch(int limit) {
+        long cutoff = System.currentTimeMillis() - retentionHours * 3_600_000L;
+        Long firstRetained = maintenanceMapper.findFirstChangeLogIdSince(cutoff);
+        long beforeId = firstRetained != null ? firstRetained : changeLogMapper.findMaxId();
+        if (beforeId <= 0) {
+            return 0;
+        }
+        return maintenanceMapper.deleteChangeLogBefore(beforeId, limit);
+    }
+}
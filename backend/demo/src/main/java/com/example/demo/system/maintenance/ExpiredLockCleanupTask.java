@@ -0,0 +1,42 @@
+package com.example.demo.system.maintenance;
+
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 清除已过期的登录锁定，同时重置登录失败次数
+ */
+@Component
+public class ExpiredLockCleanupTask implements MaintenanceTask {
+
+    @Autowired
+    private MaintenanceMapper maintenanceMapper;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Override
+    public String getName() {
+        return "expired-locks";
+    }
+
+    @Override
+    @Transactional
+    public int runBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = maintenanceMapper.findExpiredLockUserIds(now, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        maintenanceMapper.clearExpiredLocks(ids, now);
+        invalidationBus.publishAll(CacheNames.USERS, ids);
+        // 按取出的行数判断是否还有下一批，期间被其他请求解锁的行不影响
+        return ids.size();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.system.maintenance;
+
+import com.example.demo.common.BusinessException;
+import com.example.demo.common.ErrorCode;
+import com.example.demo.system.dto.MaintenanceReport;
+import com.example.demo.system.dto.MaintenanceTaskReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 维护任务执行器
+ * 每个任务按批执行，批与批之间按 rows-per-second 限速，避免长时间占用锁和复制带宽；
+ * 单个任务超过 max-task-duration-ms 时提前结束，剩余部分留给下一次运行。
+ * 同一实例上同时只允许一次运行。
+ */
+@Component
+public class MaintenanceEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceEngine.class);
+
+    @Autowired
+    private List<MaintenanceTask> tasks;
+
+    @Value("${maintenance.enabled:true}")
+    private boolean scheduleEnabled;
+
+    @Value("${maintenance.batch-size:500}")
+    private int batchSize;
+
+    @Value("${maintenance.rows-per-second:2000}")
+    private int rowsPerSecond;
+
+    @Value("${maintenance.max-task-duration-ms:300000}")
+    private long maxTaskDurationMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile MaintenanceReport lastReport;
+
+    /**
+     * 定时执行全部任务
+     */
+    @Scheduled(cron = "${maintenance.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!scheduleEnabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            execute("scheduled", tasks);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 手动执行；names 为空时执行全部任务
+     */
+    public MaintenanceReport run(Collection<String> names) {
+        List<MaintenanceTask> selected = new ArrayList<>();
+        for (MaintenanceTask task : tasks) {
+            if (names == null || names.isEmpty() || names.contains(task.getName())) {
+                selected.add(task);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "未知的维护任务: " + names);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER, "维护任务正在执行，请稍后再试");
+        }
+        try {
+            return execute("manual", selected);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public MaintenanceReport getLastReport() {
+        return lastReport;
+    }
+
+    public List<String> getTaskNames() {
+        return tasks.stream().map(MaintenanceTask::getName).toList();
+    }
+
+    private MaintenanceReport execute(String trigger, List<MaintenanceTask> selected) {
+        long start = System.currentTimeMillis();
+        logger.info("开始执行系统维护: trigger={}, tasks={}", trigger, selected.stream().map(MaintenanceTask::getName).toList());
+        List<MaintenanceTaskReport> reports = new ArrayList<>();
+        for (MaintenanceTask task : selected) {
+            MaintenanceTaskReport report = runTask(task);
+            reports.add(report);
+            logger.info("维护任务完成: name={}, rows={}, batches={}, duration={}ms, rate={}/s{}",
+                report.getName(), report.getRowsProcessed(), report.getBatches(), report.getDurationMs(),
+                Math.round(report.getRowsPerSecond()), report.getError() != null ? ", error=" + report.getError() : "");
+        }
+        MaintenanceReport report = new MaintenanceReport(trigger, start, System.currentTimeMillis() - start, reports);
+        lastReport = report;
+        return report;
+    }
+
+    private MaintenanceTaskReport runTask(MaintenanceTask task) {
+        MaintenanceTaskReport report = new MaintenanceTaskReport();
+        report.setName(task.getName());
+        long start = System.nanoTime();
+        long rows = 0;
+        int batches = 0;
+        try {
+            while (true) {
+                int processed = task.runBatch(batchSize);
+                rows += processed;
+                batches++;
+                if (processed < batchSize) {
+                    break;
+                }
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                if (elapsedMs >= maxTaskDurationMs) {
+                    report.setTruncated(true);
+                    break;
+                }
+                throttle(rows, elapsedMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.setError("interrupted");
+        } catch (Exception e) {
+            logger.error("维护任务失败: {}", task.getName(), e);
+            report.setError(e.getMessage());
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        report.setRowsProcessed(rows);
+        report.setBatches(batches);
+        report.setDurationMs(durationMs);
+        report.setRowsPerSecond(durationMs > 0 ? rows * 1000.0 / durationMs : rows);
+        return report;
+    }
+
+    /**
+     * 处理速度超过上限时暂停到平均速度回到上限以内
+     */
+    private void throttle(long rows, long elapsedMs) throws InterruptedException {
+        if (rowsPerSecond <= 0) {
+            return;
+        }
+        long expectedMs = rows * 1000 / rowsPerSecond;
+        if (expectedMs > elapsedMs) {
+            Thread.sleep(expectedMs - elapsedMs);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.system.maintenance;
+
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 维护任务数据访问接口
+ * 每个操作都先按主键取一小批ID，再按ID修改，单条语句只锁定这一批行。
+ */
+@Mapper
+public interface MaintenanceMapper {
+
+    /**
+     * 查询锁定已过期的用户ID
+     */
+    @Select("SELECT id FROM users WHERE locked_until IS NOT NULL AND locked_until < #{now} ORDER BY id LIMIT #{limit}")
+    List<Long> findExpiredLockUserIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 清除过期锁定并重置登录失败次数
+     */
+    @Update("<script>" +
+            "UPDATE users SET locked_until = NULL, login_attempts = 0 " +
+            "WHERE locked_until &lt; #{now} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int clearExpiredLocks(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * 保留期内最早的变更序号；全部过期时返回 null
+     */
+    @Select("SELECT MIN(id) FROM cache_change_log WHERE created_at >= #{cutoff}")
+    Long findFirstChangeLogIdSince(@Param("cutoff") long cutoff);
+
+    /**
+     * 按主键顺序删除一批变更日志
+     */
+    @Delete("DELETE FROM cache_change_log WHERE id < #{beforeId} ORDER BY id LIMIT #{limit}")
+    int deleteChangeLogBefore(@Param("beforeId") long beforeId, @Param("limit") int limit);
+
+    /**
+     * 查询软删除超过保留期的用户ID
+     */
+    @Select("SELECT id FROM users WHERE deleted_at IS NOT NULL AND deleted_at < #{cutoff} ORDER BY id LIMIT #{limit}")
+    List<Long> findArchivableUserIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * 复制到用户归档表（登录失败次数、锁定状态等临时字段不归档）
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO users_archive (id, username, email, phone, password_hash, nickname, avatar_url, bio, " +
+            "status, email_verified, phone_verified, last_login_at, last_login_ip, created_at, updated_at, deleted_at, archived_at) " +
+            "SELECT id, username, email, phone, password_hash, nickname, avatar_url, bio, " +
+            "status, email_verified, phone_verified, last_login_at, last_login_ip, created_at, updated_at, deleted_at, NOW() " +
+            "FROM users WHERE deleted_at IS NOT NULL AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int archiveUsers(@Param("ids") List<Long> ids);
+
+    /**
+     * 删除已归档的用户（user_roles 随外键级联删除）
+     */
+    @Delete("<script>" +
+            "DELETE FROM users WHERE deleted_at IS NOT NULL AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteUsers(@Param("ids") List<Long> ids);
+
+    /**
+     * 查询软删除超过保留期的角色ID
+     */
+    @Select("SELECT id FROM roles WHERE deleted_at IS NOT NULL AND deleted_at < #{cutoff} ORDER BY id LIMIT #{limit}")
+    List<Long> findArchivableRoleIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * 复制到角色归档表
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO roles_archive (id, code, name, description, status, is_system, " +
+            "created_at, updated_at, deleted_at, archived_at) " +
+            "SELECT id, code, name, description, status, is_system, created_at, updated_at, deleted_at, NOW() " +
+            "FROM roles WHERE deleted_at IS NOT NULL AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int archiveRoles(@Param("ids") List<Long> ids);
+
+    /**
+     * 删除已归档的角色（user_roles、role_permissions 随外键级联删除）
+     */
+    @Delete("<script>" +
+            "DELETE FROM roles WHERE deleted_at IS NOT NULL AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteRoles(@Param("ids") List<Long> ids);
+}
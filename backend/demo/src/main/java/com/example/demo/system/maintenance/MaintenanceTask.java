@@ -0,0 +1,17 @@
+package com.example.demo.system.maintenance;
+
+/**
+ * 可分批执行的维护任务
+ */
+public interface MaintenanceTask {
+
+    /**
+     * 任务名，用于报告和按名触发
+     */
+    String getName();
+
+    /**
+     * 处理一批（最多 limit 行）并返回本批取出的行数；少于 limit 表示已处理完
+     */
+    int runBatch(int limit);
+}
@@ -0,0 +1,72 @@
+package com.example.demo.system.maintenance;
+
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.system.stats.SystemStatsCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 把软删除超过保留期的用户、角色移到归档表
+ * 每批在一个短事务内完成复制和删除；关联的 user_roles / role_permissions 随外键级联删除。
+ * 先处理用户，用户处理完后再处理角色。
+ */
+@Component
+public class SoftDeleteArchiveTask implements MaintenanceTask {
+
+    @Autowired
+    private MaintenanceMapper maintenanceMapper;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private SystemStatsCounters systemStatsCounters;
+
+    @Value("${maintenance.archive-after-days:30}")
+    private int archiveAfterDays;
+
+    @Override
+    public String getName() {
+        return "archive-soft-deleted";
+    }
+
+    @Override
+    @Transactional
+    public int runBatch(int limit) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+
+        List<Long> userIds = maintenanceMapper.findArchivableUserIds(cutoff, limit);
+        if (!userIds.isEmpty()) {
+            maintenanceMapper.archiveUsers(userIds);
+            maintenanceMapper.deleteUsers(userIds);
+            invalidationBus.publishAll(CacheNames.USERS, userIds);
+            invalidationBus.publishAll(CacheNames.USER_ROLES, userIds);
+            systemStatsCounters.markDirty();
+            if (userIds.size() == limit) {
+                // 可能还有用户未处理，下一批继续
+                return limit;
+            }
+            // 按取出的行数判断是否还有下一批，期间已被删除的行不影响
+            return userIds.size() + archiveRoles(cutoff, limit - userIds.size());
+        }
+        return archiveRoles(cutoff, limit);
+    }
+
+    private int archiveRoles(LocalDateTime cutoff, int limit) {
+        List<Long> roleIds = maintenanceMapper.findArchivableRoleIds(cutoff, limit);
+        if (roleIds.isEmpty()) {
+            return 0;
+        }
+        maintenanceMapper.archiveRoles(roleIds);
+        maintenanceMapper.deleteRoles(roleIds);
+        invalidationBus.publishAll(CacheNames.ROLES, roleIds);
+        invalidationBus.publishAll(CacheNames.ROLE_PERMISSIONS, roleIds);
+        return roleIds.size();
+    }
+}
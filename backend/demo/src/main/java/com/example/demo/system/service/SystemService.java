@@ -0,0 +1,188 @@
+package com.example.demo.system.service;
+
+import com.example.demo.common.LogSampler;
+import com.example.demo.metrics.ActiveUserCounts;
+import com.example.demo.metrics.ActiveUserTracker;
+import com.example.demo.permission.mapper.PermissionMapper;
+import com.example.demo.rbac.snapshot.RbacSnapshotService;
+import com.example.demo.role.mapper.RoleMapper;
+import com.example.demo.system.dto.MaintenanceReport;
+import com.example.demo.system.dto.SystemStatsResponse;
+import com.example.demo.system.maintenance.MaintenanceEngine;
+import com.example.demo.system.stats.SystemStatsCounters;
+import com.example.demo.user.entity.User;
+import com.example.demo.user.mapper.UserMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 系统管理服务类
+ */
+@Service
+public class SystemService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemService.class);
+
+    // 权限/角色检查每个请求都会调用，INFO 日志每秒最多输出 5 条
+    private final LogSampler checkLogSampler = new LogSampler(1000, 5);
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private RbacSnapshotService rbacSnapshotService;
+
+    @Autowired
+    private SystemStatsCounters systemStatsCounters;
+
+    @Autowired
+    private ActiveUserTracker activeUserTracker;
+
+    @Autowired
+    private MaintenanceEngine maintenanceEngine;
+
+    /**
+     * 获取系统统计信息（读取内存计数器，定期与数据库对账；活跃用户为每分钟刷新的估计值）
+     */
+    public SystemStatsResponse getSystemStats() {
+        SystemStatsResponse stats = systemStatsCounters.getStats();
+        ActiveUserCounts activeUsers = activeUserTracker.getCounts();
+        if (activeUsers != null) {
+            stats.setDailyActiveUsers(activeUsers.getDaily());
+            stats.setWeeklyActiveUsers(activeUsers.getWeekly());
+            stats.setMonthlyActiveUsers(activeUsers.getMonthly());
+        }
+        logger.debug("系统统计信息: 用户总数={}, 活跃用户={}, 角色总数={}, 系统角色={}, 权限总数={}, 系统权限={}",
+            stats.getTotalUsers(), stats.getActiveUsers(), stats.getTotalRoles(), stats.getSystemRoles(),
+            stats.getTotalPermissions(), stats.getSystemPermissions());
+        return stats;
+    }
+
+    /**
+     * 执行系统清理（维护任务），tasks 为空时执行全部任务
+     */
+    public MaintenanceReport cleanup(List<String> tasks) {
+        logger.info("开始执行系统清理: tasks={}", tasks);
+        return maintenanceEngine.run(tasks);
+    }
+
+    /**
+     * 检查用户是否拥有指定权限
+     */
+    public boolean checkUserPermission(Long userId, String permissionCode) {
+        return checkUserPermission(userId, permissionCode, null);
+    }
+
+    /**
+     * 检查用户是否拥有指定权限，条件授权按给定的资源/请求属性求值
+     */
+    public boolean checkUserPermission(Long userId, String permissionCode, Map<String, Object> attributes) {
+        try {
+            // 快照已加载时直接在内存中判断（含条件授权），否则查询用户的无条件权限
+            boolean hasPermission = rbacSnapshotService.isReady()
+                ? rbacSnapshotService.hasPermission(userId, permissionCode, () -> resolveAttributes(userId, attributes))
+                : permissionMapper.findPermissionCodesByUserId(userId).contains(permissionCode);
+            
+            if (checkLogSampler.allow()) {
+                logger.info("用户权限检查: userId={}, permissionCode={}, hasPermission={} (期间省略{}条)",
+                    userId, permissionCode, hasPermission, checkLogSampler.takeSuppressed());
+            }
+            
+            return hasPermission;
+        } catch (Exception e) {
+            logger.error("检查用户权限失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 组装条件求值所需属性：user.* 由服务端从用户记录填充，调用方只能提供 resource.* / request.*
+     */
+    private Map<String, Object> resolveAttributes(Long userId, Map<String, Object> requestAttributes) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (requestAttributes != null) {
+            requestAttributes.forEach((name, value) -> {
+                if (name.startsWith("resource.") || name.startsWith("request.")) {
+                    attributes.put(name, value);
+                } else {
+                    logger.debug("忽略不允许的条件属性: {}", name);
+                }
+            });
+        }
+        User user = userMapper.findById(userId);
+        if (user != null) {
+            attributes.put("user.id", user.getId());
+            attributes.put("user.username", user.getUsername());
+            attributes.put("user.status", user.getStatus());
+            attributes.put("user.emailVerified", user.getEmailVerified());
+            attributes.put("user.phoneVerified", user.getPhoneVerified());
+        }
+        return attributes;
+    }
+
+    /**
+     * 检查用户是否拥有指定角色
+     */
+    public boolean checkUserRole(Long userId, String roleCode) {
+        try {
+            // 快照已加载时直接在内存中判断，否则查询用户的所有角色
+            boolean hasRole = rbacSnapshotService.isReady()
+                ? rbacSnapshotService.hasRole(userId, roleCode)
+                : roleMapper.findRoleCodesByUserId(userId).contains(roleCode);
+            
+            if (checkLogSampler.allow()) {
+                logger.info("用户角色检查: userId={}, roleCode={}, hasRole={} (期间省略{}条)",
+                    userId, roleCode, hasRole, checkLogSampler.takeSuppressed());
+            }
+            
+            return hasRole;
+        } catch (Exception e) {
+            logger.error("检查用户角色失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 获取用户权限列表
+     */
+    public List<String> getUserPermissions(Long userId) {
+        try {
+            List<String> permissions = rbacSnapshotService.isReady()
+                ? rbacSnapshotService.getPermissionCodes(userId)
+                : permissionMapper.findPermissionCodesByUserId(userId);
+            logger.debug("用户权限列表: userId={}, permissions={}", userId, permissions);
+            return permissions;
+        } catch (Exception e) {
+            logger.error("获取用户权限列表失败", e);
+            throw new RuntimeException("获取用户权限列表失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取用户角色列表
+     */
+    public List<String> getUserRoles(Long userId) {
+        try {
+            List<String> roles = rbacSnapshotService.isReady()
+                ? rbacSnapshotService.getRoleCodes(userId)
+                : roleMapper.findRoleCodesByUserId(userId);
+            logger.debug("用户角色列表: userId={}, roles={}", userId, roles);
+            return roles;
+        } catch (Exception e) {
+            logger.error("获取用户角色列表失败", e);
+            throw new RuntimeException("获取用户角色列表失败: " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.example.demo.system.stats;
+
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.permission.mapper.PermissionMapper;
+import com.example.demo.role.mapper.RoleMapper;
+import com.example.demo.system.dto.SystemStatsResponse;
+import com.example.demo.user.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 系统统计计数器
+ * 用户/角色/权限的增删改在提交后增量更新内存计数，统计接口直接读取，不再每次执行 COUNT(*)。
+ * 其他实例的修改、批量脚本等无法感知的变化通过定期与数据库对账纠正；
+ * 收到其他实例的失效事件时提前对账。
+ */
+@Component
+public class SystemStatsCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemStatsCounters.class);
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    private final Counter totalUsers = new Counter();
+    private final Counter activeUsers = new Counter();
+    private final Counter totalRoles = new Counter();
+    private final Counter systemRoles = new Counter();
+    private final Counter totalPermissions = new Counter();
+    private final Counter systemPermissions = new Counter();
+
+    private volatile boolean initialized;
+    private volatile boolean dirty;
+    private volatile long lastReconciledAt;
+
+    @PostConstruct
+    public void registerInvalidationListeners() {
+        invalidationBus.register(CacheNames.USERS, events -> dirty = true);
+        invalidationBus.register(CacheNames.ROLES, events -> dirty = true);
+        invalidationBus.register(CacheNames.PERMISSIONS, events -> dirty = true);
+    }
+
+    /**
+     * 当前统计；尚未与数据库对账过时先同步对账一次
+     */
+    public SystemStatsResponse getStats() {
+        if (!initialized) {
+            reconcile();
+        }
+        return new SystemStatsResponse(
+            totalUsers.get(), totalRoles.get(), totalPermissions.get(),
+            activeUsers.get(), systemRoles.get(), systemPermissions.get()
+        );
+    }
+
+    /**
+     * 批量修改后请求尽快对账（批量操作不逐行维护增量）；在事务内调用时提交后才生效，避免对账读到提交前的计数
+     */
+    public void markDirty() {
+        afterCommit(() -> dirty = true);
+    }
+
+    public long getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    public void userCreated(Integer status) {
+        afterCommit(() -> {
+            totalUsers.add(1);
+            if (isActive(status)) {
+                activeUsers.add(1);
+            }
+        });
+    }
+
+    public void userStatusChanged(Integer oldStatus, Integer newStatus) {
+        boolean wasActive = isActive(oldStatus);
+        boolean active = isActive(newStatus);
+        if (wasActive != active) {
+            afterCommit(() -> activeUsers.add(active ? 1 : -1));
+        }
+    }
+
+    public void roleCreated(Boolean isSystem) {
+        afterCommit(() -> {
+            totalRoles.add(1);
+            if (Boolean.TRUE.equals(isSystem)) {
+                systemRoles.add(1);
+            }
+        });
+    }
+
+    public void roleDeleted(Boolean isSystem) {
+        afterCommit(() -> {
+            totalRoles.add(-1);
+            if (Boolean.TRUE.equals(isSystem)) {
+                systemRoles.add(-1);
+            }
+        });
+    }
+
+    public void permissionCreated(Boolean isSystem) {
+        afterCommit(() -> {
+            totalPermissions.add(1);
+            if (Boolean.TRUE.equals(isSystem)) {
+                systemPermissions.add(1);
+            }
+        });
+    }
+
+    public void permissionDeleted(Boolean isSystem) {
+        afterCommit(() -> {
+            totalPermissions.add(-1);
+            if (Boolean.TRUE.equals(isSystem)) {
+                systemPermissions.add(-1);
+            }
+        });
+    }
+
+    /**
+     * 收到其他实例的变更后尽快对账
+     */
+    @Scheduled(fixedDelayString = "${system.stats.dirty-check-interval-ms:5000}")
+    public void reconcileIfDirty() {
+        if (dirty && initialized) {
+            reconcile();
+        }
+    }
+
+    /**
+     * 定期与数据库对账，纠正计数漂移
+     */
+    @Scheduled(fixedDelayString = "${system.stats.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.warn("系统统计对账失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 用数据库计数校正内存计数
+     */
+    public synchronized void reconcile() {
+        dirty = false;
+        long drift = 0;
+        drift += totalUsers.reconcile(userMapper.countAll());
+        drift += activeUsers.reconcile(userMapper.countByStatus(1));
+        drift += totalRoles.reconcile(roleMapper.countAll());
+        drift += systemRoles.reconcile(roleMapper.countByIsSystem(true));
+        drift += totalPermissions.reconcile(permissionMapper.countAll());
+        drift += systemPermissions.reconcile(permissionMapper.countByIsSystem(true));
+        if (initialized && drift != 0) {
+            logger.info("系统统计对账纠正漂移: {}", drift);
+        }
+        initialized = true;
+        lastReconciledAt = System.currentTimeMillis();
+    }
+
+    private static boolean isActive(Integer status) {
+        return status != null && status == 1;
+    }
+
+    /**
+     * 有事务时在提交后执行，否则立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 对账基准值 + 之后的增量；增量用 LongAdder 分散并发写入的竞争
+     */
+    private static final class Counter {
+        private final LongAdder delta = new LongAdder();
+        private volatile long base;
+
+        long get() {
+            return base + delta.sum();
+        }
+
+        void add(long n) {
+            delta.add(n);
+        }
+
+        /**
+         * 查询结束后再读取增量，只有“已提交但提交回调尚未执行”的极短窗口会重复计数，下次对账纠正
+         */
+        long reconcile(Long dbCount) {
+            long actual = dbCount != null ? dbCount : 0;
+            long drift = get() - actual;
+            base = actual - delta.sum();
+            return Math.abs(drift);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -62,4 +63,9 @@ public interface UserMapper {
      * 根据状态统计用户数量
      */
     Long countByStatus(@Param("status") Integer status);
+    
+    /**
+     * 批量查询未删除的用户ID
+     */
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
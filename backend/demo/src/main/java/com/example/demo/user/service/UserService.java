@@ -2,8 +2,11 @@ package com.example.demo.user.service;
 
 import com.example.demo.auth.dto.LoginRequest;
 import com.example.demo.auth.dto.RegisterRequest;
+import com.example.demo.cache.CacheNames;
+import com.example.demo.cache.InvalidationBus;
 import com.example.demo.common.BusinessException;
 import com.example.demo.common.ErrorCode;
+import com.example.demo.system.stats.SystemStatsCounters;
 import com.example.demo.user.entity.User;
 import com.example.demo.user.mapper.UserMapper;
 import com.example.demo.util.IpUtil;
@@ -33,6 +36,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private SystemStatsCounters systemStatsCounters;
+
     /**
      * 用户注册
      */
@@ -68,6 +77,7 @@ public class UserService {
         
         // 保存用户
         userMapper.insert(user);
+        systemStatsCounters.userCreated(user.getStatus());
         
         return user;
     }
@@ -143,6 +153,9 @@ public class UserService {
                 logger.warn("用户因多次登录失败被锁定30分钟, 用户ID: {}", user.getId());
             }
             userMapper.update(user);
+            if (user.getLockedUntil() != null) {
+                invalidationBus.publish(CacheNames.USERS, user.getId());
+            }
             throw new BusinessException(ErrorCode.INVALID_CREDENTIALS, "用户名或密码错误");
         }
 
@@ -153,6 +166,7 @@ public class UserService {
             user.setLoginAttempts(0);
             user.setLockedUntil(null);
             userMapper.update(user);
+            invalidationBus.publish(CacheNames.USERS, user.getId());
             logger.debug("重置登录失败次数");
         }
 
@@ -199,6 +213,7 @@ public class UserService {
 
         // 保存更新
         userMapper.update(user);
+        invalidationBus.publish(CacheNames.USERS, userId);
         
         return user;
     }
@@ -223,6 +238,7 @@ public class UserService {
 
         // 保存更新
         userMapper.update(user);
+        invalidationBus.publish(CacheNames.USERS, userId);
     }
 
     /**
@@ -253,6 +269,7 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
 
         userMapper.insert(user);
+        systemStatsCounters.userCreated(user.getStatus());
         logger.info("管理员创建用户成功: {}", username);
         
         return user;
@@ -289,6 +306,8 @@ public class UserService {
 
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.update(user);
+        systemStatsCounters.userStatusChanged(existingUser.getStatus(), user.getStatus());
+        invalidationBus.publish(CacheNames.USERS, user.getId());
         logger.info("管理员更新用户信息成功: {}", user.getUsername());
         
         return userMapper.findById(user.getId());
@@ -308,6 +327,7 @@ public class UserService {
         user.setDeletedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.update(user);
+        invalidationBus.publish(CacheNames.USERS, userId);
         
         logger.info("管理员删除用户成功: {}", user.getUsername());
         return true;
@@ -322,9 +342,12 @@ public class UserService {
             return false;
         }
 
+        Integer oldStatus = user.getStatus();
         user.setStatus(status);
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.update(user);
+        systemStatsCounters.userStatusChanged(oldStatus, status);
+        invalidationBus.publish(CacheNames.USERS, userId);
         
         logger.info("管理员更新用户状态成功: {} -> {}", user.getUsername(), status);
         return true;
@@ -346,6 +369,7 @@ public class UserService {
         user.setPasswordHash(encodedPassword);
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.update(user);
+        invalidationBus.publish(CacheNames.USERS, userId);
         
         logger.info("管理员重置用户密码成功: {}", user.getUsername());
         return newPassword;
@@ -0,0 +1,160 @@
+package com.example.demo.cache;
+
+import com.example.demo.cache.entity.CacheChangeLog;
+import com.example.demo.cache.entity.ChangeLogRange;
+import com.example.demo.cache.mapper.CacheChangeLogMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogCursorTest {
+
+    private final InMemoryChangeLog log = new InMemoryChangeLog();
+
+    @Test
+    void rowsAboveAGapAreReturnedImmediately() {
+        ChangeLogCursor cursor = new ChangeLogCursor(log, 0, 60_000);
+        log.commit(1, 2, 4, 5);
+
+        assertEquals(List.of(1L, 2L, 4L, 5L), ids(cursor.next(100)));
+        // 3 可能仍未提交，位置停在空洞之前
+        assertEquals(2, cursor.position());
+        assertTrue(cursor.next(100).isEmpty());
+    }
+
+    @Test
+    void lateCommitInsideAGapIsStillDelivered() {
+        ChangeLogCursor cursor = new ChangeLogCursor(log, 0, 60_000);
+        log.commit(1, 2, 5);
+        assertEquals(List.of(1L, 2L, 5L), ids(cursor.next(100)));
+
+        // 长事务未提交期间新记录持续写入
+        log.commit(6, 7);
+        assertEquals(List.of(6L, 7L), ids(cursor.next(100)));
+
+        log.commit(4);
+        assertEquals(List.of(4L), ids(cursor.next(100)));
+        assertEquals(2, cursor.position());
+        log.commit(3);
+        assertEquals(List.of(3L), ids(cursor.next(100)));
+        assertEquals(7, cursor.position());
+        assertTrue(cursor.next(100).isEmpty());
+    }
+
+    @Test
+    void gapIsAbandonedAfterTimeout() throws Exception {
+        ChangeLogCursor cursor = new ChangeLogCursor(log, 0, 50);
+        log.commit(1, 3);
+        assertEquals(List.of(1L, 3L), ids(cursor.next(100)));
+        assertEquals(1, cursor.position());
+
+        // 回滚留下的永久空洞：超时后不再阻挡位置
+        Thread.sleep(80);
+        assertTrue(cursor.next(100).isEmpty());
+        assertEquals(3, cursor.position());
+    }
+
+    @Test
+    void manyRowsAboveAGapDoNotStallTheCursor() {
+        ChangeLogCursor cursor = new ChangeLogCursor(log, 0, 60_000);
+        for (long id = 2; id <= 25; id++) {
+            log.commit(id);
+        }
+        List<Long> seen = new ArrayList<>();
+        List<CacheChangeLog> rows;
+        while (!(rows = cursor.next(10)).isEmpty()) {
+            seen.addAll(ids(rows));
+        }
+        assertEquals(24, seen.size());
+        assertEquals(0, cursor.position());
+
+        log.commit(1);
+        assertEquals(List.of(1L), ids(cursor.next(10)));
+        assertEquals(25, cursor.position());
+    }
+
+    @Test
+    void startingNowReplaysTheRecentWindow() {
+        long now = System.currentTimeMillis();
+        log.commitAt(now - 120_000, 1, 2);
+        log.commitAt(now, 3, 5);
+
+        ChangeLogCursor cursor = ChangeLogCursor.startingNow(log, 60_000);
+        assertEquals(2, cursor.position());
+        assertEquals(List.of(3L, 5L), ids(cursor.next(100)));
+        // 启动时进行中的事务稍后提交
+        assertEquals(3, cursor.position());
+        log.commitAt(now, 4);
+        assertEquals(List.of(4L), ids(cursor.next(100)));
+        assertEquals(5, cursor.position());
+    }
+
+    private static List<Long> ids(List<CacheChangeLog> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (CacheChangeLog row : rows) {
+            ids.add(row.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 只包含已提交记录的变更日志表
+     */
+    static final class InMemoryChangeLog implements CacheChangeLogMapper {
+        private final TreeMap<Long, CacheChangeLog> rows = new TreeMap<>();
+
+        void commit(long... ids) {
+            commitAt(System.currentTimeMillis(), ids);
+        }
+
+        void commitAt(long createdAt, long... ids) {
+            for (long id : ids) {
+                CacheChangeLog row = new CacheChangeLog("users", String.valueOf(id), "test", createdAt);
+                row.setId(id);
+                rows.put(id, row);
+            }
+        }
+
+        @Override
+        public int batchInsert(List<CacheChangeLog> entries) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CacheChangeLog> findAfter(long cursor, int limit) {
+            return rows.tailMap(cursor, false).values().stream().limit(limit).toList();
+        }
+
+        @Override
+        public List<CacheChangeLog> findInRanges(List<ChangeLogRange> ranges, int limit) {
+            return rows.values().stream()
+                .filter(row -> ranges.stream().anyMatch(r -> row.getId() >= r.getFrom() && row.getId() <= r.getTo()))
+                .limit(limit)
+                .toList();
+        }
+
+        @Override
+        public Long findLastIdBefore(long before) {
+            return rows.descendingMap().values().stream()
+                .filter(row -> row.getCreatedAt() < before)
+                .map(CacheChangeLog::getId)
+                .findFirst()
+                .orElse(null);
+        }
+
+        @Override
+        public long findMaxId() {
+            return rows.isEmpty() ? 0 : rows.lastKey();
+        }
+
+        @Override
+        public long findMinId() {
+            return rows.isEmpty() ? 0 : rows.firstKey();
+        }
+    }
+}
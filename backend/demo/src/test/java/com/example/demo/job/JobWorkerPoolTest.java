@@ -0,0 +1,183 @@
+package com.example.demo.job;
+
+import com.example.demo.cache.InvalidationBus;
+import com.example.demo.job.entity.Job;
+import com.example.demo.job.mapper.JobMapper;
+import com.example.demo.job.service.JobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobWorkerPoolTest {
+
+    private static final String WORKER = "instance-1";
+    private static final String TYPE = "test";
+
+    private final JobService jobService = mock(JobService.class);
+    private final JobMapper jobMapper = mock(JobMapper.class);
+    private final InvalidationBus invalidationBus = mock(InvalidationBus.class);
+    private final JobHandler handler = mock(JobHandler.class);
+    private final JobWorkerPool pool = new JobWorkerPool();
+
+    @BeforeEach
+    void setUp() {
+        when(invalidationBus.getInstanceId()).thenReturn(WORKER);
+        when(jobService.getHandler(TYPE)).thenReturn(handler);
+        ReflectionTestUtils.setField(pool, "jobService", jobService);
+        ReflectionTestUtils.setField(pool, "jobMapper", jobMapper);
+        ReflectionTestUtils.setField(pool, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(pool, "invalidationBus", invalidationBus);
+        ReflectionTestUtils.setField(pool, "idle", new Semaphore(0));
+        ReflectionTestUtils.setField(pool, "leaseMs", 60000L);
+        ReflectionTestUtils.setField(pool, "retryBaseDelayMs", 1000L);
+        ReflectionTestUtils.setField(pool, "retryMaxDelayMs", 60000L);
+    }
+
+    @Test
+    void retryDelayGrowsExponentiallyWithJitter() {
+        for (int i = 0; i < 200; i++) {
+            assertBetween(800, 1200, retryDelayMs(1));
+            assertBetween(1600, 2400, retryDelayMs(2));
+            assertBetween(6400, 9600, retryDelayMs(4));
+        }
+    }
+
+    @Test
+    void retryDelayIsCappedAtMax() {
+        for (int i = 0; i < 200; i++) {
+            assertBetween(48000, 72000, retryDelayMs(7));
+            // 移位溢出时同样取上限
+            assertBetween(48000, 72000, retryDelayMs(100));
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 500; i++) {
+            long delay = retryDelayMs(3);
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+        // 抖动确实分散了重试时间
+        assertTrue(max - min > 400, "jitter range too small: " + min + ".." + max);
+    }
+
+    @Test
+    void completionIsFencedByClaimedAttempts() {
+        Job job = job(7L, 3, 5);
+        when(jobMapper.markSucceeded(7L, WORKER, 3)).thenReturn(1);
+
+        runJob(job);
+
+        verify(jobMapper).markSucceeded(7L, WORKER, 3);
+        assertEquals(1, pool.getStats().getSucceeded());
+        assertEquals(0, pool.getStats().getLeaseLost());
+    }
+
+    @Test
+    void lostLeaseIsNotCountedAsSuccess() {
+        Job job = job(7L, 1, 5);
+        when(jobMapper.markSucceeded(7L, WORKER, 1)).thenReturn(0);
+
+        runJob(job);
+
+        assertEquals(0, pool.getStats().getSucceeded());
+        assertEquals(1, pool.getStats().getLeaseLost());
+    }
+
+    @Test
+    void failureRetriesWithClaimedAttemptsUntilExhausted() throws Exception {
+        doThrow(new IllegalStateException("boom")).when(handler).execute(any());
+        when(jobMapper.markRetry(eq(7L), eq(WORKER), eq(2), anyString(), anyLong())).thenReturn(1);
+        when(jobMapper.markFailed(eq(8L), eq(WORKER), eq(3), anyString())).thenReturn(0);
+
+        runJob(job(7L, 2, 3));
+        verify(jobMapper).markRetry(eq(7L), eq(WORKER), eq(2), anyString(), anyLong());
+        verify(jobMapper, never()).markFailed(eq(7L), anyString(), anyInt(), anyString());
+        assertEquals(1, pool.getStats().getRetried());
+
+        // 最后一次失败：租约已被回收，不计为失败
+        runJob(job(8L, 3, 3));
+        verify(jobMapper).markFailed(eq(8L), eq(WORKER), eq(3), anyString());
+        assertEquals(0, pool.getStats().getFailed());
+        assertEquals(1, pool.getStats().getLeaseLost());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void staleRunDoesNotDropTheNewerClaim() {
+        Job stale = job(7L, 1, 5);
+        Job current = job(7L, 2, 5);
+        Map<Long, Job> active = (Map<Long, Job>) ReflectionTestUtils.getField(pool, "active");
+        // 租约过期后本实例再次认领了同一任务
+        active.put(7L, current);
+        when(jobMapper.markSucceeded(7L, WORKER, 1)).thenReturn(0);
+
+        runJob(stale);
+
+        assertSame(current, active.get(7L));
+        pool.renewLeases();
+        verify(jobMapper).renewLeases(List.of(current), WORKER, 60000L);
+    }
+
+    @Test
+    void queueMetricsReflectTheLastRefresh() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(pool, "meterRegistry", registry);
+        pool.registerMetrics();
+        when(jobMapper.countRunnable()).thenReturn(3L);
+        when(jobMapper.countByStatus(Job.STATUS_PENDING)).thenReturn(5L);
+        when(jobMapper.countByStatus(Job.STATUS_RUNNING)).thenReturn(2L);
+        when(jobMapper.findOldestRunnableAgeMs()).thenReturn(1500L);
+
+        pool.refreshQueueMetrics();
+
+        assertEquals(3.0, registry.get("jobs.queue.depth").tag("status", "runnable").gauge().value());
+        assertEquals(2.0, registry.get("jobs.queue.depth").tag("status", "delayed").gauge().value());
+        assertEquals(2.0, registry.get("jobs.queue.depth").tag("status", "running").gauge().value());
+        assertEquals(1.5, registry.get("jobs.queue.oldest.age").timeGauge().value(TimeUnit.SECONDS));
+    }
+
+    private long retryDelayMs(int attempts) {
+        Long delay = ReflectionTestUtils.invokeMethod(pool, "retryDelayMs", attempts);
+        return delay;
+    }
+
+    private void runJob(Job job) {
+        ReflectionTestUtils.invokeMethod(pool, "runJob", job);
+    }
+
+    private static Job job(Long id, int attempts, int maxAttempts) {
+        Job job = new Job();
+        job.setId(id);
+        job.setType(TYPE);
+        job.setPayload("{}");
+        job.setAttempts(attempts);
+        job.setMaxAttempts(maxAttempts);
+        job.setStatus(Job.STATUS_RUNNING);
+        return job;
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " not in [" + min + ", " + max + "]");
+    }
+}
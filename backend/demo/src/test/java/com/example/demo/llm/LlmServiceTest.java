@@ -0,0 +1,56 @@
+package com.example.demo.llm;
+
+import com.example.demo.llm.dto.ChatRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.http.HttpClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LlmServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LlmService service = new LlmService();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(service, "apiUrl", "http://127.0.0.1:1/v1");
+        ReflectionTestUtils.setField(service, "apiKey", "k");
+        ReflectionTestUtils.setField(service, "defaultModel", "m");
+        ReflectionTestUtils.setField(service, "maxConcurrentStreams", 1);
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        ReflectionTestUtils.setField(service, "httpClient", new LlmHttpClient(registry, "http://127.0.0.1:1/v1", "k",
+            HttpClient.Version.HTTP_1_1, 1000, 1000));
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void permitIsReturnedWhenAsyncSetupFails() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(mock(ServletOutputStream.class));
+        when(request.startAsync()).thenThrow(new IllegalStateException("async not supported"));
+
+        // 只有一个名额：每次失败后都应归还，否则第二次会被当作超出并发上限
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> service.chatStream(new ChatRequest(), request, response));
+            assertEquals(0.0, registry.get("llm.streams.active").gauge().value());
+        }
+        assertEquals(0.0, registry.get("llm.streams.rejected").counter().count());
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.demo.llm;
+
+import com.example.demo.metrics.jfr.LlmCallEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StreamRelayTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AsyncContext asyncContext = mock(AsyncContext.class);
+    private final FakeOutput out = new FakeOutput();
+    private final FakeSubscription subscription = new FakeSubscription();
+    private final LlmCallEvent event = new LlmCallEvent();
+    private final AtomicInteger finishCount = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void eventsAreReframedAcrossChunkBoundaries() throws Exception {
+        StreamRelay relay = newRelay(0, 0);
+        relay.onSubscribe(subscription);
+        assertEquals(1, subscription.requested);
+
+        // 一行被拆在两个数据块中间，CRLF 结尾，注释行和空行被丢弃
+        relay.onNext(chunks("data: {\"a\"", ":1}\n\nda"));
+        relay.onNext(chunks("ta: x\r\n\n: keep-alive\n\n"));
+        relay.onNext(chunks("data: [DONE]\n\n"));
+        relay.onComplete();
+
+        assertEquals("data:{\"a\":1}\n\ndata:x\n\ndata:[DONE]\n\n", out.text());
+        assertEquals(2, event.chunks);
+        verify(asyncContext).complete();
+        assertEquals(1, finishCount.get());
+    }
+
+    @Test
+    void lastLineWithoutNewlineIsEmittedOnComplete() {
+        StreamRelay relay = newRelay(0, 0);
+        relay.onSubscribe(subscription);
+        relay.onNext(chunks("data: tail"));
+        assertEquals("", out.text());
+        relay.onComplete();
+        assertEquals("data:tail\n\n", out.text());
+    }
+
+    @Test
+    void oversizedLineStopsTheStream() throws Exception {
+        StreamRelay relay = newRelay(0, 0);
+        relay.onSubscribe(subscription);
+        byte[] huge = new byte[StreamRelay.MAX_LINE_BYTES + 1];
+        Arrays.fill(huge, (byte) 'x');
+        relay.onNext(List.of(ByteBuffer.wrap("data: ".getBytes(StandardCharsets.US_ASCII)), ByteBuffer.wrap(huge)));
+
+        assertEquals(1, subscription.cancels);
+        assertEquals("上游事件过大", errorOf(out.text()));
+        verify(asyncContext).complete();
+        assertEquals(1, finishCount.get());
+    }
+
+    @Test
+    void multilineUpstreamErrorStaysOneEvent() throws Exception {
+        StreamRelay relay = newRelay(0, 0);
+        String body = "{\n  \"error\": {\n    \"message\": \"Invalid \\\"model\\\"\"\n  }\n}";
+        relay.rejected(400, body);
+
+        String text = out.text();
+        assertTrue(text.startsWith("data:") && text.endsWith("\n\n"));
+        assertEquals(text.length() - 2, text.indexOf('\n'), "upstream newlines must be escaped");
+        assertEquals(body, errorOf(text));
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    void slowClientPausesUpstreamReads() throws Exception {
+        StreamRelay relay = newRelay(0, 0);
+        relay.onSubscribe(subscription);
+        assertEquals(1, subscription.requested);
+
+        out.ready = false;
+        relay.onNext(chunks("data: 1\n\n"));
+        // 客户端不可写时既不写出，也不向上游请求下一块
+        assertEquals("", out.text());
+        assertEquals(1, subscription.requested);
+
+        out.ready = true;
+        relay.writeListener().onWritePossible();
+        assertEquals("data:1\n\n", out.text());
+        assertEquals(1, out.flushes);
+        assertEquals(2, subscription.requested);
+    }
+
+    @Test
+    void coalescingHoldsEventsUntilTheWindowEnds() throws Exception {
+        StreamRelay relay = newRelay(300, 0);
+        relay.onSubscribe(subscription);
+
+        // 首个事件立即写出
+        relay.onNext(chunks("data: 1\n\n"));
+        assertEquals("data:1\n\n", out.text());
+        assertEquals(1, out.flushes);
+
+        // 窗口内的事件先攒着，同时继续向上游读取
+        relay.onNext(chunks("data: 2\n\n"));
+        relay.onNext(chunks("data: 3\n\n"));
+        assertEquals("data:1\n\n", out.text());
+        assertEquals(4, subscription.requested);
+
+        waitUntil(() -> out.flushes == 2, 2000);
+        assertEquals("data:1\n\ndata:2\n\ndata:3\n\n", out.text());
+        assertEquals(2, out.flushes);
+    }
+
+    @Test
+    void coalescingWritesEarlyOnceTheBatchIsFull() {
+        StreamRelay relay = newRelay(60_000, 0);
+        relay.onSubscribe(subscription);
+        relay.onNext(chunks("data: 1\n\n"));
+
+        byte[] large = new byte[StreamRelay.MAX_COALESCE_BYTES];
+        Arrays.fill(large, (byte) 'x');
+        relay.onNext(chunks("data: " + new String(large, StandardCharsets.US_ASCII) + "\n\n"));
+        // 攒够上限后不等窗口到期
+        assertEquals(2, out.flushes);
+        assertEquals(8 + 5 + large.length + 2, out.text().length());
+    }
+
+    @Test
+    void completionFlushesHeldEventsImmediately() {
+        StreamRelay relay = newRelay(60_000, 0);
+        relay.onSubscribe(subscription);
+        relay.onNext(chunks("data: 1\n\n"));
+        relay.onNext(chunks("data: 2\n\n"));
+        assertEquals("data:1\n\n", out.text());
+
+        relay.onComplete();
+        assertEquals("data:1\n\ndata:2\n\n", out.text());
+        verify(asyncContext).complete();
+        assertEquals(1, finishCount.get());
+    }
+
+    @Test
+    void clientDisconnectCancelsUpstreamOnce() {
+        StreamRelay relay = newRelay(0, 0);
+        CompletableFuture<Void> upstream = new CompletableFuture<>();
+        relay.setUpstream(upstream);
+        relay.onSubscribe(subscription);
+        relay.onNext(chunks("data: 1\n\n"));
+
+        relay.writeListener().onError(new IOException("Connection reset"));
+        // 容器随后的 onComplete 不应重复计数
+        relay.onComplete(new AsyncEvent(asyncContext));
+
+        assertEquals(1, subscription.cancels);
+        assertTrue(upstream.isCancelled());
+        assertTrue(event.cancelled);
+        assertEquals(1.0, cancelledCount(StreamMetrics.CLIENT_CLOSED));
+        assertEquals(1, finishCount.get());
+    }
+
+    @Test
+    void containerCompleteAfterNormalEndIsNotACancel() {
+        StreamRelay relay = newRelay(0, 0);
+        relay.onSubscribe(subscription);
+        relay.onNext(chunks("data: 1\n\n"));
+        relay.onComplete();
+        relay.onComplete(new AsyncEvent(asyncContext));
+
+        assertEquals(0, subscription.cancels);
+        assertFalse(event.cancelled);
+        assertEquals(0.0, cancelledCount(StreamMetrics.CLIENT_CLOSED));
+        verify(asyncContext, times(1)).complete();
+        assertEquals(1, finishCount.get());
+    }
+
+    @Test
+    void timeoutBeforeHeadersCancelsTheRequest() {
+        StreamRelay relay = newRelay(0, 0);
+        CompletableFuture<Void> upstream = new CompletableFuture<>();
+        relay.setUpstream(upstream);
+
+        relay.onTimeout(new AsyncEvent(asyncContext));
+        assertTrue(upstream.isCancelled());
+        assertEquals(1.0, cancelledCount(StreamMetrics.TIMEOUT));
+
+        // 响应头在超时后才到达，订阅立即取消
+        relay.onSubscribe(subscription);
+        assertEquals(1, subscription.cancels);
+        assertEquals(0, subscription.requested);
+        assertEquals(1, finishCount.get());
+    }
+
+    @Test
+    void writeFailureCountsAsClientClosed() {
+        StreamRelay relay = newRelay(0, 0);
+        relay.onSubscribe(subscription);
+        out.failWrites = true;
+        relay.onNext(chunks("data: 1\n\n"));
+
+        assertEquals(1, subscription.cancels);
+        assertEquals(1.0, cancelledCount(StreamMetrics.CLIENT_CLOSED));
+        assertEquals(1, finishCount.get());
+    }
+
+    @Test
+    void idleStreamSendsHeartbeat() throws Exception {
+        StreamRelay relay = newRelay(0, 50);
+        relay.onSubscribe(subscription);
+        relay.startHeartbeat();
+
+        waitUntil(() -> out.text().startsWith(":\n\n"), 2000);
+        relay.onComplete();
+        int flushes = out.flushes;
+        Thread.sleep(150);
+        // 结束后心跳停止
+        assertEquals(flushes, out.flushes);
+    }
+
+    private double cancelledCount(String reason) {
+        Counter counter = registry.find("llm.streams.cancelled").tag("reason", reason).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+
+    private static void waitUntil(BooleanSupplier condition, long timeoutMillis)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), "condition not met within " + timeoutMillis + "ms");
+    }
+
+    private StreamRelay newRelay(long coalesceMillis, long heartbeatMillis) {
+        try {
+            LlmHttpClient httpClient = new LlmHttpClient(registry, "http://127.0.0.1:1/v1", "k",
+                HttpClient.Version.HTTP_1_1, 1000, 1000);
+            StreamRelay.Settings settings = new StreamRelay.Settings(httpClient, new StreamMetrics(registry),
+                scheduler, coalesceMillis, heartbeatMillis);
+            return new StreamRelay(asyncContext, out, event, settings, finishCount::incrementAndGet);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<ByteBuffer> chunks(String... parts) {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (String part : parts) {
+            buffers.add(ByteBuffer.wrap(part.getBytes(StandardCharsets.UTF_8)));
+        }
+        return buffers;
+    }
+
+    private static String errorOf(String event) throws Exception {
+        String json = event.substring("data:".length(), event.length() - 2);
+        return new ObjectMapper().readTree(json).get("error").asText();
+    }
+
+    static final class FakeOutput extends ServletOutputStream {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        volatile boolean ready = true;
+        volatile boolean failWrites;
+        volatile int flushes;
+
+        @Override
+        public synchronized boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            written.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            if (failWrites) {
+                throw new IOException("Broken pipe");
+            }
+            written.write(b, off, len);
+        }
+
+        @Override
+        public synchronized void flush() {
+            flushes++;
+        }
+
+        synchronized String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    static final class FakeSubscription implements Flow.Subscription {
+        volatile long requested;
+        volatile int cancels;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancels++;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.entity.ActiveUserSketch;
+import com.example.demo.metrics.mapper.ActiveUserSketchMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActiveUserTrackerTest {
+
+    private final ActiveUserSketchMapper mapper = mock(ActiveUserSketchMapper.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ActiveUserTracker tracker = new ActiveUserTracker();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tracker, "activeUserSketchMapper", mapper);
+        ReflectionTestUtils.setField(tracker, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(tracker, "retentionDays", 400);
+        when(mapper.findRange(any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void firstWriterInsertsWithoutLocking() {
+        when(mapper.insertIfAbsent(any())).thenReturn(1);
+        for (long id = 1; id <= 1000; id++) {
+            tracker.record(id);
+        }
+        tracker.scheduledFlush();
+
+        verify(mapper, never()).findByDayForUpdate(any());
+        verify(mapper, never()).update(any());
+        assertWithin(1000, tracker.getCounts().getDaily());
+    }
+
+    @Test
+    void existingDayIsMergedUnderRowLock() {
+        HyperLogLog other = new HyperLogLog();
+        for (long id = 501; id <= 2000; id++) {
+            other.offer(id);
+        }
+        when(mapper.insertIfAbsent(any())).thenReturn(0);
+        when(mapper.findByDayForUpdate(any()))
+            .thenAnswer(invocation -> new ActiveUserSketch(invocation.getArgument(0), other.toBytes()));
+        for (long id = 1; id <= 1000; id++) {
+            tracker.record(id);
+        }
+        tracker.scheduledFlush();
+
+        // 加锁读取、合并、写回在同一个事务内
+        var order = inOrder(transactionManager, mapper);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(mapper).findByDayForUpdate(any());
+        order.verify(mapper).update(any());
+        order.verify(transactionManager).commit(any());
+
+        ArgumentCaptor<ActiveUserSketch> written = ArgumentCaptor.forClass(ActiveUserSketch.class);
+        verify(mapper).update(written.capture());
+        // 写回的是两个实例的并集，不会覆盖另一个实例的寄存器
+        assertWithin(2000, HyperLogLog.fromBytes(written.getValue().getRegisters()).estimate());
+        assertWithin(2000, tracker.getCounts().getDaily());
+    }
+
+    @Test
+    void failedSaveKeepsRegistersForNextFlush() {
+        when(mapper.insertIfAbsent(any())).thenReturn(0);
+        when(mapper.update(any())).thenThrow(new RuntimeException("deadlock")).thenReturn(1);
+        for (long id = 1; id <= 100; id++) {
+            tracker.record(id);
+        }
+        tracker.scheduledFlush();
+        assertNull(tracker.getCounts());
+        verify(transactionManager).rollback(any());
+
+        tracker.scheduledFlush();
+        ArgumentCaptor<ActiveUserSketch> written = ArgumentCaptor.forClass(ActiveUserSketch.class);
+        verify(mapper, times(2)).update(written.capture());
+        assertEquals(LocalDate.now(), written.getValue().getDay());
+        assertWithin(100, HyperLogLog.fromBytes(written.getValue().getRegisters()).estimate());
+        verify(mapper, times(2)).findByDayForUpdate(eq(LocalDate.now()));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertEquals(expected, actual, expected * 0.025);
+    }
+}
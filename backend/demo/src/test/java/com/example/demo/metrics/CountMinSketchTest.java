@@ -0,0 +1,62 @@
+package com.example.demo.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimateNeverUndercountsAndStaysWithinBound() {
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        Map<String, Integer> actual = new HashMap<>();
+        Random random = new Random(42);
+        int total = 200_000;
+        for (int i = 0; i < total; i++) {
+            // 少数热点键 + 大量长尾键
+            String key = random.nextInt(10) < 3 ? "hot-" + random.nextInt(5) : "ip-" + random.nextInt(50_000);
+            actual.merge(key, 1, Integer::sum);
+            sketch.add(CountMinSketch.hash(key));
+        }
+        // e / width × 总次数
+        double bound = Math.E / 2048 * total;
+        int outside = 0;
+        for (Map.Entry<String, Integer> entry : actual.entrySet()) {
+            int estimate = sketch.estimate(CountMinSketch.hash(entry.getKey()));
+            assertTrue(estimate >= entry.getValue(), "estimate below actual for " + entry.getKey());
+            if (estimate - entry.getValue() > bound) {
+                outside++;
+            }
+        }
+        // 超出上限的概率不超过 e^-4 ≈ 1.8%
+        assertTrue(outside <= actual.size() * 0.02, "keys over bound: " + outside);
+        for (int i = 0; i < 5; i++) {
+            String key = "hot-" + i;
+            assertEquals(actual.get(key), sketch.estimate(CountMinSketch.hash(key)), bound);
+        }
+    }
+
+    @Test
+    void addReturnsUpdatedEstimateAndClearResets() {
+        CountMinSketch sketch = new CountMinSketch(2, 64);
+        long hash = CountMinSketch.hash("10.0.0.1");
+        assertEquals(1, sketch.add(hash));
+        assertEquals(2, sketch.add(hash));
+        assertEquals(2, sketch.estimate(hash));
+        sketch.clear();
+        assertEquals(0, sketch.estimate(hash));
+    }
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(9, 1024));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimateIsWithinErrorBoundAcrossCardinalities() {
+        for (int cardinality : new int[]{1, 100, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (long id = 1; id <= cardinality; id++) {
+                sketch.offer(id);
+                // 重复出现的用户不增加估计值
+                sketch.offer(id);
+            }
+            // 标准误差约 0.8%，取 3 倍作为上限
+            assertWithin(cardinality, sketch.estimate(), 0.025);
+        }
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    void mergeIsIdempotentAndCommutative() {
+        HyperLogLog a = sketchOf(1, 60_000);
+        HyperLogLog b = sketchOf(40_001, 100_000);
+
+        HyperLogLog ab = a.copy();
+        ab.merge(b);
+        HyperLogLog ba = b.copy();
+        ba.merge(a);
+        assertArrayEquals(ab.toBytes(), ba.toBytes());
+
+        // 并集（重叠部分只计一次）
+        assertWithin(100_000, ab.estimate(), 0.025);
+
+        // 重复合并同一份数据（多实例反复刷新）不改变结果
+        byte[] before = ab.toBytes();
+        ab.merge(b);
+        ab.merge(a);
+        ab.merge(ab.copy());
+        assertArrayEquals(before, ab.toBytes());
+    }
+
+    @Test
+    void bytesRoundTripAndRejectCorruptData() {
+        HyperLogLog sketch = sketchOf(1, 5_000);
+        byte[] data = sketch.toBytes();
+        assertEquals(HyperLogLog.REGISTERS, data.length);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(data);
+        assertEquals(sketch.estimate(), restored.estimate());
+        // 恢复后的实例不与原数组共享
+        data[0] = 60;
+        assertEquals(sketch.estimate(), restored.estimate());
+
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[100]));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(null));
+    }
+
+    @Test
+    void concurrentOffersMatchSequentialResult() throws Exception {
+        HyperLogLog expected = sketchOf(1, 200_000);
+        HyperLogLog concurrent = new HyperLogLog();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                futures.add(pool.submit(() -> {
+                    for (long id = 1 + offset; id <= 200_000; id += 4) {
+                        concurrent.offer(id);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        // 寄存器只会被抬高，并发写入与顺序写入得到相同的寄存器
+        assertArrayEquals(expected.toBytes(), concurrent.toBytes());
+    }
+
+    private static HyperLogLog sketchOf(long from, long to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = from; id <= to; id++) {
+            sketch.offer(id);
+        }
+        return sketch;
+    }
+
+    private static void assertWithin(long expected, long actual, double tolerance) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= tolerance, "expected ~" + expected + " but was " + actual);
+    }
+}
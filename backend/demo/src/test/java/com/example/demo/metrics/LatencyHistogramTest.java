@@ -0,0 +1,61 @@
+package com.example.demo.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndUpperBoundIsWithin25Percent() {
+        int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        for (int bucket = 0; bucket < last; bucket++) {
+            long upper = LatencyHistogram.upperBound(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper));
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(upper + 1));
+        }
+        for (long micros = 0; micros < 2_000_000; micros += 7) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.bucketOf(micros));
+            assertTrue(upper >= micros && upper <= micros + micros / 4, micros + " -> " + upper);
+        }
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        assertEquals(0, LatencyHistogram.bucketOf(-5));
+        // 超过上限的值都计入最后一个桶，不按低位散落到最后一个区间的各个子桶
+        int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        assertEquals(last, LatencyHistogram.bucketOf(1L << 40));
+        assertEquals(last, LatencyHistogram.bucketOf((1L << 37) + (1L << 35)));
+        assertEquals(last, LatencyHistogram.bucketOf((1L << 37) - 1));
+    }
+
+    @Test
+    void percentilesRoundUpToBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.99));
+
+        for (int micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros);
+        }
+        assertBetween(500, histogram.percentile(0.5));
+        assertBetween(990, histogram.percentile(0.99));
+        assertBetween(1000, histogram.percentile(1.0));
+
+        // 少量慢请求决定 p99，不被大量快请求稀释
+        LatencyHistogram tail = new LatencyHistogram();
+        for (int i = 0; i < 980; i++) {
+            tail.record(200);
+        }
+        for (int i = 0; i < 20; i++) {
+            tail.record(50_000);
+        }
+        assertBetween(200, tail.percentile(0.98));
+        assertBetween(50_000, tail.percentile(0.99));
+    }
+
+    private static void assertBetween(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 4, "expected ~" + expected + " but was " + actual);
+    }
+}
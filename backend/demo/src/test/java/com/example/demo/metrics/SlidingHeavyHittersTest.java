@@ -0,0 +1,65 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.dto.HeavyHitter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingHeavyHittersTest {
+
+    private static final long SLOT_MILLIS = 10_000;
+
+    @Test
+    void ranksKeysAcrossSlots() {
+        SlidingHeavyHitters hitters = new SlidingHeavyHitters(6, SLOT_MILLIS, 4, 1024, 8);
+        long now = 1_000_000;
+        add(hitters, "10.0.0.1", 50, now);
+        add(hitters, "10.0.0.2", 20, now);
+        add(hitters, "10.0.0.1", 30, now + SLOT_MILLIS);
+        add(hitters, "10.0.0.3", 40, now + SLOT_MILLIS);
+
+        List<HeavyHitter> top = hitters.top(now + SLOT_MILLIS, 2);
+        assertEquals(2, top.size());
+        assertEquals("10.0.0.1", top.get(0).getKey());
+        assertEquals(80, top.get(0).getCount());
+        assertEquals("10.0.0.3", top.get(1).getKey());
+        assertEquals(80.0 / 140, top.get(0).getShare(), 1e-9);
+        assertEquals(140, hitters.total(now + SLOT_MILLIS));
+    }
+
+    @Test
+    void expiredSlotsLeaveTheWindow() {
+        SlidingHeavyHitters hitters = new SlidingHeavyHitters(6, SLOT_MILLIS, 4, 1024, 8);
+        long now = 1_000_000;
+        add(hitters, "old", 100, now);
+        add(hitters, "new", 10, now + 3 * SLOT_MILLIS);
+
+        // 第一个时间片在 6 个时间片之后滑出窗口
+        assertEquals(110, hitters.total(now + 5 * SLOT_MILLIS));
+        assertEquals(10, hitters.total(now + 6 * SLOT_MILLIS));
+        List<HeavyHitter> top = hitters.top(now + 6 * SLOT_MILLIS, 10);
+        assertEquals(1, top.size());
+        assertEquals("new", top.get(0).getKey());
+        assertTrue(hitters.top(now + 9 * SLOT_MILLIS, 10).isEmpty());
+    }
+
+    @Test
+    void reusedSlotStartsFromZero() {
+        SlidingHeavyHitters hitters = new SlidingHeavyHitters(3, SLOT_MILLIS, 4, 1024, 8);
+        long now = 1_000_000;
+        add(hitters, "a", 100, now);
+        // 同一个时间片位置在 3 个时间片之后被复用，旧计数不能残留
+        add(hitters, "a", 1, now + 3 * SLOT_MILLIS);
+        assertEquals(1, hitters.top(now + 3 * SLOT_MILLIS, 1).get(0).getCount());
+        assertEquals(1, hitters.total(now + 3 * SLOT_MILLIS));
+    }
+
+    private static void add(SlidingHeavyHitters hitters, String key, int times, long now) {
+        for (int i = 0; i < times; i++) {
+            hitters.add(key, now);
+        }
+    }
+}
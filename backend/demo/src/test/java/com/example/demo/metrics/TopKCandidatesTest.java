@@ -0,0 +1,52 @@
+package com.example.demo.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKCandidatesTest {
+
+    @Test
+    void evictsSmallestWhenFull() {
+        TopKCandidates candidates = new TopKCandidates(3);
+        candidates.offer("a", 5);
+        candidates.offer("b", 3);
+        candidates.offer("c", 8);
+        assertEquals(Set.of("a", "b", "c"), candidates.keys());
+
+        // 不超过当前最小值的新键被跳过
+        candidates.offer("d", 3);
+        assertFalse(candidates.keys().contains("d"));
+
+        // 更大的新键换出最小的一个
+        candidates.offer("e", 4);
+        assertEquals(Set.of("a", "c", "e"), candidates.keys());
+    }
+
+    @Test
+    void existingKeyIsUpdatedInPlace() {
+        TopKCandidates candidates = new TopKCandidates(2);
+        candidates.offer("a", 1);
+        candidates.offer("b", 2);
+        // 已在集合中的键即使估计值不高于门槛也会更新，不会被重复插入或换出
+        candidates.offer("a", 1);
+        candidates.offer("a", 10);
+        candidates.offer("c", 3);
+        assertEquals(Set.of("a", "c"), candidates.keys());
+    }
+
+    @Test
+    void clearResetsThreshold() {
+        TopKCandidates candidates = new TopKCandidates(1);
+        candidates.offer("a", 100);
+        candidates.offer("b", 50);
+        assertEquals(Set.of("a"), candidates.keys());
+        candidates.clear();
+        candidates.offer("b", 1);
+        assertTrue(candidates.keys().contains("b"));
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.rbac;
+
+import com.example.rbac.condition.AttributeSchema;
+import com.example.rbac.condition.Attributes;
+import com.example.rbac.condition.CompiledPolicy;
+import com.example.rbac.condition.ConditionCompiler;
+import com.example.rbac.snapshot.RbacSnapshot;
+import com.example.rbac.snapshot.RoleTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 授权决策引擎
+ *
+ * 由一份快照（用户 → 角色）、角色字典（角色 → 代码、权限、条件策略）以及快照之后变更过的用户覆盖表组成。
+ * 带条件的授权只在调用方提供属性时求值，不提供属性的检查视为条件不满足。
+ * 查询无锁；refreshUsers/reloadRoles 由调用方在数据变更后调用，可与查询并发执行。
+ */
+public class AuthorizationEngine {
+
+    private static final long[] NO_ROLES = new long[0];
+
+    private final AttributeSchema schema = new AttributeSchema();
+    private final ConditionCompiler compiler = new ConditionCompiler(schema);
+    private final RbacSnapshot snapshot;
+    private volatile RoleTable roles;
+    private final Map<Long, long[]> overlay = new ConcurrentHashMap<>();
+
+    public AuthorizationEngine(RbacSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.roles = RoleTable.fromSnapshot(snapshot, compiler);
+    }
+
+    /**
+     * 以内存映射方式打开快照文件
+     */
+    public static AuthorizationEngine open(Path snapshotFile) throws IOException {
+        return new AuthorizationEngine(RbacSnapshot.map(snapshotFile));
+    }
+
+    public boolean hasRole(long userId, String roleCode) {
+        RoleTable table = roles;
+        for (long roleId : getRoleIds(userId)) {
+            if (roleCode.equals(table.getCode(roleId))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasPermission(long userId, String permissionCode) {
+        RoleTable table = roles;
+        for (long roleId : getRoleIds(userId)) {
+            if (table.getPermissionCodes(roleId).contains(permissionCode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 带属性的权限检查：先看无条件授权，再依次对用户各角色的条件策略求值
+     * 属性只在需要求值条件时才通过 attributes 获取，且最多获取一次
+     */
+    public boolean hasPermission(long userId, String permissionCode, Supplier<Attributes> attributes) {
+        RoleTable table = roles;
+        long[] roleIds = getRoleIds(userId);
+        for (long roleId : roleIds) {
+            if (table.getPermissionCodes(roleId).contains(permissionCode)) {
+                return true;
+            }
+        }
+        Attributes resolved = null;
+        for (long roleId : roleIds) {
+            CompiledPolicy policy = table.getPolicy(roleId, permissionCode);
+            if (policy != null) {
+                if (resolved == null) {
+                    resolved = attributes.get();
+                }
+                if (policy.evaluate(resolved)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 创建一组空属性，用于带属性的权限检查
+     */
+    public Attributes newAttributes() {
+        return new Attributes(schema);
+    }
+
+    /**
+     * 所有条件策略及其求值统计
+     */
+    public List<CompiledPolicy> getPolicies() {
+        return roles.getPolicies();
+    }
+
+    /**
+     * 用户的角色代码（已删除的角色不返回）
+     */
+    public List<String> getRoleCodes(long userId) {
+        RoleTable table = roles;
+        List<String> codes = new ArrayList<>();
+        for (long roleId : getRoleIds(userId)) {
+            String code = table.getCode(roleId);
+            if (code != null) {
+                codes.add(code);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * 用户无条件拥有的权限代码（去重、有序）
+     */
+    public List<String> getPermissionCodes(long userId) {
+        RoleTable table = roles;
+        Set<String> codes = new TreeSet<>();
+        for (long roleId : getRoleIds(userId)) {
+            codes.addAll(table.getPermissionCodes(roleId));
+        }
+        return new ArrayList<>(codes);
+    }
+
+    /**
+     * 用户的角色ID：优先使用覆盖表，否则查快照
+     */
+    public long[] getRoleIds(long userId) {
+        long[] overridden = overlay.get(userId);
+        return overridden != null ? overridden : snapshot.findRoleIds(userId);
+    }
+
+    /**
+     * 角色或权限变更后重新加载角色字典
+     */
+    public void reloadRoles(RbacSource source) {
+        roles = RoleTable.load(source, compiler, roles);
+    }
+
+    /**
+     * 用户角色变更后重新读取这些用户的角色
+     */
+    public void refreshUsers(RbacSource source, Collection<Long> userIds) {
+        Map<Long, long[]> roleIds = source.findRoleIds(userIds);
+        for (Long userId : userIds) {
+            overlay.put(userId, roleIds.getOrDefault(userId, NO_ROLES));
+        }
+    }
+
+    public RbacSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public RoleTable getRoleTable() {
+        return roles;
+    }
+
+    /**
+     * 快照之后变更过的用户数
+     */
+    public int getOverlaySize() {
+        return overlay.size();
+    }
+}
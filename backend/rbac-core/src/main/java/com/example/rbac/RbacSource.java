@@ -0,0 +1,65 @@
+package com.example.rbac;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * RBAC 数据来源
+ * 由宿主应用实现（例如从数据库读取），授权核心只通过该接口获取数据
+ */
+public interface RbacSource {
+
+    /**
+     * 当前数据版本；生成快照时先读取版本再读取数据，之后从该版本开始追平变更
+     */
+    long currentVersion();
+
+    /**
+     * 遍历所有权限 (permissionId, code)
+     */
+    void forEachPermission(CodeConsumer consumer);
+
+    /**
+     * 遍历所有有效角色 (roleId, code)
+     */
+    void forEachRole(CodeConsumer consumer);
+
+    /**
+     * 遍历所有角色授权 (roleId, permissionId, condition)，无条件授权的 condition 为 null
+     */
+    void forEachGrant(GrantConsumer consumer);
+
+    /**
+     * 按用户ID升序遍历所有用户角色关系 (userId, roleId)，实现应流式读取而不是整体加载
+     */
+    void forEachMember(LinkConsumer consumer);
+
+    /**
+     * 批量读取一组用户的角色ID；没有角色的用户可以不出现在结果中
+     */
+    Map<Long, long[]> findRoleIds(Collection<Long> userIds);
+
+    /**
+     * (id, code) 回调
+     */
+    @FunctionalInterface
+    interface CodeConsumer {
+        void accept(long id, String code);
+    }
+
+    /**
+     * 角色授权回调
+     */
+    @FunctionalInterface
+    interface GrantConsumer {
+        void accept(long roleId, long permissionId, String condition);
+    }
+
+    /**
+     * (id, id) 回调
+     */
+    @FunctionalInterface
+    interface LinkConsumer {
+        void accept(long left, long right);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.rbac.condition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 属性槽位表
+ * 条件编译时把属性路径（如 user.status）解析为固定的槽位下标，求值时按下标直接取值，
+ * 不再做字符串查找。同一引擎内的所有策略共享一个槽位表，槽位一经分配不会改变。
+ */
+public final class AttributeSchema {
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * 获取（必要时分配）属性的槽位
+     */
+    public int slot(String name) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (this) {
+            return slots.computeIfAbsent(name, k -> {
+                names.add(k);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * 查找已分配的槽位；未被任何条件引用的属性返回 -1
+     */
+    public int find(String name) {
+        return slots.getOrDefault(name, -1);
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    public synchronized String name(int slot) {
+        return names.get(slot);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.rbac.condition;
+
+import java.util.Arrays;
+
+/**
+ * 一次授权检查的属性值，按 {@link AttributeSchema} 的槽位存放
+ */
+public final class Attributes {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final AttributeSchema schema;
+    private Object[] values = EMPTY;
+
+    public Attributes(AttributeSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * 设置属性；没有任何条件引用的属性直接忽略
+     */
+    public Attributes put(String name, Object value) {
+        int slot = schema.find(name);
+        if (slot >= 0) {
+            if (slot >= values.length) {
+                values = Arrays.copyOf(values, Math.max(schema.size(), slot + 1));
+            }
+            values[slot] = value;
+        }
+        return this;
+    }
+
+    /**
+     * 按槽位取值；未设置时为 null
+     */
+    public Object get(int slot) {
+        return slot < values.length ? values[slot] : null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.rbac.condition;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带条件的授权策略：某个角色在满足条件时拥有某个权限
+ * 记录求值次数、通过次数和累计耗时，用于衡量每条策略的求值成本。
+ * 无法编译的表达式生成一个始终拒绝的策略（失败即拒绝），并保留错误信息。
+ */
+public final class CompiledPolicy {
+
+    private final long roleId;
+    private final String permissionCode;
+    private final String expression;
+    private final Condition condition;
+    private final String error;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    private CompiledPolicy(long roleId, String permissionCode, String expression, Condition condition, String error) {
+        this.roleId = roleId;
+        this.permissionCode = permissionCode;
+        this.expression = expression;
+        this.condition = condition;
+        this.error = error;
+    }
+
+    /**
+     * 编译策略；表达式有误时返回始终拒绝的策略
+     */
+    public static CompiledPolicy compile(ConditionCompiler compiler, long roleId, String permissionCode, String expression) {
+        try {
+            return new CompiledPolicy(roleId, permissionCode, expression, compiler.compile(expression), null);
+        } catch (ConditionSyntaxException e) {
+            return new CompiledPolicy(roleId, permissionCode, expression, attributes -> false, e.getMessage());
+        }
+    }
+
+    /**
+     * 对给定属性求值并计入统计
+     */
+    public boolean evaluate(Attributes attributes) {
+        long start = System.nanoTime();
+        boolean result = condition.test(attributes);
+        totalNanos.add(System.nanoTime() - start);
+        evaluations.increment();
+        if (result) {
+            allowed.increment();
+        }
+        return result;
+    }
+
+    public long getRoleId() {
+        return roleId;
+    }
+
+    public String getPermissionCode() {
+        return permissionCode;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+}
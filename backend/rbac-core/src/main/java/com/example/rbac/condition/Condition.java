@@ -0,0 +1,10 @@
+package com.example.rbac.condition;
+
+/**
+ * 编译后的条件（谓词树节点）
+ */
+@FunctionalInterface
+public interface Condition {
+
+    boolean test(Attributes attributes);
+}
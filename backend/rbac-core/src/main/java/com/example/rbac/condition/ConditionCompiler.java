@@ -0,0 +1,373 @@
+package com.example.rbac.condition;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 条件表达式编译器
+ *
+ * 语法：
+ * <pre>
+ * expr       := and (('||' | 'or') and)*
+ * and        := unary (('&amp;&amp;' | 'and') unary)*
+ * unary      := ('!' | 'not') unary | '(' expr ')' | comparison
+ * comparison := operand [('==' | '!=' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=') operand | ['not'] 'in' '[' literal, ... ']']
+ * operand    := 属性路径（如 user.status、resource.ownerId） | 字符串 | 数字 | true | false | null
+ * </pre>
+ * 单独的属性路径按布尔值判断。属性路径在编译时解析为槽位，字面量集合在编译时构建为哈希集合，
+ * 求值过程只做数组下标访问和值比较。
+ */
+public final class ConditionCompiler {
+
+    private final AttributeSchema schema;
+
+    public ConditionCompiler(AttributeSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * 编译条件表达式
+     *
+     * @throws ConditionSyntaxException 表达式语法错误
+     */
+    public Condition compile(String expression) {
+        Parser parser = new Parser(expression);
+        Condition condition = parser.parseOr();
+        if (parser.peek().type != TokenType.END) {
+            throw new ConditionSyntaxException("多余的内容: " + parser.peek().text, parser.peek().position);
+        }
+        return condition;
+    }
+
+    // ---------------------------------------------------------------- 值比较
+
+    /**
+     * 统一数值类型：整数统一为 Long，其余数值为 Double
+     */
+    static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float || value instanceof Double) {
+            double d = ((Number) value).doubleValue();
+            return d == Math.rint(d) && !Double.isInfinite(d) ? (Object) (long) d : (Object) d;
+        }
+        return value;
+    }
+
+    static boolean valueEquals(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return compareNumbers((Number) left, (Number) right) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+
+    /**
+     * 比较大小；类型不可比较时返回 null
+     */
+    static Integer compare(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return compareNumbers((Number) left, (Number) right);
+        }
+        if (left instanceof String && right instanceof String) {
+            return ((String) left).compareTo((String) right);
+        }
+        return null;
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        if (left instanceof Double || left instanceof Float || right instanceof Double || right instanceof Float) {
+            return Double.compare(left.doubleValue(), right.doubleValue());
+        }
+        return Long.compare(left.longValue(), right.longValue());
+    }
+
+    // ---------------------------------------------------------------- 谓词树
+
+    /**
+     * 操作数：属性槽位或字面量
+     */
+    private interface Operand {
+        Object value(Attributes attributes);
+    }
+
+    private static final class SlotOperand implements Operand {
+        final int slot;
+
+        SlotOperand(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public Object value(Attributes attributes) {
+            return attributes.get(slot);
+        }
+    }
+
+    private static final class LiteralOperand implements Operand {
+        final Object literal;
+
+        LiteralOperand(Object literal) {
+            this.literal = normalize(literal);
+        }
+
+        @Override
+        public Object value(Attributes attributes) {
+            return literal;
+        }
+    }
+
+    private static Condition comparison(String op, Operand left, Operand right, int position) {
+        switch (op) {
+            case "==":
+                return attributes -> valueEquals(left.value(attributes), right.value(attributes));
+            case "!=":
+                return attributes -> !valueEquals(left.value(attributes), right.value(attributes));
+            case "<":
+                return attributes -> {
+                    Integer c = compare(left.value(attributes), right.value(attributes));
+                    return c != null && c < 0;
+                };
+            case "<=":
+                return attributes -> {
+                    Integer c = compare(left.value(attributes), right.value(attributes));
+                    return c != null && c <= 0;
+                };
+            case ">":
+                return attributes -> {
+                    Integer c = compare(left.value(attributes), right.value(attributes));
+                    return c != null && c > 0;
+                };
+            case ">=":
+                return attributes -> {
+                    Integer c = compare(left.value(attributes), right.value(attributes));
+                    return c != null && c >= 0;
+                };
+            default:
+                throw new ConditionSyntaxException("未知的比较运算符: " + op, position);
+        }
+    }
+
+    // ---------------------------------------------------------------- 词法与语法分析
+
+    private enum TokenType { PATH, STRING, NUMBER, KEYWORD, SYMBOL, END }
+
+    private static final class Token {
+        final TokenType type;
+        final String text;
+        final Object value;
+        final int position;
+
+        Token(TokenType type, String text, Object value, int position) {
+            this.type = type;
+            this.text = text;
+            this.value = value;
+            this.position = position;
+        }
+
+        boolean is(String symbolOrKeyword) {
+            return (type == TokenType.SYMBOL || type == TokenType.KEYWORD) && text.equals(symbolOrKeyword);
+        }
+    }
+
+    private static final Set<String> KEYWORDS = Set.of("and", "or", "not", "in", "true", "false", "null");
+
+    private final class Parser {
+        private final List<Token> tokens;
+        private int index = 0;
+
+        Parser(String expression) {
+            this.tokens = tokenize(expression);
+        }
+
+        Token peek() {
+            return tokens.get(index);
+        }
+
+        Token next() {
+            return tokens.get(index++);
+        }
+
+        boolean accept(String... symbols) {
+            for (String symbol : symbols) {
+                if (peek().is(symbol)) {
+                    index++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void expect(String symbol) {
+            if (!accept(symbol)) {
+                throw new ConditionSyntaxException("期望 '" + symbol + "'，实际为 '" + peek().text + "'", peek().position);
+            }
+        }
+
+        Condition parseOr() {
+            Condition left = parseAnd();
+            while (accept("||", "or")) {
+                Condition a = left;
+                Condition b = parseAnd();
+                left = attributes -> a.test(attributes) || b.test(attributes);
+            }
+            return left;
+        }
+
+        Condition parseAnd() {
+            Condition left = parseUnary();
+            while (accept("&&", "and")) {
+                Condition a = left;
+                Condition b = parseUnary();
+                left = attributes -> a.test(attributes) && b.test(attributes);
+            }
+            return left;
+        }
+
+        Condition parseUnary() {
+            if (accept("!", "not")) {
+                Condition inner = parseUnary();
+                return attributes -> !inner.test(attributes);
+            }
+            if (accept("(")) {
+                Condition inner = parseOr();
+                expect(")");
+                return inner;
+            }
+            return parseComparison();
+        }
+
+        Condition parseComparison() {
+            Token start = peek();
+            Operand left = parseOperand();
+            Token op = peek();
+            if (op.type == TokenType.SYMBOL && Set.of("==", "!=", "<", "<=", ">", ">=").contains(op.text)) {
+                next();
+                return comparison(op.text, left, parseOperand(), op.position);
+            }
+            boolean negate = false;
+            if (op.is("not") && tokens.get(index + 1).is("in")) {
+                next();
+                negate = true;
+            }
+            if (accept("in")) {
+                Set<Object> values = parseLiteralList();
+                boolean negated = negate;
+                return attributes -> values.contains(normalize(left.value(attributes))) != negated;
+            }
+            if (start.type != TokenType.PATH) {
+                throw new ConditionSyntaxException("期望比较运算符", op.position);
+            }
+            return attributes -> Boolean.TRUE.equals(left.value(attributes));
+        }
+
+        Set<Object> parseLiteralList() {
+            expect("[");
+            Set<Object> values = new HashSet<>();
+            if (!accept("]")) {
+                do {
+                    Operand operand = parseOperand();
+                    if (!(operand instanceof LiteralOperand)) {
+                        throw new ConditionSyntaxException("in 列表只能包含字面量", tokens.get(index - 1).position);
+                    }
+                    values.add(((LiteralOperand) operand).literal);
+                } while (accept(","));
+                expect("]");
+            }
+            return values;
+        }
+
+        Operand parseOperand() {
+            Token token = next();
+            switch (token.type) {
+                case PATH:
+                    return new SlotOperand(schema.slot(token.text));
+                case STRING:
+                case NUMBER:
+                    return new LiteralOperand(token.value);
+                case KEYWORD:
+                    if (token.text.equals("true") || token.text.equals("false")) {
+                        return new LiteralOperand(Boolean.valueOf(token.text));
+                    }
+                    if (token.text.equals("null")) {
+                        return new LiteralOperand(null);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            throw new ConditionSyntaxException("期望属性或字面量，实际为 '" + token.text + "'", token.position);
+        }
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int length = expression.length();
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            if (Character.isLetter(c) || c == '_') {
+                while (i < length && (Character.isLetterOrDigit(expression.charAt(i))
+                        || expression.charAt(i) == '_' || expression.charAt(i) == '.')) {
+                    i++;
+                }
+                String word = expression.substring(start, i);
+                if (KEYWORDS.contains(word)) {
+                    tokens.add(new Token(TokenType.KEYWORD, word, null, start));
+                } else if (word.indexOf('.') > 0 && !word.endsWith(".") && !word.contains("..")) {
+                    tokens.add(new Token(TokenType.PATH, word, null, start));
+                } else {
+                    throw new ConditionSyntaxException("属性必须带命名空间（如 user.status）: " + word, start);
+                }
+            } else if (Character.isDigit(c) || (c == '-' && i + 1 < length && Character.isDigit(expression.charAt(i + 1)))) {
+                i++;
+                while (i < length && (Character.isDigit(expression.charAt(i)) || expression.charAt(i) == '.')) {
+                    i++;
+                }
+                String number = expression.substring(start, i);
+                try {
+                    Object value = number.contains(".") ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+                    tokens.add(new Token(TokenType.NUMBER, number, value, start));
+                } catch (NumberFormatException e) {
+                    throw new ConditionSyntaxException("无效的数字: " + number, start);
+                }
+            } else if (c == '\'' || c == '"') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (i < length && expression.charAt(i) != c) {
+                    char ch = expression.charAt(i++);
+                    if (ch == '\\' && i < length) {
+                        ch = expression.charAt(i++);
+                    }
+                    value.append(ch);
+                }
+                if (i >= length) {
+                    throw new ConditionSyntaxException("字符串未结束", start);
+                }
+                i++;
+                tokens.add(new Token(TokenType.STRING, expression.substring(start, i), value.toString(), start));
+            } else {
+                String two = i + 1 < length ? expression.substring(i, i + 2) : "";
+                if (Set.of("==", "!=", "<=", ">=", "&&", "||").contains(two)) {
+                    tokens.add(new Token(TokenType.SYMBOL, two, null, start));
+                    i += 2;
+                } else if ("<>!()[],".indexOf(c) >= 0) {
+                    tokens.add(new Token(TokenType.SYMBOL, String.valueOf(c), null, start));
+                    i++;
+                } else {
+                    throw new ConditionSyntaxException("无法识别的字符: " + c, start);
+                }
+            }
+        }
+        tokens.add(new Token(TokenType.END, "<结束>", null, length));
+        return tokens;
+    }
+}
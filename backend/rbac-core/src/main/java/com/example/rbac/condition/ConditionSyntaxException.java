@@ -0,0 +1,18 @@
+package com.example.rbac.condition;
+
+/**
+ * 条件表达式语法错误
+ */
+public class ConditionSyntaxException extends IllegalArgumentException {
+
+    private final int position;
+
+    public ConditionSyntaxException(String message, int position) {
+        super(message + "（位置 " + position + "）");
+        this.position = position;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.rbac.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限 → 角色 → 用户 的倒排索引
+ * 用户ID集合使用 Roaring 压缩位图存储；每个权限的用户集合预先物化并缓存基数，
+ * 读取计数无需任何计算。
+ *
+ * 写操作（grant/addMember/...）不是线程安全的，需由调用方串行执行，并在一组修改后调用 commit()；
+ * 读操作无锁，读到的始终是某次 commit 之后的不可变位图。
+ */
+public class PermissionUserIndex {
+
+    private static final Entry EMPTY = new Entry(new RoaringBitmap());
+
+    // 以下结构只由写线程访问
+    private final Map<Long, RoaringBitmap> usersByRole = new HashMap<>();
+    private final Map<Long, Set<Long>> permissionsByRole = new HashMap<>();
+    private final Map<Long, Set<Long>> rolesByPermission = new HashMap<>();
+    private final Set<Long> dirtyPermissions = new HashSet<>();
+
+    // 读线程访问的物化结果，值对象不可变
+    private final Map<Long, Entry> usersByPermission = new ConcurrentHashMap<>();
+
+    /**
+     * 清空索引
+     */
+    public void clear() {
+        usersByRole.clear();
+        permissionsByRole.clear();
+        rolesByPermission.clear();
+        dirtyPermissions.clear();
+        usersByPermission.clear();
+    }
+
+    /**
+     * 为角色授予权限
+     */
+    public void grant(long roleId, long permissionId) {
+        if (permissionsByRole.computeIfAbsent(roleId, k -> new HashSet<>()).add(permissionId)) {
+            rolesByPermission.computeIfAbsent(permissionId, k -> new HashSet<>()).add(roleId);
+            dirtyPermissions.add(permissionId);
+        }
+    }
+
+    /**
+     * 撤销角色的权限
+     */
+    public void revoke(long roleId, long permissionId) {
+        Set<Long> permissions = permissionsByRole.get(roleId);
+        if (permissions != null && permissions.remove(permissionId)) {
+            Set<Long> roles = rolesByPermission.get(permissionId);
+            if (roles != null) {
+                roles.remove(roleId);
+            }
+            dirtyPermissions.add(permissionId);
+        }
+    }
+
+    /**
+     * 将用户加入角色
+     */
+    public void addMember(long roleId, long userId) {
+        if (usersByRole.computeIfAbsent(roleId, k -> new RoaringBitmap()).checkedAdd(toIndex(userId))) {
+            markRoleDirty(roleId);
+        }
+    }
+
+    /**
+     * 将用户移出角色
+     */
+    public void removeMember(long roleId, long userId) {
+        RoaringBitmap users = usersByRole.get(roleId);
+        if (users != null && users.checkedRemove(toIndex(userId))) {
+            markRoleDirty(roleId);
+        }
+    }
+
+    /**
+     * 用给定的用户集合整体替换角色成员
+     */
+    public void replaceMembers(long roleId, Collection<Long> userIds) {
+        RoaringBitmap users = new RoaringBitmap();
+        for (Long userId : userIds) {
+            users.add(toIndex(userId));
+        }
+        users.runOptimize();
+        usersByRole.put(roleId, users);
+        markRoleDirty(roleId);
+    }
+
+    /**
+     * 用给定的角色集合整体替换某个用户所属的角色
+     */
+    public void replaceUserRoles(long userId, Collection<Long> roleIds) {
+        int index = toIndex(userId);
+        for (Map.Entry<Long, RoaringBitmap> entry : usersByRole.entrySet()) {
+            if (!roleIds.contains(entry.getKey()) && entry.getValue().checkedRemove(index)) {
+                markRoleDirty(entry.getKey());
+            }
+        }
+        for (Long roleId : roleIds) {
+            addMember(roleId, userId);
+        }
+    }
+
+    /**
+     * 用给定的权限集合整体替换角色权限
+     */
+    public void replacePermissions(long roleId, Collection<Long> permissionIds) {
+        for (Long permissionId : new ArrayList<>(permissionsByRole.getOrDefault(roleId, Set.of()))) {
+            revoke(roleId, permissionId);
+        }
+        for (Long permissionId : permissionIds) {
+            grant(roleId, permissionId);
+        }
+    }
+
+    /**
+     * 移除角色及其所有关联
+     */
+    public void removeRole(long roleId) {
+        markRoleDirty(roleId);
+        Set<Long> permissions = permissionsByRole.remove(roleId);
+        if (permissions != null) {
+            for (Long permissionId : permissions) {
+                Set<Long> roles = rolesByPermission.get(permissionId);
+                if (roles != null) {
+                    roles.remove(roleId);
+                }
+            }
+        }
+        usersByRole.remove(roleId);
+    }
+
+    /**
+     * 移除权限及其所有关联
+     */
+    public void removePermission(long permissionId) {
+        Set<Long> roles = rolesByPermission.remove(permissionId);
+        if (roles != null) {
+            for (Long roleId : roles) {
+                Set<Long> permissions = permissionsByRole.get(roleId);
+                if (permissions != null) {
+                    permissions.remove(permissionId);
+                }
+            }
+        }
+        dirtyPermissions.remove(permissionId);
+        usersByPermission.remove(permissionId);
+    }
+
+    /**
+     * 重新物化所有受影响权限的用户集合，使修改对读线程可见
+     */
+    public void commit() {
+        for (Long permissionId : dirtyPermissions) {
+            Set<Long> roles = rolesByPermission.get(permissionId);
+            List<RoaringBitmap> bitmaps = new ArrayList<>();
+            if (roles != null) {
+                for (Long roleId : roles) {
+                    RoaringBitmap users = usersByRole.get(roleId);
+                    if (users != null) {
+                        bitmaps.add(users);
+                    }
+                }
+            }
+            if (bitmaps.isEmpty()) {
+                usersByPermission.remove(permissionId);
+            } else {
+                // 物化结果必须是新对象，避免与 usersByRole 中可变的位图共享
+                RoaringBitmap merged = bitmaps.size() == 1 ? bitmaps.get(0).clone() : FastAggregation.or(bitmaps.iterator());
+                merged.runOptimize();
+                usersByPermission.put(permissionId, new Entry(merged));
+            }
+        }
+        dirtyPermissions.clear();
+    }
+
+    /**
+     * 拥有该权限的用户数（直接读取缓存的基数）
+     */
+    public long count(long permissionId) {
+        return usersByPermission.getOrDefault(permissionId, EMPTY).count;
+    }
+
+    /**
+     * 判断用户是否拥有该权限
+     */
+    public boolean contains(long permissionId, long userId) {
+        return userId >= 0 && userId <= Integer.MAX_VALUE
+                && usersByPermission.getOrDefault(permissionId, EMPTY).users.contains((int) userId);
+    }
+
+    /**
+     * 按用户ID升序进行键集分页
+     *
+     * @param afterUserId 上一页最后一个用户ID，首页传 0
+     * @param limit       每页数量
+     */
+    public Page page(long permissionId, long afterUserId, int limit) {
+        Entry entry = usersByPermission.getOrDefault(permissionId, EMPTY);
+        List<Long> userIds = new ArrayList<>(Math.min(limit, (int) Math.min(entry.count, 1024)));
+        if (afterUserId < Integer.MAX_VALUE) {
+            PeekableIntIterator iterator = entry.users.getIntIterator();
+            iterator.advanceIfNeeded((int) Math.max(afterUserId + 1, 0));
+            while (iterator.hasNext() && userIds.size() < limit) {
+                userIds.add((long) iterator.next());
+            }
+        }
+        boolean hasMore = !userIds.isEmpty() && entry.users.last() > userIds.get(userIds.size() - 1);
+        Long nextCursor = hasMore ? userIds.get(userIds.size() - 1) : null;
+        return new Page(entry.count, userIds, nextCursor);
+    }
+
+    /**
+     * 已物化的权限数量
+     */
+    public int permissionCount() {
+        return usersByPermission.size();
+    }
+
+    /**
+     * 物化位图占用的序列化字节数（近似内存占用）
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Entry entry : usersByPermission.values()) {
+            bytes += entry.users.serializedSizeInBytes();
+        }
+        return bytes;
+    }
+
+    private void markRoleDirty(long roleId) {
+        dirtyPermissions.addAll(permissionsByRole.getOrDefault(roleId, Set.of()));
+    }
+
+    private static int toIndex(long userId) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("用户ID超出位图索引范围: " + userId);
+        }
+        return (int) userId;
+    }
+
+    /**
+     * 物化的权限用户集合
+     */
+    private static final class Entry {
+        final RoaringBitmap users;
+        final long count;
+
+        Entry(RoaringBitmap users) {
+            this.users = users;
+            this.count = users.getLongCardinality();
+        }
+    }
+
+    /**
+     * 分页结果
+     */
+    public static final class Page {
+        private final long total;
+        private final List<Long> userIds;
+        private final Long nextCursor;
+
+        public Page(long total, List<Long> userIds, Long nextCursor) {
+            this.total = total;
+            this.userIds = userIds;
+            this.nextCursor = nextCursor;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<Long> getUserIds() {
+            return userIds;
+        }
+
+        public Long getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
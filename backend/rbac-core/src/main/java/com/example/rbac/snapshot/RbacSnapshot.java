@@ -0,0 +1,233 @@
+package com.example.rbac.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * RBAC 二进制快照（只读）
+ *
+ * 文件格式（大端序）：
+ * <pre>
+ * 头部    magic(int) formatVersion(int) version(long) roleCount(int) permissionCount(int)
+ *         wordsPerUser(int) userCount(long) userSectionOffset(long)
+ * 权限表  permissionCount × [id(long) codeLength(short) code(UTF-8)]
+ * 角色表  roleCount × [id(long) codeLength(short) code(UTF-8) permissionBits(long × ceil(permissionCount/64))]
+ * 条件表  conditionCount(int) × [roleIndex(int) permissionIndex(int) exprLength(short) expr(UTF-8)]
+ * 用户表  userCount × [userId(long) roleBits(long × wordsPerUser)]，按 userId 升序，定长
+ * </pre>
+ * 加载时只解析头部和角色/权限字典，用户表保持在内存映射中按需二分查找，
+ * 因此加载耗时与用户数无关。version 为生成快照时 cache_change_log 的最大ID。
+ * 角色表中的权限位图只包含无条件授权，带条件的授权单独保存在条件表中。
+ */
+public final class RbacSnapshot {
+
+    static final int MAGIC = 0x52424143; // "RBAC"
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_SIZE = 44;
+
+    private final ByteBuffer buffer;
+    private final long version;
+    private final long[] permissionIds;
+    private final String[] permissionCodes;
+    private final long[] roleIds;
+    private final String[] roleCodes;
+    private final long[][] rolePermissionBits;
+    private final int[] conditionRoleIndexes;
+    private final int[] conditionPermissionIndexes;
+    private final String[] conditionExpressions;
+    private final int wordsPerUser;
+    private final long userCount;
+    private final long userSectionOffset;
+
+    private RbacSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != MAGIC) {
+            throw new IllegalArgumentException("不是 RBAC 快照文件");
+        }
+        int formatVersion = header.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的快照格式版本: " + formatVersion);
+        }
+        this.version = header.getLong();
+        int roleCount = header.getInt();
+        int permissionCount = header.getInt();
+        this.wordsPerUser = header.getInt();
+        this.userCount = header.getLong();
+        this.userSectionOffset = header.getLong();
+
+        this.permissionIds = new long[permissionCount];
+        this.permissionCodes = new String[permissionCount];
+        for (int i = 0; i < permissionCount; i++) {
+            permissionIds[i] = header.getLong();
+            permissionCodes[i] = readString(header);
+        }
+
+        int permissionWords = wordsFor(permissionCount);
+        this.roleIds = new long[roleCount];
+        this.roleCodes = new String[roleCount];
+        this.rolePermissionBits = new long[roleCount][permissionWords];
+        for (int i = 0; i < roleCount; i++) {
+            roleIds[i] = header.getLong();
+            roleCodes[i] = readString(header);
+            for (int w = 0; w < permissionWords; w++) {
+                rolePermissionBits[i][w] = header.getLong();
+            }
+        }
+
+        int conditionCount = header.getInt();
+        this.conditionRoleIndexes = new int[conditionCount];
+        this.conditionPermissionIndexes = new int[conditionCount];
+        this.conditionExpressions = new String[conditionCount];
+        for (int i = 0; i < conditionCount; i++) {
+            conditionRoleIndexes[i] = header.getInt();
+            conditionPermissionIndexes[i] = header.getInt();
+            conditionExpressions[i] = readString(header);
+        }
+
+        if (header.position() != userSectionOffset
+                || userSectionOffset + userCount * entrySize() != buffer.limit()) {
+            throw new IllegalArgumentException("快照文件长度不正确，可能已损坏或未写完");
+        }
+    }
+
+    /**
+     * 以只读内存映射方式打开快照文件
+     */
+    public static RbacSnapshot map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new RbacSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 从内存中的快照数据创建
+     */
+    public static RbacSnapshot wrap(ByteBuffer buffer) {
+        return new RbacSnapshot(buffer);
+    }
+
+    /**
+     * 二分查找用户的角色ID；用户不在快照中时返回空数组
+     */
+    public long[] findRoleIds(long userId) {
+        long entry = findEntry(userId);
+        if (entry < 0) {
+            return new long[0];
+        }
+        int count = 0;
+        for (int w = 0; w < wordsPerUser; w++) {
+            count += Long.bitCount(buffer.getLong((int) (entry + 8 + 8L * w)));
+        }
+        long[] result = new long[count];
+        int n = 0;
+        for (int w = 0; w < wordsPerUser; w++) {
+            long word = buffer.getLong((int) (entry + 8 + 8L * w));
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                result[n++] = roleIds[w * 64 + bit];
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    private long findEntry(long userId) {
+        long low = 0;
+        long high = userCount - 1;
+        int entrySize = entrySize();
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long offset = userSectionOffset + mid * entrySize;
+            long midUserId = buffer.getLong((int) offset);
+            if (midUserId < userId) {
+                low = mid + 1;
+            } else if (midUserId > userId) {
+                high = mid - 1;
+            } else {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    public int getRoleCount() {
+        return roleIds.length;
+    }
+
+    public long getRoleId(int index) {
+        return roleIds[index];
+    }
+
+    public String getRoleCode(int index) {
+        return roleCodes[index];
+    }
+
+    public int getPermissionCount() {
+        return permissionIds.length;
+    }
+
+    public long getPermissionId(int index) {
+        return permissionIds[index];
+    }
+
+    public String getPermissionCode(int index) {
+        return permissionCodes[index];
+    }
+
+    /**
+     * 角色拥有的权限（权限表下标的位图）
+     */
+    public long[] getRolePermissionBits(int roleIndex) {
+        return rolePermissionBits[roleIndex].clone();
+    }
+
+    /**
+     * 带条件的授权数量
+     */
+    public int getConditionCount() {
+        return conditionExpressions.length;
+    }
+
+    public int getConditionRoleIndex(int index) {
+        return conditionRoleIndexes[index];
+    }
+
+    public int getConditionPermissionIndex(int index) {
+        return conditionPermissionIndexes[index];
+    }
+
+    public String getConditionExpression(int index) {
+        return conditionExpressions[index];
+    }
+
+    public long sizeInBytes() {
+        return buffer.limit();
+    }
+
+    private int entrySize() {
+        return 8 + 8 * wordsPerUser;
+    }
+
+    static int wordsFor(int bits) {
+        return Math.max(1, (bits + 63) >>> 6);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.rbac.snapshot;
+
+import com.example.rbac.RbacSource;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RBAC 快照写入器
+ *
+ * 先登记权限、角色和授权（数量少，保存在内存中），再通过 {@link #open(Path)} 按用户ID升序流式写入成员关系，
+ * 用户表不会整体进入内存。写入临时文件后原子替换目标文件，读取方不会看到写了一半的快照。
+ */
+public class RbacSnapshotWriter {
+
+    private final long version;
+    private final List<Long> permissionIds = new ArrayList<>();
+    private final List<String> permissionCodes = new ArrayList<>();
+    private final Map<Long, Integer> permissionIndex = new HashMap<>();
+    private final List<Long> roleIds = new ArrayList<>();
+    private final List<String> roleCodes = new ArrayList<>();
+    private final Map<Long, Integer> roleIndex = new HashMap<>();
+    private final Map<Integer, List<Integer>> grants = new HashMap<>();
+    // 带条件的授权：[roleIndex, permissionIndex] 与表达式一一对应
+    private final List<int[]> conditionalGrants = new ArrayList<>();
+    private final List<String> conditions = new ArrayList<>();
+
+    public RbacSnapshotWriter(long version) {
+        this.version = version;
+    }
+
+    /**
+     * 从数据来源生成快照文件，返回写入的用户数
+     */
+    public static long write(RbacSource source, Path target) throws IOException {
+        // 先取版本再读数据：读取期间发生的变更版本号更大，加载后会被追平
+        RbacSnapshotWriter writer = new RbacSnapshotWriter(source.currentVersion());
+        source.forEachPermission(writer::addPermission);
+        source.forEachRole(writer::addRole);
+        source.forEachGrant(writer::grant);
+        try (Output output = writer.open(target)) {
+            source.forEachMember((userId, roleId) -> {
+                try {
+                    output.addMember(userId, roleId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            output.commit();
+            return output.getUserCount();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public void addPermission(long id, String code) {
+        if (permissionIndex.putIfAbsent(id, permissionIds.size()) == null) {
+            permissionIds.add(id);
+            permissionCodes.add(code);
+        }
+    }
+
+    public void addRole(long id, String code) {
+        if (roleIndex.putIfAbsent(id, roleIds.size()) == null) {
+            roleIds.add(id);
+            roleCodes.add(code);
+        }
+    }
+
+    /**
+     * 登记角色授权；condition 为空表示无条件授权。未登记的角色或权限会被忽略
+     */
+    public void grant(long roleId, long permissionId, String condition) {
+        Integer role = roleIndex.get(roleId);
+        Integer permission = permissionIndex.get(permissionId);
+        if (role == null || permission == null) {
+            return;
+        }
+        if (condition == null || condition.isBlank()) {
+            grants.computeIfAbsent(role, k -> new ArrayList<>()).add(permission);
+        } else {
+            conditionalGrants.add(new int[]{role, permission});
+            conditions.add(condition);
+        }
+    }
+
+    /**
+     * 写出头部和字典，返回用于流式写入用户成员关系的输出
+     */
+    public Output open(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+        try {
+            int wordsPerUser = RbacSnapshot.wordsFor(roleIds.size());
+            byte[] dictionary = writeDictionary();
+            out.writeInt(RbacSnapshot.MAGIC);
+            out.writeInt(RbacSnapshot.FORMAT_VERSION);
+            out.writeLong(version);
+            out.writeInt(roleIds.size());
+            out.writeInt(permissionIds.size());
+            out.writeInt(wordsPerUser);
+            out.writeLong(0); // userCount，关闭时回填
+            out.writeLong(RbacSnapshot.HEADER_SIZE + dictionary.length);
+            out.write(dictionary);
+            return new Output(out, temp, target, wordsPerUser, roleIndex);
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private byte[] writeDictionary() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < permissionIds.size(); i++) {
+            out.writeLong(permissionIds.get(i));
+            writeString(out, permissionCodes.get(i));
+        }
+        int permissionWords = RbacSnapshot.wordsFor(permissionIds.size());
+        for (int i = 0; i < roleIds.size(); i++) {
+            out.writeLong(roleIds.get(i));
+            writeString(out, roleCodes.get(i));
+            long[] bits = new long[permissionWords];
+            for (int permission : grants.getOrDefault(i, List.of())) {
+                bits[permission >>> 6] |= 1L << (permission & 63);
+            }
+            for (long word : bits) {
+                out.writeLong(word);
+            }
+        }
+        out.writeInt(conditionalGrants.size());
+        for (int i = 0; i < conditionalGrants.size(); i++) {
+            out.writeInt(conditionalGrants.get(i)[0]);
+            out.writeInt(conditionalGrants.get(i)[1]);
+            writeString(out, conditions.get(i));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("代码过长: " + value);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 用户成员关系输出，要求按用户ID非递减顺序调用 {@link #addMember(long, long)}
+     */
+    public static final class Output implements Closeable {
+
+        private final DataOutputStream out;
+        private final Path temp;
+        private final Path target;
+        private final Map<Long, Integer> roleIndex;
+        private final long[] currentBits;
+        private long currentUserId = Long.MIN_VALUE;
+        private boolean hasCurrent = false;
+        private long userCount = 0;
+        private boolean committed = false;
+
+        private Output(DataOutputStream out, Path temp, Path target, int wordsPerUser, Map<Long, Integer> roleIndex) {
+            this.out = out;
+            this.temp = temp;
+            this.target = target;
+            this.roleIndex = roleIndex;
+            this.currentBits = new long[wordsPerUser];
+        }
+
+        /**
+         * 追加一条成员关系；未登记的角色会被忽略
+         */
+        public void addMember(long userId, long roleId) throws IOException {
+            if (hasCurrent && userId < currentUserId) {
+                throw new IllegalStateException("成员关系必须按用户ID升序写入");
+            }
+            Integer role = roleIndex.get(roleId);
+            if (role == null) {
+                return;
+            }
+            if (hasCurrent && userId != currentUserId) {
+                flushUser();
+            }
+            currentUserId = userId;
+            hasCurrent = true;
+            currentBits[role >>> 6] |= 1L << (role & 63);
+        }
+
+        public long getUserCount() {
+            return userCount;
+        }
+
+        /**
+         * 写完所有成员关系：回填用户数并原子替换目标文件
+         */
+        public void commit() throws IOException {
+            if (hasCurrent) {
+                flushUser();
+            }
+            out.close();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer count = ByteBuffer.allocate(8).putLong(0, userCount);
+                channel.write(count, 28);
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        /**
+         * 未提交时丢弃临时文件
+         */
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void flushUser() throws IOException {
+            out.writeLong(currentUserId);
+            for (int w = 0; w < currentBits.length; w++) {
+                out.writeLong(currentBits[w]);
+                currentBits[w] = 0;
+            }
+            userCount++;
+        }
+    }
+}
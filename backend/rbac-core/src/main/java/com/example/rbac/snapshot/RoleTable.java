@@ -0,0 +1,162 @@
+package com.example.rbac.snapshot;
+
+import com.example.rbac.RbacSource;
+import com.example.rbac.condition.CompiledPolicy;
+import com.example.rbac.condition.ConditionCompiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 角色字典：角色ID → 角色代码、无条件权限代码、带条件的权限策略（不可变）
+ * 角色和权限数量很少，变更时整体替换；用户成员关系单独保存
+ */
+public final class RoleTable {
+
+    private final Map<Long, String> codes;
+    private final Map<Long, Set<String>> permissions;
+    private final Map<Long, Map<String, CompiledPolicy>> policies;
+
+    private RoleTable(Map<Long, String> codes, Map<Long, Set<String>> permissions,
+                      Map<Long, Map<String, CompiledPolicy>> policies) {
+        this.codes = codes;
+        this.permissions = permissions;
+        this.policies = policies;
+    }
+
+    /**
+     * 从快照的角色/权限字典构建
+     */
+    public static RoleTable fromSnapshot(RbacSnapshot snapshot, ConditionCompiler compiler) {
+        Builder builder = new Builder(compiler, null);
+        for (int p = 0; p < snapshot.getPermissionCount(); p++) {
+            builder.addPermission(snapshot.getPermissionId(p), snapshot.getPermissionCode(p));
+        }
+        for (int r = 0; r < snapshot.getRoleCount(); r++) {
+            long roleId = snapshot.getRoleId(r);
+            builder.addRole(roleId, snapshot.getRoleCode(r));
+            long[] bits = snapshot.getRolePermissionBits(r);
+            for (int w = 0; w < bits.length; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    builder.grant(roleId, snapshot.getPermissionId(w * 64 + bit), null);
+                    word &= word - 1;
+                }
+            }
+        }
+        for (int c = 0; c < snapshot.getConditionCount(); c++) {
+            builder.grant(snapshot.getRoleId(snapshot.getConditionRoleIndex(c)),
+                snapshot.getPermissionId(snapshot.getConditionPermissionIndex(c)),
+                snapshot.getConditionExpression(c));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 从数据来源构建；表达式未变化的策略沿用 previous 中的编译结果和统计
+     */
+    public static RoleTable load(RbacSource source, ConditionCompiler compiler, RoleTable previous) {
+        Builder builder = new Builder(compiler, previous);
+        source.forEachPermission(builder::addPermission);
+        source.forEachRole(builder::addRole);
+        source.forEachGrant(builder::grant);
+        return builder.build();
+    }
+
+    /**
+     * 角色代码；角色不存在（或已删除）时返回 null
+     */
+    public String getCode(long roleId) {
+        return codes.get(roleId);
+    }
+
+    /**
+     * 角色无条件拥有的权限代码
+     */
+    public Set<String> getPermissionCodes(long roleId) {
+        return permissions.getOrDefault(roleId, Set.of());
+    }
+
+    /**
+     * 角色对某个权限的条件策略；没有时返回 null
+     */
+    public CompiledPolicy getPolicy(long roleId, String permissionCode) {
+        Map<String, CompiledPolicy> rolePolicies = policies.get(roleId);
+        return rolePolicies != null ? rolePolicies.get(permissionCode) : null;
+    }
+
+    /**
+     * 所有条件策略
+     */
+    public List<CompiledPolicy> getPolicies() {
+        List<CompiledPolicy> all = new ArrayList<>();
+        policies.values().forEach(rolePolicies -> all.addAll(rolePolicies.values()));
+        return all;
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    /**
+     * 角色字典构建器
+     */
+    public static final class Builder {
+        private final ConditionCompiler compiler;
+        private final RoleTable previous;
+        private final Map<Long, String> permissionCodes = new HashMap<>();
+        private final Map<Long, String> roleCodes = new HashMap<>();
+        private final Map<Long, Set<String>> rolePermissions = new HashMap<>();
+        private final Map<Long, Map<String, CompiledPolicy>> rolePolicies = new HashMap<>();
+
+        public Builder(ConditionCompiler compiler, RoleTable previous) {
+            this.compiler = compiler;
+            this.previous = previous;
+        }
+
+        public Builder addPermission(long id, String code) {
+            permissionCodes.put(id, code);
+            return this;
+        }
+
+        public Builder addRole(long id, String code) {
+            roleCodes.put(id, code);
+            return this;
+        }
+
+        /**
+         * 登记角色授权；condition 为空表示无条件授权。未登记的角色或权限会被忽略
+         */
+        public Builder grant(long roleId, long permissionId, String condition) {
+            String code = permissionCodes.get(permissionId);
+            if (code == null || !roleCodes.containsKey(roleId)) {
+                return this;
+            }
+            if (condition == null || condition.isBlank()) {
+                rolePermissions.computeIfAbsent(roleId, k -> new HashSet<>()).add(code);
+            } else {
+                CompiledPolicy policy = previous != null ? previous.getPolicy(roleId, code) : null;
+                if (policy == null || !Objects.equals(policy.getExpression(), condition)) {
+                    policy = CompiledPolicy.compile(compiler, roleId, code, condition);
+                }
+                rolePolicies.computeIfAbsent(roleId, k -> new HashMap<>()).put(code, policy);
+            }
+            return this;
+        }
+
+        public RoleTable build() {
+            Map<Long, Set<String>> permissions = new HashMap<>();
+            rolePermissions.forEach((roleId, codes) -> permissions.put(roleId, Collections.unmodifiableSet(codes)));
+            Map<Long, Map<String, CompiledPolicy>> policies = new HashMap<>();
+            rolePolicies.forEach((roleId, byCode) -> policies.put(roleId, Collections.unmodifiableMap(byCode)));
+            return new RoleTable(Collections.unmodifiableMap(new HashMap<>(roleCodes)), permissions, policies);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.rbac;
+
+import com.example.rbac.condition.CompiledPolicy;
+import com.example.rbac.snapshot.RbacSnapshotWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorizationEngineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void snapshotRoundTripAndOverlay() throws Exception {
+        InMemorySource source = new InMemorySource();
+        Path file = dir.resolve("rbac.snapshot");
+        assertEquals(3, RbacSnapshotWriter.write(source, file));
+
+        AuthorizationEngine engine = AuthorizationEngine.open(file);
+        assertEquals(7, engine.getSnapshot().getVersion());
+        assertEquals(List.of("ADMIN", "USER"), engine.getRoleCodes(1));
+        assertEquals(List.of("user:read", "user:write"), engine.getPermissionCodes(1));
+        assertTrue(engine.hasPermission(2, "user:read"));
+        assertFalse(engine.hasPermission(2, "user:write"));
+        assertFalse(engine.hasRole(99, "USER"));
+        assertArrayEquals(new long[0], engine.getRoleIds(99));
+
+        // 快照之后用户 2 被移出所有角色
+        source.members.remove(2L);
+        engine.refreshUsers(source, List.of(2L));
+        assertFalse(engine.hasRole(2, "USER"));
+        assertEquals(1, engine.getOverlaySize());
+
+        // 快照之后 USER 角色获得了写权限
+        source.grants.add(new long[]{20, 101});
+        engine.reloadRoles(source);
+        assertTrue(engine.hasPermission(3, "user:write"));
+    }
+
+    @Test
+    void conditionalGrantIsEvaluatedWithAttributes() throws Exception {
+        InMemorySource source = new InMemorySource();
+        source.conditions.put(102L,
+            "user.department == resource.department && resource.status in [1, 2] && !(request.ip == '10.0.0.1')");
+        Path file = dir.resolve("rbac.snapshot");
+        RbacSnapshotWriter.write(source, file);
+        AuthorizationEngine engine = AuthorizationEngine.open(file);
+
+        // 不提供属性时条件授权不生效，也不出现在权限列表中
+        assertFalse(engine.hasPermission(2, "user:reset-password"));
+        assertFalse(engine.getPermissionCodes(2).contains("user:reset-password"));
+
+        assertTrue(engine.hasPermission(2, "user:reset-password", () -> engine.newAttributes()
+            .put("user.department", "ops").put("resource.department", "ops").put("resource.status", 1)));
+        assertFalse(engine.hasPermission(2, "user:reset-password", () -> engine.newAttributes()
+            .put("user.department", "ops").put("resource.department", "dev").put("resource.status", 1)));
+        assertFalse(engine.hasPermission(2, "user:reset-password", () -> engine.newAttributes()
+            .put("user.department", "ops").put("resource.department", "ops").put("resource.status", 1)
+            .put("request.ip", "10.0.0.1")));
+
+        CompiledPolicy policy = engine.getPolicies().get(0);
+        assertTrue(policy.isValid());
+        assertEquals(3, policy.getEvaluations());
+        assertEquals(1, policy.getAllowed());
+
+        // 表达式不变时重新加载保留统计；无法编译的表达式始终拒绝
+        engine.reloadRoles(source);
+        assertEquals(3, engine.getPolicies().get(0).getEvaluations());
+        source.conditions.put(102L, "user.department ==");
+        engine.reloadRoles(source);
+        assertFalse(engine.getPolicies().get(0).isValid());
+        assertFalse(engine.hasPermission(2, "user:reset-password", engine::newAttributes));
+    }
+
+    private static final class InMemorySource implements RbacSource {
+        final Map<Long, long[]> members = new HashMap<>(Map.of(
+            1L, new long[]{10, 20},
+            2L, new long[]{20},
+            3L, new long[]{20}));
+        final List<long[]> grants = new ArrayList<>(List.of(
+            new long[]{10, 100}, new long[]{10, 101}, new long[]{20, 100}));
+        final Map<Long, String> conditions = new HashMap<>();
+
+        @Override
+        public long currentVersion() {
+            return 7;
+        }
+
+        @Override
+        public void forEachPermission(CodeConsumer consumer) {
+            consumer.accept(100, "user:read");
+            consumer.accept(101, "user:write");
+            consumer.accept(102, "user:reset-password");
+        }
+
+        @Override
+        public void forEachRole(CodeConsumer consumer) {
+            consumer.accept(10, "ADMIN");
+            consumer.accept(20, "USER");
+        }
+
+        @Override
+        public void forEachGrant(GrantConsumer consumer) {
+            grants.forEach(grant -> consumer.accept(grant[0], grant[1], null));
+            // 条件授权：USER 角色在条件满足时拥有 user:reset-password
+            conditions.forEach((permissionId, condition) -> consumer.accept(20, permissionId, condition));
+        }
+
+        @Override
+        public void forEachMember(LinkConsumer consumer) {
+            members.keySet().stream().sorted().forEach(userId -> {
+                for (long roleId : members.get(userId)) {
+                    consumer.accept(userId, roleId);
+                }
+            });
+        }
+
+        @Override
+        public Map<Long, long[]> findRoleIds(Collection<Long> userIds) {
+            Map<Long, long[]> result = new HashMap<>();
+            for (Long userId : userIds) {
+                if (members.containsKey(userId)) {
+                    result.put(userId, members.get(userId));
+                }
+            }
+            return result;
+        }
+    }
+}
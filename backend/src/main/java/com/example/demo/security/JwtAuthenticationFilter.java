@@ -1,79 +0,0 @@
-package com.example.demo.security;
-
-import com.example.demo.role.mapper.RoleMapper;
-import com.example.demo.user.entity.User;
-import com.example.demo.user.mapper.UserMapper;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
-
-@Component
-public class JwtAuthenticationFilter extends OncePerRequestFilter {
-
-    private final JwtUtil jwtUtil;
-    private final UserMapper userMapper;
-    private final RoleMapper roleMapper;
-
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserMapper userMapper, RoleMapper roleMapper) {
-        this.jwtUtil = jwtUtil;
-        this.userMapper = userMapper;
-        this.roleMapper = roleMapper;
-    }
-
-    @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
-                                  FilterChain filterChain) throws ServletException, IOException {
-        
-        String token = getTokenFromRequest(request);
-        
-        if (StringUtils.hasText(token) && jwtUtil.validateToken(token)) {
-            String username = jwtUtil.getUsernameFromToken(token);
-            
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userMapper.findByUsername(username);
-                
-                if (user != null && user.getStatus() == 1) {
-                    // 获取用户角色
-                    List<String> roleCodes = roleMapper.findRoleCodesByUserId(user.getId());
-                    List<GrantedAuthority> authorities = roleCodes.stream()
-                        .map(code -> new SimpleGrantedAuthority("ROLE_" + code))
-                        .collect(Collectors.toList());
-
-                    // 创建认证对象（包含角色权限）
-                    UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(user, null, authorities);
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    // 设置到安全上下文
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
-            }
-        }
-        
-        filterChain.doFilter(request, response);
-    }
-
-    /**
-     * 从请求头中获取token
-     */
-    private String getTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-}
\ No newline at end of file
@@ -26,7 +26,9 @@ CREATE TABLE IF NOT EXISTS users (
     INDEX idx_email (email),
     INDEX idx_phone (phone),
     INDEX idx_status (status),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_locked_until (locked_until),
+    INDEX idx_deleted_at (deleted_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户表';
 
 -- 创建角色表
@@ -43,7 +45,8 @@ CREATE TABLE IF NOT EXISTS roles (
 
     INDEX idx_code (code),
     INDEX idx_status (status),
-    INDEX idx_is_system (is_system)
+    INDEX idx_is_system (is_system),
+    INDEX idx_deleted_at (deleted_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色表';
 
 -- 创建权限表
@@ -85,6 +88,7 @@ CREATE TABLE IF NOT EXISTS role_permissions (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '关联ID',
     role_id BIGINT NOT NULL COMMENT '角色ID',
     permission_id BIGINT NOT NULL COMMENT '权限ID',
+    condition_expr VARCHAR(500) NULL COMMENT '授权条件表达式（为空表示无条件授权）',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
 
     UNIQUE KEY uk_role_permission (role_id, permission_id),
@@ -94,3 +98,99 @@ CREATE TABLE IF NOT EXISTS role_permissions (
     FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE,
     FOREIGN KEY (permission_id) REFERENCES permissions(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色权限关联表';
+
+-- 创建缓存变更日志表（跨实例缓存失效）
+CREATE TABLE IF NOT EXISTS cache_change_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '变更版本号',
+    cache_name VARCHAR(64) NOT NULL COMMENT '缓存名称',
+    cache_key VARCHAR(255) NOT NULL COMMENT '缓存键',
+    origin VARCHAR(64) NOT NULL COMMENT '发布实例ID',
+    created_at BIGINT NOT NULL COMMENT '发布时间（毫秒）',
+
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='缓存变更日志表';
+
+-- 活动计数汇总表（按分钟/小时/天累加，由各实例批量写入增量）
+CREATE TABLE IF NOT EXISTS activity_metrics (
+    activity VARCHAR(32) NOT NULL COMMENT '活动类型',
+    granularity VARCHAR(8) NOT NULL COMMENT '粒度：MINUTE/HOUR/DAY',
+    bucket_start BIGINT NOT NULL COMMENT '时间桶起点（毫秒）',
+    event_count BIGINT NOT NULL DEFAULT 0 COMMENT '次数',
+
+    PRIMARY KEY (activity, granularity, bucket_start),
+    INDEX idx_granularity_bucket (granularity, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='活动计数汇总表';
+
+-- 每日活跃用户表（HyperLogLog 寄存器，每天一行，约 16KB）
+CREATE TABLE IF NOT EXISTS active_user_sketches (
+    day DATE PRIMARY KEY COMMENT '日期',
+    registers BLOB NOT NULL COMMENT 'HyperLogLog 寄存器',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每日活跃用户估计表';
+
+-- 用户归档表（软删除超过保留期的用户，由维护任务迁移）
+CREATE TABLE IF NOT EXISTS users_archive (
+    id BIGINT PRIMARY KEY COMMENT '用户ID',
+    username VARCHAR(50) NOT NULL COMMENT '用户名',
+    email VARCHAR(100) NOT NULL COMMENT '邮箱',
+    phone VARCHAR(20) COMMENT '手机号',
+    password_hash VARCHAR(255) NOT NULL COMMENT '密码哈希',
+    nickname VARCHAR(100) COMMENT '昵称',
+    avatar_url VARCHAR(500) COMMENT '头像URL',
+    bio TEXT COMMENT '个人简介',
+    status TINYINT COMMENT '状态',
+    email_verified TINYINT COMMENT '邮箱是否验证',
+    phone_verified TINYINT COMMENT '手机是否验证',
+    last_login_at TIMESTAMP NULL COMMENT '最后登录时间',
+    last_login_ip VARCHAR(50) COMMENT '最后登录IP',
+    created_at TIMESTAMP NULL COMMENT '创建时间',
+    updated_at TIMESTAMP NULL COMMENT '更新时间',
+    deleted_at TIMESTAMP NULL COMMENT '删除时间',
+    archived_at TIMESTAMP NOT NULL COMMENT '归档时间',
+
+    INDEX idx_username (username),
+    INDEX idx_archived_at (archived_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户归档表';
+
+-- 角色归档表
+CREATE TABLE IF NOT EXISTS roles_archive (
+    id BIGINT PRIMARY KEY COMMENT '角色ID',
+    code VARCHAR(50) NOT NULL COMMENT '角色代码',
+    name VARCHAR(100) NOT NULL COMMENT '角色名称',
+    description TEXT COMMENT '角色描述',
+    status TINYINT COMMENT '状态',
+    is_system BOOLEAN COMMENT '是否系统角色',
+    created_at TIMESTAMP NULL COMMENT '创建时间',
+    updated_at TIMESTAMP NULL COMMENT '更新时间',
+    deleted_at TIMESTAMP NULL COMMENT '删除时间',
+    archived_at TIMESTAMP NOT NULL COMMENT '归档时间',
+
+    INDEX idx_code (code),
+    INDEX idx_archived_at (archived_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色归档表';
+
+-- 后台任务表（各实例通过 SELECT ... FOR UPDATE SKIP LOCKED 认领）
+CREATE TABLE IF NOT EXISTS jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '任务ID',
+    type VARCHAR(64) NOT NULL COMMENT '任务类型',
+    payload TEXT COMMENT '任务参数（JSON）',
+    priority INT NOT NULL DEFAULT 0 COMMENT '优先级，越大越先执行',
+    status VARCHAR(16) NOT NULL COMMENT '状态：PENDING/RUNNING/SUCCEEDED/FAILED/CANCELLED',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '已执行次数',
+    max_attempts INT NOT NULL DEFAULT 3 COMMENT '最大执行次数',
+    run_at DATETIME(3) NOT NULL COMMENT '最早执行时间（重试退避）',
+    locked_by VARCHAR(64) NULL COMMENT '持有租约的实例',
+    lease_until DATETIME(3) NULL COMMENT '租约到期时间',
+    progress INT NOT NULL DEFAULT 0 COMMENT '进度（0-100）',
+    progress_message VARCHAR(255) NULL COMMENT '进度说明',
+    last_error TEXT COMMENT '最近一次失败原因',
+    created_by BIGINT NULL COMMENT '提交人',
+    created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
+    started_at DATETIME(3) NULL COMMENT '最近一次开始执行时间',
+    finished_at DATETIME(3) NULL COMMENT '结束时间',
+    updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+
+    INDEX idx_claim (status, priority DESC, run_at, id),
+    INDEX idx_lease (status, lease_until),
+    INDEX idx_finished (status, finished_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='后台任务表';